@@ -0,0 +1,237 @@
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Loads intervals without blocking the caller. Each file is read on an I/O executor and then
+ * parsed on a parse executor, so reading some files overlaps with parsing others. By default
+ * files are read on a virtual thread each when the JDK has them, so that fanning out to many
+ * intervals does not tie up platform threads while waiting on the disk.
+ * 
+ * Failures complete the returned future exceptionally with a CompletionException whose cause
+ * is the FileNotFoundException or IOException parseFile would have thrown.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class AsyncMapDataLoader implements Closeable
+{
+   
+   /**
+    * Executor files are read on.
+    */
+   private final Executor io;
+   
+   /**
+    * Executor files are parsed on.
+    */
+   private final Executor parse;
+   
+   /**
+    * Executor created by this loader, shut down when it is closed, or null.
+    */
+   private final ExecutorService owned;
+   
+   /**
+    * Constructor, reads files with virtualThreadExecutor and parses them on the common
+    * fork-join pool.
+    */
+   public AsyncMapDataLoader()
+   {
+      
+      this.owned = virtualThreadExecutor();
+      this.io = owned;
+      this.parse = ForkJoinPool.commonPool();
+      
+   }
+   
+   /**
+    * Constructor, reads and parses files on the given executors, which are not shut down
+    * when the loader is closed.
+    * 
+    * @param io Executor files are read on.
+    * @param parse Executor files are parsed on.
+    */
+   public AsyncMapDataLoader(Executor io, Executor parse)
+   {
+      
+      this.io = io;
+      this.parse = parse;
+      this.owned = null;
+      
+   }
+   
+   /**
+    * Returns an executor that runs each task on a new virtual thread when the JDK supports
+    * them, or else on a cached pool of daemon platform threads.
+    * 
+    * @return ExecutorService for blocking tasks
+    */
+   public static ExecutorService virtualThreadExecutor()
+   {
+      
+      try
+      {
+         //looked up by reflection so that the code still runs on JDKs without virtual threads
+         return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      }
+      catch (ReflectiveOperationException | RuntimeException e)
+      {
+         return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "AsyncMapDataLoader io");
+            thread.setDaemon(true);
+            return thread;
+         });
+      }
+      
+   }
+   
+   /**
+    * Loads the interval for a date and time.
+    * 
+    * @param year Year the data was taken.
+    * @param month Month the data was taken.
+    * @param day Day the data was taken.
+    * @param hour Hour the data was taken.
+    * @param minute Minute the data was taken.
+    * @param directory The file location for the data.
+    * @param parameters The parameters to parse from the file.
+    * @return CompletableFuture of the parsed interval
+    */
+   public CompletableFuture<MapDataSnapshot> load(int year, int month, int day, int hour, int minute,
+            String directory, ParameterRegistry parameters)
+   {
+      
+      MapData mapData = new MapData(year, month, day, hour, minute, directory, parameters);
+      
+      return CompletableFuture.supplyAsync(() -> read(mapData.getFileName()), io)
+               .thenApplyAsync(contents -> parse(mapData, contents), parse);
+      
+   }
+   
+   /**
+    * Loads the interval for a date and time.
+    * 
+    * @param utcDateTime When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param directory The file location for the data.
+    * @param parameters The parameters to parse from the file.
+    * @return CompletableFuture of the parsed interval
+    */
+   public CompletableFuture<MapDataSnapshot> load(long utcDateTime, String directory, ParameterRegistry parameters)
+   {
+      return this.load(EpochTime.year(utcDateTime), EpochTime.month(utcDateTime), EpochTime.day(utcDateTime),
+               EpochTime.hour(utcDateTime), EpochTime.minute(utcDateTime), directory, parameters);
+   }
+   
+   /**
+    * Loads every interval from start to end, both inclusive, all at once. Times with no
+    * file are skipped.
+    * 
+    * @param start The first interval, in seconds since 1970-01-01 UTC.
+    * @param end The last interval, in seconds since 1970-01-01 UTC.
+    * @param directory The file location for the data.
+    * @param parameters The parameters to parse from each file.
+    * @return CompletableFuture of the parsed intervals in time order
+    */
+   public CompletableFuture<List<MapDataSnapshot>> loadRange(long start, long end, String directory,
+            ParameterRegistry parameters)
+   {
+      
+      List<CompletableFuture<MapDataSnapshot>> pending = new ArrayList<>();
+      
+      for (long time = start; time <= end; time += RangeIngestor.INTERVAL_SECONDS)
+      {
+         pending.add(this.load(time, directory, parameters).exceptionally(e -> {
+            if (e.getCause() instanceof FileNotFoundException)
+            {
+               return null;
+            }
+            throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+         }));
+      }
+      
+      return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+         List<MapDataSnapshot> results = new ArrayList<>(pending.size());
+         for (CompletableFuture<MapDataSnapshot> future : pending)
+         {
+            MapDataSnapshot snapshot = future.join();
+            if (snapshot != null)
+            {
+               results.add(snapshot);
+            }
+         }
+         return results;
+      });
+      
+   }
+   
+   /**
+    * Reads every byte of a file.
+    * 
+    * @param fileName The name of the file.
+    * @return ByteBuffer holding the file
+    */
+   private static ByteBuffer read(String fileName)
+   {
+      
+      try (FileInputStream in = new FileInputStream(fileName))
+      {
+         return ByteBuffer.wrap(in.readAllBytes());
+      }
+      catch (IOException e)
+      {
+         throw new CompletionException(e);
+      }
+      
+   }
+   
+   /**
+    * Parses the contents of a file.
+    * 
+    * @param mapData The interval the file holds.
+    * @param contents The bytes of the file.
+    * @return MapDataSnapshot parsed
+    */
+   private static MapDataSnapshot parse(MapData mapData, ByteBuffer contents)
+   {
+      
+      try
+      {
+         mapData.parse(contents);
+      }
+      catch (IOException e)
+      {
+         throw new CompletionException(e);
+      }
+      
+      return mapData.getSnapshot();
+      
+   }
+   
+   /**
+    * Shuts down the executor the loader created, if any. Loads already started finish.
+    */
+   @Override
+   public void close()
+   {
+      
+      if (owned != null)
+      {
+         owned.shutdown();
+      }
+      
+   }
+   
+}
@@ -0,0 +1,64 @@
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the AsyncMapDataLoader class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class AsyncMapDataLoaderTest
+{
+   
+   @Test
+   /**
+    * Tests that an interval loads with the same statistics as parseFile, and that a missing
+    * file fails the future rather than throwing.
+    */
+   public void testLoad() {
+      
+      AsyncMapDataLoader test = new AsyncMapDataLoader();
+      ParameterRegistry parameters = new ParameterRegistry(MapData.SRAD_ID, MapData.TAIR_ID, MapData.TA9M_ID);
+      
+      MapDataSnapshot snapshot = test.load(2017, 9, 25, 17, 45, "data", parameters).join();
+      Assert.assertEquals(snapshot.getStatistics(MapData.TAIR_ID, StatsType.MAXIMUM).getValue(), 35.3, .1);
+      Assert.assertEquals(snapshot.getStatistics(MapData.SRAD_ID, StatsType.TOTAL).getValue(), 8334.0, .1);
+      
+      try
+      {
+         test.load(2001, 1, 1, 0, 0, "data", parameters).join();
+         Assert.fail("Expected CompletionException");
+      }
+      catch (CompletionException e)
+      {
+         Assert.assertTrue(e.getCause() instanceof FileNotFoundException);
+      }
+      
+      test.close();
+      
+   }
+   
+   @Test
+   /**
+    * Tests that a range is loaded in time order, skipping times with no file.
+    */
+   public void testLoadRange() {
+      
+      AsyncMapDataLoader test = new AsyncMapDataLoader();
+      
+      List<MapDataSnapshot> results = test.loadRange(EpochTime.of(2017, 9, 25, 17, 0, 0),
+               EpochTime.of(2017, 9, 25, 18, 0, 0), "data", new ParameterRegistry(MapData.TAIR_ID)).join();
+      
+      Assert.assertEquals(1, results.size());
+      Assert.assertEquals(EpochTime.of(2017, 9, 25, 17, 45, 0), results.get(0).getUTCEpochSecond());
+      
+      test.close();
+      
+   }
+
+}
@@ -0,0 +1,348 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Adds up every measurement reported to it, and can be read through JMX once registered.
+ * Counters are striped so that threads reporting at once do not contend.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class CountingMetrics implements MapDataMetrics, CountingMetricsMXBean
+{
+   
+   /**
+    * Name the metrics are registered under by default.
+    */
+   public static final String OBJECT_NAME = "Project3:type=MapDataMetrics";
+   
+   /**
+    * Number of files parsed.
+    */
+   private final LongAdder filesParsed = new LongAdder();
+   
+   /**
+    * Time spent parsing files, in nanoseconds.
+    */
+   private final LongAdder parseNanos = new LongAdder();
+   
+   /**
+    * Number of bytes parsed.
+    */
+   private final LongAdder bytesParsed = new LongAdder();
+   
+   /**
+    * Number of station rows parsed.
+    */
+   private final LongAdder rowsParsed = new LongAdder();
+   
+   /**
+    * Number of station rows skipped.
+    */
+   private final LongAdder rowsSkipped = new LongAdder();
+   
+   /**
+    * Number of invalid observations of each parameter.
+    */
+   private final Map<String, LongAdder> invalid = new ConcurrentHashMap<>();
+   
+   /**
+    * Number of times statistics were built.
+    */
+   private final LongAdder statisticsCalculated = new LongAdder();
+   
+   /**
+    * Time spent building statistics, in nanoseconds.
+    */
+   private final LongAdder statisticsNanos = new LongAdder();
+   
+   /**
+    * Number of cache hits.
+    */
+   private final LongAdder cacheHits = new LongAdder();
+   
+   /**
+    * Number of cache misses.
+    */
+   private final LongAdder cacheMisses = new LongAdder();
+   
+   /**
+    * Registers these metrics with the platform MBean server under OBJECT_NAME, replacing
+    * any registered before.
+    * 
+    * @throws JMException In case the metrics cannot be registered.
+    */
+   public void register() throws JMException
+   {
+      
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      
+      if (server.isRegistered(name))
+      {
+         server.unregisterMBean(name);
+      }
+      
+      server.registerMBean(this, name);
+      
+   }
+   
+   @Override
+   /**
+    * Returns true, so measurements are always taken.
+    * 
+    * @return boolean true
+    */
+   public boolean isEnabled()
+   {
+      return true;
+   }
+   
+   @Override
+   /**
+    * Counts a file parsed.
+    * 
+    * @param fileName The name of the file.
+    * @param nanos Time taken to parse it, in nanoseconds.
+    * @param bytes Size of the file in bytes.
+    * @param rows Number of station rows parsed.
+    */
+   public void fileParsed(String fileName, long nanos, long bytes, int rows)
+   {
+      filesParsed.increment();
+      parseNanos.add(nanos);
+      bytesParsed.add(bytes);
+      rowsParsed.add(rows);
+   }
+   
+   @Override
+   /**
+    * Counts the rows skipped in a file.
+    * 
+    * @param fileName The name of the file.
+    * @param count Number of rows skipped.
+    */
+   public void rowsSkipped(String fileName, int count)
+   {
+      rowsSkipped.add(count);
+   }
+   
+   @Override
+   /**
+    * Counts the invalid observations of a parameter.
+    * 
+    * @param paramId The name of the parameter.
+    * @param count Number of invalid observations.
+    */
+   public void invalidObservations(String paramId, int count)
+   {
+      invalid.computeIfAbsent(paramId, k -> new LongAdder()).add(count);
+   }
+   
+   @Override
+   /**
+    * Counts statistics built.
+    * 
+    * @param paramId The name of the parameter.
+    * @param nanos Time taken, in nanoseconds.
+    */
+   public void statisticsCalculated(String paramId, long nanos)
+   {
+      statisticsCalculated.increment();
+      statisticsNanos.add(nanos);
+   }
+   
+   @Override
+   /**
+    * Counts a cache hit.
+    */
+   public void cacheHit()
+   {
+      cacheHits.increment();
+   }
+   
+   @Override
+   /**
+    * Counts a cache miss.
+    */
+   public void cacheMiss()
+   {
+      cacheMisses.increment();
+   }
+   
+   @Override
+   /**
+    * Returns the number of files parsed.
+    * 
+    * @return long files parsed
+    */
+   public long getFilesParsed()
+   {
+      return filesParsed.sum();
+   }
+   
+   @Override
+   /**
+    * Returns the total time spent parsing files, in nanoseconds.
+    * 
+    * @return long parse time
+    */
+   public long getParseNanos()
+   {
+      return parseNanos.sum();
+   }
+   
+   @Override
+   /**
+    * Returns the average time spent parsing a file, in milliseconds.
+    * 
+    * @return double average parse time, or 0 if no file was parsed
+    */
+   public double getAverageParseMillis()
+   {
+      
+      long files = filesParsed.sum();
+      
+      return files == 0 ? 0 : parseNanos.sum() / 1e6 / files;
+      
+   }
+   
+   @Override
+   /**
+    * Returns the number of bytes parsed.
+    * 
+    * @return long bytes parsed
+    */
+   public long getBytesParsed()
+   {
+      return bytesParsed.sum();
+   }
+   
+   @Override
+   /**
+    * Returns the number of station rows parsed.
+    * 
+    * @return long rows parsed
+    */
+   public long getRowsParsed()
+   {
+      return rowsParsed.sum();
+   }
+   
+   @Override
+   /**
+    * Returns the number of station rows skipped because they did not match the header.
+    * 
+    * @return long rows skipped
+    */
+   public long getRowsSkipped()
+   {
+      return rowsSkipped.sum();
+   }
+   
+   @Override
+   /**
+    * Returns the number of invalid observations found of each parameter.
+    * 
+    * @return Map from parameter name to invalid count, in name order
+    */
+   public Map<String, Long> getInvalidObservations()
+   {
+      
+      Map<String, Long> result = new TreeMap<>();
+      for (Map.Entry<String, LongAdder> entry : invalid.entrySet())
+      {
+         result.put(entry.getKey(), entry.getValue().sum());
+      }
+      
+      return result;
+      
+   }
+   
+   @Override
+   /**
+    * Returns the number of times statistics were built.
+    * 
+    * @return long statistics built
+    */
+   public long getStatisticsCalculated()
+   {
+      return statisticsCalculated.sum();
+   }
+   
+   @Override
+   /**
+    * Returns the total time spent building statistics, in nanoseconds.
+    * 
+    * @return long statistics time
+    */
+   public long getStatisticsNanos()
+   {
+      return statisticsNanos.sum();
+   }
+   
+   @Override
+   /**
+    * Returns the number of cache hits.
+    * 
+    * @return long cache hits
+    */
+   public long getCacheHits()
+   {
+      return cacheHits.sum();
+   }
+   
+   @Override
+   /**
+    * Returns the number of cache misses.
+    * 
+    * @return long cache misses
+    */
+   public long getCacheMisses()
+   {
+      return cacheMisses.sum();
+   }
+   
+   @Override
+   /**
+    * Returns the share of cache lookups that were hits.
+    * 
+    * @return double hit rate from 0 to 1, or 0 if there were no lookups
+    */
+   public double getCacheHitRate()
+   {
+      
+      long hits = cacheHits.sum();
+      long lookups = hits + cacheMisses.sum();
+      
+      return lookups == 0 ? 0 : (double) hits / lookups;
+      
+   }
+   
+   @Override
+   /**
+    * Sets every count back to zero.
+    */
+   public void reset()
+   {
+      filesParsed.reset();
+      parseNanos.reset();
+      bytesParsed.reset();
+      rowsParsed.reset();
+      rowsSkipped.reset();
+      invalid.clear();
+      statisticsCalculated.reset();
+      statisticsNanos.reset();
+      cacheHits.reset();
+      cacheMisses.reset();
+   }
+   
+}
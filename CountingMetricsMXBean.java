@@ -0,0 +1,103 @@
+import java.util.Map;
+
+/**
+ * Management interface of CountingMetrics, as seen through JMX.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public interface CountingMetricsMXBean
+{
+   
+   /**
+    * Returns the number of files parsed.
+    * 
+    * @return long files parsed
+    */
+   public long getFilesParsed();
+   
+   /**
+    * Returns the total time spent parsing files, in nanoseconds.
+    * 
+    * @return long parse time
+    */
+   public long getParseNanos();
+   
+   /**
+    * Returns the average time spent parsing a file, in milliseconds.
+    * 
+    * @return double average parse time, or 0 if no file was parsed
+    */
+   public double getAverageParseMillis();
+   
+   /**
+    * Returns the number of bytes parsed.
+    * 
+    * @return long bytes parsed
+    */
+   public long getBytesParsed();
+   
+   /**
+    * Returns the number of station rows parsed.
+    * 
+    * @return long rows parsed
+    */
+   public long getRowsParsed();
+   
+   /**
+    * Returns the number of station rows skipped because they did not match the header.
+    * 
+    * @return long rows skipped
+    */
+   public long getRowsSkipped();
+   
+   /**
+    * Returns the number of invalid observations found of each parameter.
+    * 
+    * @return Map from parameter name to invalid count
+    */
+   public Map<String, Long> getInvalidObservations();
+   
+   /**
+    * Returns the number of times statistics were built for a parameter of an interval.
+    * 
+    * @return long statistics built
+    */
+   public long getStatisticsCalculated();
+   
+   /**
+    * Returns the total time spent building statistics, in nanoseconds.
+    * 
+    * @return long statistics time
+    */
+   public long getStatisticsNanos();
+   
+   /**
+    * Returns the number of intervals found in a cache.
+    * 
+    * @return long cache hits
+    */
+   public long getCacheHits();
+   
+   /**
+    * Returns the number of intervals a cache had to parse.
+    * 
+    * @return long cache misses
+    */
+   public long getCacheMisses();
+   
+   /**
+    * Returns the share of cache lookups that were hits.
+    * 
+    * @return double hit rate from 0 to 1, or 0 if there were no lookups
+    */
+   public double getCacheHitRate();
+   
+   /**
+    * Sets every count back to zero.
+    */
+   public void reset();
+   
+}
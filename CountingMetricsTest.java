@@ -0,0 +1,65 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the CountingMetrics class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class CountingMetricsTest
+{
+   
+   @Test
+   /**
+    * Tests that parsing, building statistics, and cache lookups are counted and can be read
+    * through JMX.
+    * 
+    * @throws IOException
+    * @throws JMException
+    */
+   public void testCounts() throws IOException, JMException {
+      
+      CountingMetrics test = new CountingMetrics();
+      test.register();
+      Metrics.set(test);
+      
+      try
+      {
+         
+         MapDataCache cache = new MapDataCache(4);
+         MapDataSnapshot snapshot = cache.get(2017, 9, 25, 17, 45, "data");
+         cache.get(2017, 9, 25, 17, 45, "data");
+         snapshot.getStatistics(MapData.TAIR_ID, StatsType.AVERAGE);
+         snapshot.getStatistics(MapData.TAIR_ID, StatsType.MAXIMUM);
+         
+         Assert.assertEquals(1, test.getFilesParsed());
+         Assert.assertEquals(10, test.getRowsParsed());
+         Assert.assertTrue(test.getBytesParsed() > 0);
+         Assert.assertTrue(test.getParseNanos() > 0);
+         Assert.assertEquals(Long.valueOf(0), test.getInvalidObservations().get(MapData.SRAD_ID));
+         Assert.assertEquals(1, test.getStatisticsCalculated());
+         Assert.assertEquals(test.getCacheHitRate(), .5, .01);
+         
+         Object files = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(CountingMetrics.OBJECT_NAME),
+                  "FilesParsed");
+         Assert.assertEquals(Long.valueOf(1), files);
+         
+         test.reset();
+         Assert.assertEquals(0, test.getFilesParsed());
+         
+      }
+      finally
+      {
+         Metrics.set(null);
+      }
+      
+   }
+
+}
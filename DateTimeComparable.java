@@ -34,5 +34,29 @@ public interface DateTimeComparable
     * @return boolean value determining relative time scale.
     */
    boolean sameAs(GregorianCalendar inDateTimeUTC);
+   
+   /**
+    * True if the parameter date is older, false if newer.
+    * 
+    * @param inEpochSecond The date and time to be compared to, in seconds since 1970-01-01 UTC.
+    * @return boolean value determining relative time scale.
+    */
+   boolean newerThan(long inEpochSecond);
+   
+   /**
+    * True if the parameter date is newer, false if older.
+    * 
+    * @param inEpochSecond The date and time to be compared to, in seconds since 1970-01-01 UTC.
+    * @return boolean value determining relative time scale.
+    */
+   boolean olderThan(long inEpochSecond);
+   
+   /**
+    * True if the parameter date the same, false if different.
+    * 
+    * @param inEpochSecond The date and time to be compared to, in seconds since 1970-01-01 UTC.
+    * @return boolean value determining relative time scale.
+    */
+   boolean sameAs(long inEpochSecond);
 
 }
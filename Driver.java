@@ -14,6 +14,12 @@ public class Driver
 
    public static void main(String[] args) throws FileNotFoundException, IOException {
 
+      if (args.length == 2 && args[0].equals("--watch"))
+      {
+         watch(args[1]);
+         return;
+      }
+
       final int YEAR = 2018;
       final int MONTH = 8;
       final int DAY = 30;
@@ -29,4 +35,54 @@ public class Driver
       
    }
 
+   /**
+    * Prints each interval written to a directory, with the average air temperature over the
+    * last hour, until the program is stopped.
+    * 
+    * @param directory The directory to watch.
+    * @throws IOException In case the directory cannot be watched.
+    */
+   private static void watch(String directory) throws IOException {
+
+      final LiveIngestor ingestor = new LiveIngestor(directory);
+
+      ingestor.addListener(new MapDataListener()
+      {
+         @Override
+         public void intervalParsed(MapDataSnapshot interval, LiveIngestor source) {
+            System.out.println(interval);
+            System.out.println("Hourly tair average: "
+                     + source.getRollingStatistics(MapData.TAIR_ID, StatsType.AVERAGE).getValue());
+         }
+
+         @Override
+         public void parseFailed(String fileName, IOException e) {
+            System.err.println("Could not parse " + fileName + ": " + e.getMessage());
+         }
+      });
+
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+         try
+         {
+            ingestor.close();
+         }
+         catch (IOException e)
+         {
+            System.err.println(e.getMessage());
+         }
+      }));
+
+      ingestor.start();
+
+      try
+      {
+         ingestor.awaitClose();
+      }
+      catch (InterruptedException e)
+      {
+         ingestor.close();
+      }
+      
+   }
+
 }
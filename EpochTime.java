@@ -0,0 +1,421 @@
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+
+/**
+ * Converts dates and times to and from a single long counting the seconds since
+ * 1970-01-01 00:00:00 UTC, so that times can be stored and compared as primitives.
+ * Months are numbered 1 to 12.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public final class EpochTime
+{
+   
+   /**
+    * Number of seconds in a minute.
+    */
+   public static final long SECONDS_PER_MINUTE = 60;
+   
+   /**
+    * Number of seconds in an hour.
+    */
+   public static final long SECONDS_PER_HOUR = 60 * SECONDS_PER_MINUTE;
+   
+   /**
+    * Number of seconds in a day.
+    */
+   public static final long SECONDS_PER_DAY = 24 * SECONDS_PER_HOUR;
+   
+   /**
+    * Length of a date and time string in the format yyyy-MM-dd'T'HH:mm:ss z.
+    */
+   public static final int FORMATTED_LENGTH = 23;
+   
+   /**
+    * Powers of ten, indexed by exponent.
+    */
+   private static final int[] POWERS_OF_TEN = {1, 10, 100, 1000, 10000};
+   
+   /**
+    * Days from 0000-03-01 to 1970-01-01.
+    */
+   private static final long EPOCH_DAY_OFFSET = 719468;
+   
+   /**
+    * Days in a 400 year cycle of the Gregorian calendar.
+    */
+   private static final long DAYS_PER_ERA = 146097;
+   
+   /**
+    * Constructor, not used since every method is static.
+    */
+   private EpochTime()
+   {
+   }
+   
+   /**
+    * Returns the epoch second of a date and time. Fields past their range carry into the
+    * next larger field, so month 13 is January of the next year.
+    * 
+    * @param year The year.
+    * @param month The month, 1 to 12.
+    * @param day The day of the month.
+    * @param hour The hour of the day.
+    * @param minute The minute of the hour.
+    * @param second The second of the minute.
+    * @return long seconds since 1970-01-01 00:00:00 UTC
+    */
+   public static long of(int year, int month, int day, int hour, int minute, int second)
+   {
+      
+      long y = year + Math.floorDiv(month - 1, 12);
+      int m = Math.floorMod(month - 1, 12) + 1;
+      
+      //counts years from March so that the leap day falls at the end of the year
+      if (m <= 2)
+      {
+         --y;
+      }
+      
+      long era = Math.floorDiv(y, 400);
+      long yearOfEra = y - era * 400;
+      long dayOfYear = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5;
+      long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+      long epochDay = era * DAYS_PER_ERA + dayOfEra - EPOCH_DAY_OFFSET + day - 1;
+      
+      return epochDay * SECONDS_PER_DAY + hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE + second;
+      
+   }
+   
+   /**
+    * Returns the epoch second of a calendar whose month field holds the month number, the
+    * way MapData and Statistics build their calendars.
+    * 
+    * @param calendar Calendar holding date and time information.
+    * @return long seconds since 1970-01-01 00:00:00 UTC
+    */
+   public static long fromCalendar(GregorianCalendar calendar)
+   {
+      return of(calendar.get(Calendar.YEAR), calendar.get(Calendar.MONTH), calendar.get(Calendar.DAY_OF_MONTH),
+               calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE), calendar.get(Calendar.SECOND));
+   }
+   
+   /**
+    * Returns a calendar whose month field holds the month number, the way MapData and
+    * Statistics build their calendars.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @return GregorianCalendar for epochSecond
+    */
+   public static GregorianCalendar toCalendar(long epochSecond)
+   {
+      return new GregorianCalendar(year(epochSecond), month(epochSecond), day(epochSecond), hour(epochSecond),
+               minute(epochSecond), second(epochSecond));
+   }
+   
+   /**
+    * Returns the day since 1970-01-01 of an epoch second.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @return long epoch day
+    */
+   private static long epochDay(long epochSecond)
+   {
+      return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+   }
+   
+   /**
+    * Returns the day of a 400 year cycle, counted from March 1st, of an epoch day.
+    * 
+    * @param epochDay Days since 1970-01-01.
+    * @return long day of the cycle
+    */
+   private static long dayOfEra(long epochDay)
+   {
+      return Math.floorMod(epochDay + EPOCH_DAY_OFFSET, DAYS_PER_ERA);
+   }
+   
+   /**
+    * Returns the year of a day of a 400 year cycle, counted from March 1st.
+    * 
+    * @param dayOfEra Day of the cycle.
+    * @return long year of the cycle
+    */
+   private static long yearOfEra(long dayOfEra)
+   {
+      return (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+   }
+   
+   /**
+    * Returns the month index, counted from March as 0, of an epoch day.
+    * 
+    * @param epochDay Days since 1970-01-01.
+    * @return int month index
+    */
+   private static int marchMonth(long epochDay)
+   {
+      
+      long dayOfEra = dayOfEra(epochDay);
+      long yearOfEra = yearOfEra(dayOfEra);
+      long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+      
+      return (int) ((5 * dayOfYear + 2) / 153);
+      
+   }
+   
+   /**
+    * Returns the year of an epoch second.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @return int year
+    */
+   public static int year(long epochSecond)
+   {
+      
+      long epochDay = epochDay(epochSecond);
+      long era = Math.floorDiv(epochDay + EPOCH_DAY_OFFSET, DAYS_PER_ERA);
+      long year = yearOfEra(dayOfEra(epochDay)) + era * 400;
+      
+      return (int) (marchMonth(epochDay) >= 10 ? year + 1 : year);
+      
+   }
+   
+   /**
+    * Returns the month, 1 to 12, of an epoch second.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @return int month
+    */
+   public static int month(long epochSecond)
+   {
+      
+      int marchMonth = marchMonth(epochDay(epochSecond));
+      
+      return marchMonth < 10 ? marchMonth + 3 : marchMonth - 9;
+      
+   }
+   
+   /**
+    * Returns the day of the month of an epoch second.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @return int day of the month
+    */
+   public static int day(long epochSecond)
+   {
+      
+      long epochDay = epochDay(epochSecond);
+      long dayOfEra = dayOfEra(epochDay);
+      long yearOfEra = yearOfEra(dayOfEra);
+      long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+      long marchMonth = (5 * dayOfYear + 2) / 153;
+      
+      return (int) (dayOfYear - (153 * marchMonth + 2) / 5 + 1);
+      
+   }
+   
+   /**
+    * Returns the hour of the day of an epoch second.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @return int hour
+    */
+   public static int hour(long epochSecond)
+   {
+      return (int) (Math.floorMod(epochSecond, SECONDS_PER_DAY) / SECONDS_PER_HOUR);
+   }
+   
+   /**
+    * Returns the minute of the hour of an epoch second.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @return int minute
+    */
+   public static int minute(long epochSecond)
+   {
+      return (int) (Math.floorMod(epochSecond, SECONDS_PER_HOUR) / SECONDS_PER_MINUTE);
+   }
+   
+   /**
+    * Returns the second of the minute of an epoch second.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @return int second
+    */
+   public static int second(long epochSecond)
+   {
+      return (int) Math.floorMod(epochSecond, SECONDS_PER_MINUTE);
+   }
+   
+   /**
+    * Parses a date and time in the format yyyy-MM-dd'T'HH:mm:ss z by reading the digits
+    * at their fixed positions, without creating any objects. Anything after the seconds
+    * is ignored.
+    * 
+    * @param text Text holding the date and time.
+    * @return long seconds since 1970-01-01 00:00:00 UTC
+    * @throws IllegalArgumentException In case text is not in the format.
+    */
+   public static long parse(CharSequence text)
+   {
+      
+      if (text.length() < 21 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != '\''
+               || text.charAt(11) != 'T' || text.charAt(12) != '\'' || text.charAt(15) != ':'
+               || text.charAt(18) != ':')
+      {
+         throw new IllegalArgumentException("Not in the format yyyy-MM-dd'T'HH:mm:ss z: " + text);
+      }
+      
+      return of(digits(text, 0, 4), digits(text, 5, 2), digits(text, 8, 2), digits(text, 13, 2),
+               digits(text, 16, 2), digits(text, 19, 2));
+      
+   }
+   
+   /**
+    * Reads a fixed number of decimal digits.
+    * 
+    * @param text Text holding the digits.
+    * @param start Index of the first digit.
+    * @param count Number of digits.
+    * @return int value of the digits
+    * @throws IllegalArgumentException In case a character is not a digit.
+    */
+   private static int digits(CharSequence text, int start, int count)
+   {
+      
+      int value = 0;
+      
+      for (int i = start; i < start + count; ++i)
+      {
+         
+         int digit = text.charAt(i) - '0';
+         
+         if (digit < 0 || digit > 9)
+         {
+            throw new IllegalArgumentException("Expected a digit at " + i + ": " + text);
+         }
+         
+         value = value * 10 + digit;
+         
+      }
+      
+      return value;
+      
+   }
+   
+   /**
+    * Writes a date and time in the format yyyy-MM-dd'T'HH:mm:ss z into an array, without
+    * creating any objects.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @param out Array to write into.
+    * @param offset Index of out to start writing at.
+    * @return int index after the last character written
+    */
+   public static int format(long epochSecond, char[] out, int offset)
+   {
+      return format(year(epochSecond), month(epochSecond), day(epochSecond), hour(epochSecond),
+               minute(epochSecond), second(epochSecond), out, offset);
+   }
+   
+   /**
+    * Writes a date and time given by its fields in the format yyyy-MM-dd'T'HH:mm:ss z into
+    * an array, without creating any objects.
+    * 
+    * @param year The year.
+    * @param month The month.
+    * @param day The day of the month.
+    * @param hour The hour of the day.
+    * @param minute The minute of the hour.
+    * @param second The second of the minute.
+    * @param out Array to write into.
+    * @param offset Index of out to start writing at.
+    * @return int index after the last character written
+    */
+   public static int format(int year, int month, int day, int hour, int minute, int second, char[] out, int offset)
+   {
+      
+      int i = offset;
+      i = writeDigits(year, 4, out, i);
+      out[i++] = '-';
+      i = writeDigits(month, 2, out, i);
+      out[i++] = '-';
+      i = writeDigits(day, 2, out, i);
+      out[i++] = '\'';
+      out[i++] = 'T';
+      out[i++] = '\'';
+      i = writeDigits(hour, 2, out, i);
+      out[i++] = ':';
+      i = writeDigits(minute, 2, out, i);
+      out[i++] = ':';
+      i = writeDigits(second, 2, out, i);
+      out[i++] = ' ';
+      out[i++] = 'z';
+      
+      return i;
+      
+   }
+   
+   /**
+    * Appends a date and time in the format yyyy-MM-dd'T'HH:mm:ss z to a StringBuilder.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @param out StringBuilder to append to.
+    * @param scratch Array of at least FORMATTED_LENGTH characters to format into.
+    */
+   public static void append(long epochSecond, StringBuilder out, char[] scratch)
+   {
+      
+      int length = format(epochSecond, scratch, 0);
+      out.append(scratch, 0, length);
+      
+   }
+   
+   /**
+    * Returns a date and time in the format yyyy-MM-dd'T'HH:mm:ss z.
+    * 
+    * @param epochSecond Seconds since 1970-01-01 00:00:00 UTC.
+    * @return String formatted date and time
+    */
+   public static String format(long epochSecond)
+   {
+      
+      char[] out = new char[FORMATTED_LENGTH];
+      int length = format(epochSecond, out, 0);
+      
+      return new String(out, 0, length);
+      
+   }
+   
+   /**
+    * Writes a number as a fixed number of zero padded digits.
+    * 
+    * @param value The number to write.
+    * @param width Number of digits.
+    * @param out Array to write into.
+    * @param offset Index of out to start writing at.
+    * @return int index after the last character written
+    * @throws IllegalArgumentException In case value is negative or has more digits than width.
+    */
+   private static int writeDigits(int value, int width, char[] out, int offset)
+   {
+      
+      if (value < 0 || value >= POWERS_OF_TEN[width])
+      {
+         throw new IllegalArgumentException(value + " does not fit in " + width + " digits");
+      }
+      
+      for (int i = offset + width - 1; i >= offset; --i)
+      {
+         out[i] = (char) ('0' + value % 10);
+         value /= 10;
+      }
+      
+      return offset + width;
+      
+   }
+   
+}
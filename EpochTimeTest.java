@@ -0,0 +1,99 @@
+import java.util.GregorianCalendar;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the EpochTime class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class EpochTimeTest
+{
+   
+   @Test
+   /**
+    * Tests building an epoch second and reading its fields back.
+    */
+   public void testOf() {
+      
+      long test = EpochTime.of(2018, 8, 30, 17, 45, 10);
+      
+      Assert.assertEquals(1535651110L, test);
+      Assert.assertEquals(2018, EpochTime.year(test));
+      Assert.assertEquals(8, EpochTime.month(test));
+      Assert.assertEquals(30, EpochTime.day(test));
+      Assert.assertEquals(17, EpochTime.hour(test));
+      Assert.assertEquals(45, EpochTime.minute(test));
+      Assert.assertEquals(10, EpochTime.second(test));
+      
+   }
+   
+   @Test
+   /**
+    * Tests leap days and fields that carry into the next month or year.
+    */
+   public void testCarry() {
+      
+      long leapDay = EpochTime.of(2016, 2, 29, 0, 0, 0);
+      
+      Assert.assertEquals(2, EpochTime.month(leapDay));
+      Assert.assertEquals(29, EpochTime.day(leapDay));
+      Assert.assertEquals(EpochTime.of(2016, 3, 1, 0, 0, 0), leapDay + EpochTime.SECONDS_PER_DAY);
+      Assert.assertEquals(EpochTime.of(2019, 1, 1, 0, 0, 0), EpochTime.of(2018, 13, 1, 0, 0, 0));
+      Assert.assertEquals(EpochTime.of(2018, 9, 1, 0, 0, 0), EpochTime.of(2018, 8, 31, 24, 0, 0));
+      
+   }
+   
+   @Test
+   /**
+    * Tests converting to and from a calendar holding the month number.
+    */
+   public void testCalendar() {
+      
+      GregorianCalendar test = new GregorianCalendar(2017, 8, 30, 17, 45, 0);
+      
+      Assert.assertEquals(EpochTime.of(2017, 8, 30, 17, 45, 0), EpochTime.fromCalendar(test));
+      Assert.assertEquals(test, EpochTime.toCalendar(EpochTime.fromCalendar(test)));
+      
+   }
+   
+   @Test
+   /**
+    * Tests parsing and formatting the yyyy-MM-dd'T'HH:mm:ss z format.
+    */
+   public void testParseAndFormat() {
+      
+      long test = EpochTime.parse("2017-08-30'T'17:45:09 z");
+      
+      Assert.assertEquals(EpochTime.of(2017, 8, 30, 17, 45, 9), test);
+      Assert.assertTrue(EpochTime.format(test).equals("2017-08-30'T'17:45:09 z"));
+      
+      StringBuilder out = new StringBuilder("at ");
+      EpochTime.append(test, out, new char[EpochTime.FORMATTED_LENGTH]);
+      
+      Assert.assertTrue(out.toString().equals("at 2017-08-30'T'17:45:09 z"));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that text not in the format is rejected.
+    */
+   public void testParseInvalid() {
+      
+      try
+      {
+         EpochTime.parse("2017-8-30'T'17:45:09 z");
+         Assert.fail("Expected IllegalArgumentException");
+      }
+      catch (IllegalArgumentException e)
+      {
+         Assert.assertTrue(e.getMessage().contains("2017-8-30"));
+      }
+      
+   }
+
+}
@@ -0,0 +1,237 @@
+/**
+ * Counts values in a fixed number of equal-width buckets between a lower and an upper bound,
+ * with one more bucket for values below and one for values above. Histograms with the same
+ * buckets can be merged, so one can be built per interval or per thread and combined.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class Histogram
+{
+   
+   /**
+    * Lower bound of the first bucket.
+    */
+   private final double lower;
+   
+   /**
+    * Upper bound of the last bucket.
+    */
+   private final double upper;
+   
+   /**
+    * Width of each bucket.
+    */
+   private final double width;
+   
+   /**
+    * Count of each bucket, with the values below lower at 0 and those at or above upper last.
+    */
+   private final long[] counts;
+   
+   /**
+    * Number of values added.
+    */
+   private long total;
+   
+   /**
+    * Constructor, initializes an empty histogram.
+    * 
+    * @param lower The lower bound of the first bucket.
+    * @param upper The upper bound of the last bucket.
+    * @param buckets The number of buckets between lower and upper.
+    */
+   public Histogram(double lower, double upper, int buckets)
+   {
+      
+      if (!(upper > lower) || buckets < 1)
+      {
+         throw new IllegalArgumentException("Bad buckets: " + buckets + " from " + lower + " to " + upper);
+      }
+      
+      this.lower = lower;
+      this.upper = upper;
+      this.width = (upper - lower) / buckets;
+      this.counts = new long[buckets + 2];
+      
+   }
+   
+   /**
+    * Adds a value.
+    * 
+    * @param value The value to add.
+    */
+   public void add(double value)
+   {
+      
+      int bucket;
+      
+      if (value < lower)
+      {
+         bucket = 0;
+      }
+      else if (value >= upper)
+      {
+         bucket = counts.length - 1;
+      }
+      else
+      {
+         //rounding can put a value just under upper past the last bucket
+         bucket = Math.min(1 + (int) ((value - lower) / width), counts.length - 2);
+      }
+      
+      ++counts[bucket];
+      ++total;
+      
+   }
+   
+   /**
+    * Adds the valid values of one column of a store.
+    * 
+    * @param observations The observations to add.
+    * @param param The column of the parameter to add.
+    */
+   public void add(ObservationStore observations, int param)
+   {
+      
+      for (int i = 0; i < observations.size(); ++i)
+      {
+         if (observations.isValid(i, param))
+         {
+            this.add(observations.getValue(i, param));
+         }
+      }
+      
+   }
+   
+   /**
+    * Adds every value of another histogram to this one.
+    * 
+    * @param other A histogram with the same buckets.
+    */
+   public void merge(Histogram other)
+   {
+      
+      if (other.lower != lower || other.upper != upper || other.counts.length != counts.length)
+      {
+         throw new IllegalArgumentException("Cannot merge histograms with different buckets");
+      }
+      
+      for (int i = 0; i < counts.length; ++i)
+      {
+         counts[i] += other.counts[i];
+      }
+      
+      total += other.total;
+      
+   }
+   
+   /**
+    * Returns the number of buckets between the bounds.
+    * 
+    * @return int number of buckets
+    */
+   public int getBucketCount()
+   {
+      return counts.length - 2;
+   }
+   
+   /**
+    * Returns the lower bound of a bucket.
+    * 
+    * @param bucket The bucket, from 0 to getBucketCount() - 1.
+    * @return double lower bound
+    */
+   public double getBucketLower(int bucket)
+   {
+      return lower + bucket * width;
+   }
+   
+   /**
+    * Returns the number of values in a bucket.
+    * 
+    * @param bucket The bucket, from 0 to getBucketCount() - 1.
+    * @return long count
+    */
+   public long getCount(int bucket)
+   {
+      return counts[bucket + 1];
+   }
+   
+   /**
+    * Returns the number of values below the lower bound.
+    * 
+    * @return long count
+    */
+   public long getUnderflow()
+   {
+      return counts[0];
+   }
+   
+   /**
+    * Returns the number of values at or above the upper bound.
+    * 
+    * @return long count
+    */
+   public long getOverflow()
+   {
+      return counts[counts.length - 1];
+   }
+   
+   /**
+    * Returns the number of values added.
+    * 
+    * @return long count
+    */
+   public long getTotal()
+   {
+      return total;
+   }
+   
+   /**
+    * Returns an estimate of a quantile, assuming the values in each bucket are spread evenly
+    * across it. Quantiles falling below or above the bounds are returned as the bound.
+    * 
+    * @param quantile The quantile, from 0 to 1.
+    * @return double estimate, or NaN if nothing has been added
+    */
+   public double getQuantile(double quantile)
+   {
+      
+      if (!(quantile >= 0 && quantile <= 1))
+      {
+         throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+      }
+      
+      if (total == 0)
+      {
+         return Double.NaN;
+      }
+      
+      double rank = quantile * total;
+      double seen = counts[0];
+      
+      if (rank <= seen)
+      {
+         return lower;
+      }
+      
+      for (int i = 1; i < counts.length - 1; ++i)
+      {
+         
+         if (counts[i] > 0 && rank <= seen + counts[i])
+         {
+            return lower + (i - 1 + (rank - seen) / counts[i]) * width;
+         }
+         
+         seen += counts[i];
+         
+      }
+      
+      return upper;
+      
+   }
+   
+}
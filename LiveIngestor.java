@@ -0,0 +1,460 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Watches a data directory and parses each interval file as soon as it is created or
+ * changed, keeps rolling statistics over the newest intervals, and passes every parsed
+ * interval on to its listeners. Files are parsed on a pool of worker threads while one
+ * thread waits on the directory, so a new file is usually available within milliseconds.
+ * 
+ * Files are best written under another name and then renamed into the directory, so that
+ * they are never seen half written. A file that is rewritten, or arrives late, replaces its
+ * interval in the rolling statistics, so a file parsed while half written is corrected
+ * once it is complete. A file that fails to parse is tried again when it next changes.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class LiveIngestor implements Closeable
+{
+   
+   /**
+    * Names of interval files, such as 201808301745.mdf.
+    */
+   private static final Pattern FILE_NAME = Pattern.compile("\\d{12}\\.mdf");
+   
+   /**
+    * Number of intervals remembered to tell a changed file from a repeated event.
+    */
+   private static final int RECENT_INTERVALS = 64;
+   
+   /**
+    * The directory watched.
+    */
+   private final String directory;
+   
+   /**
+    * Parameters parsed from each file.
+    */
+   private final ParameterRegistry parameters;
+   
+   /**
+    * Parses files, and only parses one again once it has changed.
+    */
+   private final MapDataCache cache = new MapDataCache(RECENT_INTERVALS);
+   
+   /**
+    * Rolling statistics for each parameter, indexed by parameter slot.
+    */
+   private final RollingStatistics[] rolling;
+   
+   /**
+    * Interval last passed to the listeners for each recent date and time.
+    */
+   private final Map<Long, MapDataSnapshot> delivered = new LinkedHashMap<Long, MapDataSnapshot>()
+   {
+      
+      /**
+       * Version of the serialized form.
+       */
+      private static final long serialVersionUID = 1L;
+      
+      /**
+       * Forgets the oldest interval once there are too many.
+       * 
+       * @param eldest The oldest interval.
+       * @return boolean true to forget it
+       */
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, MapDataSnapshot> eldest)
+      {
+         return size() > RECENT_INTERVALS;
+      }
+      
+   };
+   
+   /**
+    * Names of the files waiting to be parsed, so that a burst of events parses a file once.
+    */
+   private final Map<String, Boolean> pending = new ConcurrentHashMap<>();
+   
+   /**
+    * Listeners told of every interval parsed.
+    */
+   private final List<MapDataListener> listeners = new CopyOnWriteArrayList<>();
+   
+   /**
+    * Threads the files are parsed on.
+    */
+   private final ExecutorService workers;
+   
+   /**
+    * Notified by the file system of changes to the directory.
+    */
+   private WatchService watcher;
+   
+   /**
+    * Thread waiting on watcher.
+    */
+   private Thread watchThread;
+   
+   /**
+    * Constructor, watches for files holding srad, tair, and ta9m with hourly rolling
+    * statistics, parsed on two threads.
+    * 
+    * @param directory The directory to watch.
+    */
+   public LiveIngestor(String directory)
+   {
+      this(directory, 2, new ParameterRegistry(MapData.SRAD_ID, MapData.TAIR_ID, MapData.TA9M_ID),
+               RollingStatistics.HOUR);
+   }
+   
+   /**
+    * Constructor, initializes the ingestor without starting it. Its rolling statistics do
+    * not keep quantiles.
+    * 
+    * @param directory The directory to watch.
+    * @param threads The number of threads files are parsed on.
+    * @param parameters The parameters to parse from each file.
+    * @param windowMinutes The length of the rolling statistics window in minutes.
+    */
+   public LiveIngestor(String directory, int threads, ParameterRegistry parameters, int windowMinutes)
+   {
+      this(directory, threads, parameters, windowMinutes, false);
+   }
+   
+   /**
+    * Constructor, initializes the ingestor without starting it.
+    * 
+    * @param directory The directory to watch.
+    * @param threads The number of threads files are parsed on.
+    * @param parameters The parameters to parse from each file.
+    * @param windowMinutes The length of the rolling statistics window in minutes.
+    * @param quantiles Whether the rolling statistics sketch each interval to keep quantiles.
+    */
+   public LiveIngestor(String directory, int threads, ParameterRegistry parameters, int windowMinutes,
+            boolean quantiles)
+   {
+      
+      this.directory = directory;
+      this.parameters = parameters;
+      this.workers = Executors.newFixedThreadPool(threads);
+      
+      rolling = new RollingStatistics[parameters.size()];
+      for (int p = 0; p < rolling.length; ++p)
+      {
+         rolling[p] = new RollingStatistics(parameters.getParamId(p), windowMinutes, quantiles);
+      }
+      
+   }
+   
+   /**
+    * Adds a listener to be told of every interval parsed from now on.
+    * 
+    * @param listener The listener.
+    */
+   public void addListener(MapDataListener listener)
+   {
+      listeners.add(listener);
+   }
+   
+   /**
+    * Removes a listener.
+    * 
+    * @param listener The listener.
+    */
+   public void removeListener(MapDataListener listener)
+   {
+      listeners.remove(listener);
+   }
+   
+   /**
+    * Starts watching the directory. Files already in it are not parsed.
+    * 
+    * @throws IOException In case the directory cannot be watched.
+    */
+   public synchronized void start() throws IOException
+   {
+      
+      if (watcher != null)
+      {
+         throw new IllegalStateException("Already started");
+      }
+      
+      Path path = Paths.get(directory);
+      watcher = FileSystems.getDefault().newWatchService();
+      path.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+      
+      final WatchService service = watcher;
+      watchThread = new Thread(() -> this.watch(service), "LiveIngestor " + directory);
+      watchThread.setDaemon(true);
+      watchThread.start();
+      
+   }
+   
+   /**
+    * Waits on the directory and queues each interval file created or changed in it, until
+    * the watcher is closed.
+    * 
+    * @param service The watcher to wait on.
+    */
+   private void watch(WatchService service)
+   {
+      
+      try
+      {
+         
+         while (true)
+         {
+            
+            WatchKey key = service.take();
+            
+            for (WatchEvent<?> event : key.pollEvents())
+            {
+               if (event.kind() != StandardWatchEventKinds.OVERFLOW)
+               {
+                  this.submit(event.context().toString());
+               }
+            }
+            
+            if (!key.reset())
+            {
+               return;
+            }
+            
+         }
+         
+      }
+      catch (InterruptedException | ClosedWatchServiceException e)
+      {
+         //closed, so stops watching
+      }
+      
+   }
+   
+   /**
+    * Queues a file to be parsed unless it is not an interval file or is already queued.
+    * 
+    * @param name The name of the file within the directory.
+    */
+   private void submit(final String name)
+   {
+      
+      if (!FILE_NAME.matcher(name).matches() || pending.putIfAbsent(name, Boolean.TRUE) != null)
+      {
+         return;
+      }
+      
+      workers.execute(() -> this.ingest(name));
+      
+   }
+   
+   /**
+    * Parses a file and passes it on, unless it has not changed since it was last passed on.
+    * 
+    * @param name The name of the file within the directory, such as 201808301745.mdf.
+    */
+   private void ingest(String name)
+   {
+      
+      //events from here on queue the file again
+      pending.remove(name);
+      
+      long utcDateTime = EpochTime.of(Integer.parseInt(name.substring(0, 4)), Integer.parseInt(name.substring(4, 6)),
+               Integer.parseInt(name.substring(6, 8)), Integer.parseInt(name.substring(8, 10)),
+               Integer.parseInt(name.substring(10, 12)), 0);
+      
+      MapDataSnapshot interval;
+      
+      try
+      {
+         interval = cache.get(utcDateTime, directory, parameters);
+      }
+      catch (IOException | RuntimeException e)
+      {
+         
+         IOException failure = e instanceof IOException ? (IOException) e : new IOException(e);
+         for (MapDataListener listener : listeners)
+         {
+            reportFailure(listener, name, failure);
+         }
+         
+         return;
+         
+      }
+      
+      this.publish(interval);
+      
+   }
+   
+   /**
+    * Tells a listener that a file could not be parsed, or that the listener itself failed
+    * on it. A listener that throws from parseFailed is not told again.
+    * 
+    * @param listener The listener.
+    * @param name The name of the file.
+    * @param failure The reason.
+    */
+   private static void reportFailure(MapDataListener listener, String name, IOException failure)
+   {
+      
+      try
+      {
+         listener.parseFailed(name, failure);
+      }
+      catch (RuntimeException e)
+      {
+         //nothing more can be done for a listener that fails on its own failures
+      }
+      
+   }
+   
+   /**
+    * Adds a parsed interval to the rolling statistics, replacing any held for the same time,
+    * and passes it to the listeners. A listener that throws is told through parseFailed, and
+    * the interval is still passed to the listeners after it.
+    * 
+    * @param interval The parsed interval.
+    */
+   private synchronized void publish(MapDataSnapshot interval)
+   {
+      
+      long time = interval.getUTCEpochSecond();
+      
+      if (delivered.get(time) == interval)
+      {
+         return;
+      }
+      delivered.put(time, interval);
+      
+      //an interval arriving late or rewritten replaces the one held for its time
+      for (RollingStatistics window : rolling)
+      {
+         window.replace(interval);
+      }
+      
+      for (MapDataListener listener : listeners)
+      {
+         try
+         {
+            listener.intervalParsed(interval, this);
+         }
+         catch (RuntimeException e)
+         {
+            reportFailure(listener, interval.getFileName(),
+                     new IOException("Listener failed on " + interval.getFileName(), e));
+         }
+      }
+      
+   }
+   
+   /**
+    * Returns a rolling statistic of a parameter over the window ending at the newest
+    * interval.
+    * 
+    * @param paramId The name of the parameter.
+    * @param type The type of statistic.
+    * @return Statistics over the window, or null if no interval has been parsed
+    * @throws IllegalStateException In case a quantile is asked for but quantiles are not kept.
+    */
+   public synchronized Statistics getRollingStatistics(String paramId, StatsType type)
+   {
+      
+      int slot = parameters.indexOf(paramId);
+      
+      if (slot == ParameterRegistry.SKIP)
+      {
+         throw new IllegalArgumentException(paramId + " is not parsed");
+      }
+      
+      switch (type)
+      {
+         case MINIMUM:
+            return rolling[slot].getMinimum();
+         case MAXIMUM:
+            return rolling[slot].getMaximum();
+         case AVERAGE:
+            return rolling[slot].getAverage();
+         case TOTAL:
+            return rolling[slot].getTotal();
+         default:
+            return rolling[slot].getQuantile(type);
+      }
+      
+   }
+   
+   /**
+    * Waits until the ingestor is closed.
+    * 
+    * @throws InterruptedException In case the thread is interrupted while waiting.
+    */
+   public void awaitClose() throws InterruptedException
+   {
+      
+      Thread thread;
+      synchronized (this)
+      {
+         thread = watchThread;
+      }
+      
+      if (thread != null)
+      {
+         thread.join();
+      }
+      
+   }
+   
+   /**
+    * Stops watching the directory and waits for the files already queued to be parsed.
+    * 
+    * @throws IOException In case the watcher could not be closed.
+    */
+   @Override
+   public void close() throws IOException
+   {
+      
+      WatchService service;
+      synchronized (this)
+      {
+         service = watcher;
+      }
+      
+      if (service != null)
+      {
+         service.close();
+      }
+      
+      workers.shutdown();
+      
+      try
+      {
+         workers.awaitTermination(1, TimeUnit.MINUTES);
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+      }
+      
+   }
+   
+}
@@ -0,0 +1,160 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the LiveIngestor class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class LiveIngestorTest
+{
+   
+   /**
+    * Columns of the files written.
+    */
+   private static final String[] TAIR = {"TAIR"};
+   
+   /**
+    * Directory the files of each test are written to.
+    */
+   private MdfTestDirectory files;
+   
+   @Before
+   /**
+    * Creates the directory the files of a test are written to.
+    * 
+    * @throws IOException
+    */
+   public void setUp() throws IOException {
+      files = new MdfTestDirectory("live");
+   }
+   
+   @After
+   /**
+    * Deletes the files of a test.
+    */
+   public void tearDown() {
+      files.delete();
+   }
+   
+   /**
+    * Writes a file with one TAIR value per station under a temporary name and renames it
+    * into the directory.
+    * 
+    * @param minute Minute of 2018-08-30 17:00 the data was taken.
+    * @param tair The TAIR value of each station.
+    * @throws IOException
+    */
+   private void write(int minute, double... tair) throws IOException {
+      
+      File temp = files.write(new File(files.getDirectory(), "incoming.tmp"), MdfTestDirectory.time(minute), TAIR,
+               MdfTestDirectory.stations(tair.length), tair);
+      
+      Files.move(temp.toPath(), files.file(MdfTestDirectory.time(minute)).toPath(), StandardCopyOption.ATOMIC_MOVE);
+      
+   }
+   
+   @Test
+   /**
+    * Tests that files renamed into the directory are parsed, passed to listeners, and added
+    * to the rolling statistics, while other files are ignored.
+    * 
+    * @throws Exception
+    */
+   public void testWatch() throws Exception {
+      
+      final BlockingQueue<MapDataSnapshot> parsed = new LinkedBlockingQueue<>();
+      
+      LiveIngestor test = new LiveIngestor(files.getPath(), 2, new ParameterRegistry("TAIR"), RollingStatistics.HOUR);
+      test.addListener(new MapDataListener()
+      {
+         @Override
+         public void intervalParsed(MapDataSnapshot interval, LiveIngestor source) {
+            parsed.add(interval);
+         }
+         
+         @Override
+         public void parseFailed(String fileName, IOException e) {
+            Assert.fail(fileName + ": " + e);
+         }
+      });
+      test.start();
+      
+      write(0, 20.0, 30.0);
+      MapDataSnapshot first = parsed.poll(10, TimeUnit.SECONDS);
+      Assert.assertNotNull(first);
+      Assert.assertEquals(first.getStatistics("TAIR", StatsType.MAXIMUM).getValue(), 30.0, .1);
+      
+      write(5, 10.0, 40.0);
+      Assert.assertNotNull(parsed.poll(10, TimeUnit.SECONDS));
+      Assert.assertEquals(test.getRollingStatistics("TAIR", StatsType.AVERAGE).getValue(), 25.0, .1);
+      Assert.assertEquals(test.getRollingStatistics("TAIR", StatsType.MINIMUM).getValue(), 10.0, .1);
+      
+      new File(files.getDirectory(), "notes.txt").createNewFile();
+      Assert.assertNull(parsed.poll(200, TimeUnit.MILLISECONDS));
+      
+      test.close();
+      
+   }
+   
+   @Test
+   /**
+    * Tests that a listener that throws is told through parseFailed and does not stop the
+    * listeners after it from being told of the interval.
+    * 
+    * @throws Exception
+    */
+   public void testFailingListener() throws Exception {
+      
+      final BlockingQueue<String> failed = new LinkedBlockingQueue<>();
+      final BlockingQueue<MapDataSnapshot> parsed = new LinkedBlockingQueue<>();
+      
+      LiveIngestor test = new LiveIngestor(files.getPath(), 2, new ParameterRegistry("TAIR"), RollingStatistics.HOUR);
+      test.addListener(new MapDataListener()
+      {
+         @Override
+         public void intervalParsed(MapDataSnapshot interval, LiveIngestor source) {
+            throw new IllegalStateException("listener bug");
+         }
+         
+         @Override
+         public void parseFailed(String fileName, IOException e) {
+            failed.add(e.getCause().getMessage());
+         }
+      });
+      test.addListener(new MapDataListener()
+      {
+         @Override
+         public void intervalParsed(MapDataSnapshot interval, LiveIngestor source) {
+            parsed.add(interval);
+         }
+         
+         @Override
+         public void parseFailed(String fileName, IOException e) {
+            Assert.fail(fileName + ": " + e);
+         }
+      });
+      test.start();
+      
+      write(0, 20.0, 30.0);
+      
+      Assert.assertNotNull(parsed.poll(10, TimeUnit.SECONDS));
+      Assert.assertTrue("listener bug".equals(failed.poll(10, TimeUnit.SECONDS)));
+      
+      test.close();
+      
+   }
+
+}
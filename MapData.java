@@ -1,13 +1,12 @@
-import java.util.ArrayList;
 import java.util.GregorianCalendar;
-import java.io.BufferedReader;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Parses a file, holds weather data, and calculates statistics
- * based upon that data.
+ * based upon that data. Each parse produces an immutable MapDataSnapshot that the
+ * getters read from and that can be shared freely between threads.
  * 
  * @author Elijah Boulton
  * @version 2018-10-16
@@ -17,70 +16,47 @@ import java.io.IOException;
 public class MapData
 {
    
-   /**
-    * Data for solar radiation.
-    */
-   public ArrayList<Observation> sradData;
-   
-   /**
-    * Data for air temperature at 1.5 meters.
-    */
-   public ArrayList<Observation> tairData;
-   
-   /**
-    * Data for air temperature at 9 meters.
-    */
-   public ArrayList<Observation> ta9mData;
-   
-   /**
-    * Number of observations that can be invalid and still maintain valid statistics.
-    */
-   private int NUMBER_OF_MISSING_OBSERVATIONS = 10;
-   
    /**
     * Marker that represents temperature at 9 meters in the data.
     */
-   private String TA9M = "TA9M";
+   public static final String TA9M_ID = "TA9M";
    
    /**
     * Marker that represents temperature at 1.5 meters in the data.
     */
-   private String TAIR = "TAIR";
+   public static final String TAIR_ID = "TAIR";
    
    /**
     * Marker that represents solar radiation in the data.
     */
-   private String SRAD = "SRAD";
+   public static final String SRAD_ID = "SRAD";
    
    /**
-    * Marker that represents station ID in the data.
+    * Accumulates the statistics of observations loaded rather than parsed, and of intervals
+    * too large to accumulate on one thread.
     */
-   private String STID = "STID";
+   private static final ParallelAggregator AGGREGATOR = new ParallelAggregator();
    
    /**
-    * Holds the position of station ID in the data.
+    * Estimated number of rows above which a parsed interval is accumulated by AGGREGATOR
+    * once parsing ends, instead of row by row as it is parsed.
     */
-   private int stid = -1;
+   private static final int PARALLEL_ROWS = ParallelAggregator.DEFAULT_CHUNK_ROWS;
    
    /**
-    * Holds the position of temperature at 1.5 meters in the data.
+    * Parameters parsed from the file.
     */
-   private int tair = -1;
+   private ParameterRegistry parameters;
    
    /**
-    * Holds the position of temperature at 9 meters in the data.
+    * Holds the slot of each column of the file, as given by parameters.
     */
-   private int ta9m = -1;
+   private int[] columnSlots;
    
    /**
-    * Holds the position of solar radiation in the data.
+    * Index after the last column that has to be read from each row.
     */
-   private int srad = -1;
-   
-   /**
-    * String holding the web site name Mesonet.
-    */
-   private String MESONET = "Mesonet";
+   private int lastNeededColumn;
    
    /**
     * Contains the directory where data is stored.
@@ -88,67 +64,120 @@ public class MapData
    private String directory;
    
    /**
-    * Holds the minimum air temperature at 1.5 meters.
-    */
-   private Statistics tairMin;
-   
-   /**
-    * Holds the maximum air temperature at 1.5 meters.
-    */
-   private Statistics tairMax;
-   
-   /**
-    * Holds the average air temperature at 1.5 meters.
-    */
-   private Statistics tairAverage;
-   
-   /**
-    * Holds the minimum air temperature at 9 meters.
+    * Contains the file name from which data is parsed.
     */
-   private Statistics ta9mMin;
+   private String fileName;
    
    /**
-    * Holds the maximum air temperature at 9 meters.
+    * Contains the date and time when the data was taken, in seconds since 1970-01-01 UTC.
     */
-   private Statistics ta9mMax;
+   private long utcDateTime;
    
    /**
-    * Holds the average air temperature at 9 meters.
+    * The result of the latest parse, or null before the file is parsed.
     */
-   private Statistics ta9mAverage;
+   private volatile MapDataSnapshot snapshot;
    
    /**
-    * Holds the minimum solar radiation.
+    * Rules deciding which values are valid, or null to use Observation.isValidValue. Only a
+    * private copy is held, so it never changes while a parse reads it.
     */
-   private Statistics sradMin;
+   private volatile ValidityRules validityRules;
    
    /**
-    * Holds the maximum solar radiation.
+    * Constructor, initializes utcDateTime, fileName,
+    * 
+    * @param year Year the data was taken.
+    * @param month Month the data was taken.
+    * @param day Day the data was taken.
+    * @param hour Hour the data was taken.
+    * @param minute Minute the data was taken.
+    * @param directory The file location for the data.
     */
-   private Statistics sradMax;
+   public MapData(int year, int month, int day, int hour, int minute, String directory)
+   {
+      this(year, month, day, hour, minute, directory, new ParameterRegistry(SRAD_ID, TAIR_ID, TA9M_ID));
+   }
    
    /**
-    * Holds the average solar radiation.
+    * Constructor that parses a chosen set of parameters, such as RELH, WSPD, or PRES,
+    * instead of srad, tair, and ta9m.
+    * 
+    * @param year Year the data was taken.
+    * @param month Month the data was taken.
+    * @param day Day the data was taken.
+    * @param hour Hour the data was taken.
+    * @param minute Minute the data was taken.
+    * @param directory The file location for the data.
+    * @param parameters The parameters to parse from the file.
     */
-   private Statistics sradAverage;
+   public MapData(int year, int month, int day, int hour, int minute, String directory, ParameterRegistry parameters)
+   {
+      
+      utcDateTime = EpochTime.of(year, month, day, hour, minute, 0);
+      this.directory = directory;
+      this.parameters = parameters;
+      fileName = this.createFileName(year,  month, day, hour, minute, directory);
+      
+   }
    
    /**
-    * Holds the total solar radiation.
+    * Constructor for a snapshot that was already built, such as from a MesonetArchive.
+    * 
+    * @param snapshot The snapshot to hold.
     */
-   private Statistics sradTotal;
+   private MapData(MapDataSnapshot snapshot)
+   {
+      
+      this.utcDateTime = snapshot.getUTCEpochSecond();
+      this.parameters = snapshot.getParameters();
+      this.fileName = snapshot.getFileName();
+      this.snapshot = snapshot;
+      
+   }
    
    /**
-    * Contains the file name from which data is parsed.
+    * Returns a MapData for observations that were already loaded, such as from a
+    * MesonetArchive. Its statistics are calculated the same way as for a parsed file, split
+    * across threads when there are enough stations.
+    * 
+    * @param utcDateTime When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param observations The loaded observations.
+    * @param fileName The name of the file the observations were loaded from.
+    * @return MapData holding observations
     */
-   private String fileName;
+   public static MapData fromObservations(long utcDateTime, ObservationStore observations, String fileName)
+   {
+      return fromObservations(utcDateTime, observations, new ParseDiagnostics(), fileName);
+   }
    
    /**
-    * Contains the date and time when the data was taken.
-    */
-   private GregorianCalendar utcDateTime;
+    * Returns a MapData for observations that were already loaded, along with the problems
+    * found when they were first parsed, so that rows skipped then still count as missing.
+    * 
+    * @param utcDateTime When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param observations The loaded observations.
+    * @param diagnostics The problems found when the observations were parsed.
+    * @param fileName The name of the file the observations were loaded from.
+    * @return MapData holding observations
+    */
+   public static MapData fromObservations(long utcDateTime, ObservationStore observations,
+            ParseDiagnostics diagnostics, String fileName)
+   {
+      
+      String[] paramIds = new String[observations.getParamCount()];
+      for (int p = 0; p < paramIds.length; ++p)
+      {
+         paramIds[p] = observations.getParamId(p);
+      }
+      
+      return new MapData(new MapDataSnapshot(utcDateTime, fileName, new ParameterRegistry(paramIds), observations,
+               AGGREGATOR.aggregate(observations), diagnostics));
+      
+   }
    
    /**
-    * Constructor, initializes utcDateTime, fileName,
+    * Parses the file for a date and time and returns its snapshot.
     * 
     * @param year Year the data was taken.
     * @param month Month the data was taken.
@@ -156,16 +185,19 @@ public class MapData
     * @param hour Hour the data was taken.
     * @param minute Minute the data was taken.
     * @param directory The file location for the data.
+    * @param parameters The parameters to parse from the file.
+    * @return MapDataSnapshot parsed from the file
+    * @throws FileNotFoundException In case of an incorrect directory.
+    * @throws IOException In case of an improperly formatted file.
     */
-   public MapData(int year, int month, int day, int hour, int minute, String directory)
+   public static MapDataSnapshot load(int year, int month, int day, int hour, int minute, String directory,
+            ParameterRegistry parameters) throws FileNotFoundException, IOException
    {
       
-      utcDateTime = new GregorianCalendar(year, month, day, hour, minute);
-      this.directory = directory;
-      fileName = this.createFileName(year,  month, day, hour, minute, directory);
-      sradData = new ArrayList<Observation>();
-      tairData = new ArrayList<Observation>();
-      ta9mData = new ArrayList<Observation>();
+      MapData mapData = new MapData(year, month, day, hour, minute, directory, parameters);
+      mapData.parseFile();
+      
+      return mapData.getSnapshot();
       
    }
    
@@ -189,351 +221,303 @@ public class MapData
    }
    
    /**
-    * Determines what column the data for srad, ta9m, and tair are in
+    * Determines what column each requested parameter and the station ID are in.
     * 
-    * @param inParamStr The type of data the method searches for.
-    * @throws FileNotFoundException In case of an incorrect directory.
-    * @throws IOException In case of an improperly formatted file.
+    * @param headerLine The line of the file holding the column names.
+    * @throws IOException In case a requested parameter is not in the file.
     */
-   private void parseParamHeader(String inParamStr) throws FileNotFoundException, IOException
+   private void parseParamHeader(String headerLine) throws IOException
    {
       
-      BufferedReader br = new BufferedReader(new FileReader(inParamStr));
+      columnSlots = parameters.mapColumns(headerLine);
       
-      br.readLine();
-      br.readLine();
-      String searchLine = br.readLine();
-      
-      String[] temp = searchLine.split(" ");
-      ArrayList<String> datatype = new ArrayList<String>();
-      for (int i = 0; i < temp.length; ++i)
+      lastNeededColumn = 0;
+      for (int c = 0; c < columnSlots.length; ++c)
       {
-         
-         if (!temp[i].equals(""))
-         {
-            datatype.add(temp[i]);
-         }
-         
-      }
-      
-      for (int i = 0; i < datatype.size(); ++i)
-      {
-         
-         if(datatype.get(i).equals(SRAD))
-         {
-            srad = i;
-         }
-         else if(datatype.get(i).equals(TA9M))
-         {
-            ta9m = i;
-         }
-         else if(datatype.get(i).equals(TAIR))
+         if (columnSlots[c] != ParameterRegistry.SKIP)
          {
-            tair = i;
+            lastNeededColumn = c + 1;
          }
-         else if(datatype.get(i).equals(STID))
-         {
-            stid = i;
-         }
-         
       }
       
-      br.close();
-      
    }
    
    /**
     * Takes input from the file located at fileName, runs through the data and sorts it into
-    * ArrayLists sradData, tairData, and ta9mData, then calls calculate Statistics for each
-    * average, minimum, maximum, and total (srad only).
+    * a column of observations per requested parameter. The minimum, maximum, total, and counts
+    * of every parameter are accumulated as each value is parsed. The result replaces the
+    * snapshot the getters read from.
+    * 
+    * The file is memory-mapped and read in a single pass: the header line is parsed for column
+    * positions and each station row is tokenized straight from the file's bytes. A file with
+    * more rows than one ParallelAggregator chunk is instead accumulated after it is parsed,
+    * split across threads.
+    * 
+    * A damaged row does not stop the parse. Rows whose number of columns does not match the
+    * header are skipped, and values that are not numbers are kept as invalid, with both
+    * recorded in the ParseDiagnostics returned by getDiagnostics.
     * 
     * @throws FileNotFoundException In case of an incorrect directory.
-    * @throws IOException In case of an improperly formatted file.
+    * @throws IOException In case the file has no header or lacks a requested parameter.
+    */
+   public synchronized void parseFile() throws FileNotFoundException, IOException
+   {
+      
+      MapDataMetrics metrics = Metrics.get();
+      long start = metrics.isEnabled() ? System.nanoTime() : 0;
+      
+      this.parse(MdfReader.map(fileName), metrics, start);
+      
+   }
+   
+   /**
+    * Parses the contents of the file at fileName that were already read, such as by an
+    * AsyncMapDataLoader, in the same way as parseFile.
+    * 
+    * @param contents The bytes of the file, from its position to its limit.
+    * @throws IOException In case the file has no header or lacks a requested parameter.
     */
-   public void parseFile() throws FileNotFoundException, IOException
+   public synchronized void parse(ByteBuffer contents) throws IOException
    {
       
-      this.parseParamHeader(fileName);
+      MapDataMetrics metrics = Metrics.get();
+      long start = metrics.isEnabled() ? System.nanoTime() : 0;
+      
+      this.parse(new MdfReader(contents), metrics, start);
       
-      BufferedReader br = new BufferedReader(new FileReader(fileName));
-      ArrayList<String> str = new ArrayList<>();
-      String temp;
+   }
+   
+   /**
+    * Parses a file's contents and replaces the snapshot with the result.
+    * 
+    * @param reader Reader over the contents of the file.
+    * @param metrics Metrics to report the parse to.
+    * @param start When the parse started, if metrics are enabled.
+    * @throws IOException In case the file has no header or lacks a requested parameter.
+    */
+   private void parse(MdfReader reader, MapDataMetrics metrics, long start) throws IOException
+   {
       
-      //puts each line of data into an arraylist
-      while((temp = br.readLine()) != null)
+      reader.readLine();
+      reader.readLine();
+      String headerLine = reader.readLine();
+      
+      if (headerLine == null)
       {
-         str.add(temp);
+         throw new IOException("Missing parameter header in " + fileName);
       }
-      br.close();
       
-      str.remove(0);
-      str.remove(0);
-      str.remove(0);
-      int numberOfStations = str.size() - 1;
+      this.parseParamHeader(headerLine);
       
-      ArrayList<String[]> temp2 = new ArrayList<>();
+      ObservationStore observations = new ObservationStore(parameters.getParamIds());
+      ValidityRules rules = validityRules;
+      //rows are about as wide as the header, which gives their number without counting them
+      boolean large = reader.size() / (headerLine.length() + 1) > PARALLEL_ROWS;
+      //with rules, statistics are gathered once the whole columns have been checked
+      StatisticsAccumulator accumulator = rules == null && !large
+               ? new StatisticsAccumulator(parameters.size()) : null;
+      ParseDiagnostics diagnostics = new ParseDiagnostics();
       
-      //splits each line into strings and adds them an arraylist
-      for (int i = 0; i < str.size(); ++i)
+      while (reader.nextRow())
       {
-         temp2.add(str.get(i).split(" "));
+         this.parseRow(reader, observations, accumulator, diagnostics);
       }
       
-      //removes blank elements and puts results into a final arraylist
-      ArrayList<String> temp3 = new ArrayList<>();
-      for (int i = 0; i < temp2.size(); ++i)
+      if (rules != null)
       {
-         for(int c = 0; c < temp2.get(i).length; ++c)
-         {
-            if (!temp2.get(i)[c].equals(""))
-            {
-               temp3.add(temp2.get(i)[c]);
-            }
-            
-         }
-         
+         observations.applyRules(rules);
       }
       
-      
-      //sorts data into the three arrays initialized in the constructor
-      for (int i = 0; i < numberOfStations; ++i)
+      if (accumulator == null)
       {
-         
-         sradData.add(new Observation(Double.parseDouble(temp3.get(srad)), temp3.get(stid)));
-         //System.out.println(sradData[i].toString());
-         tairData.add(new Observation(Double.parseDouble(temp3.get(tair)), temp3.get(stid)));
-         //System.out.println(tairData[i].toString());
-         ta9mData.add(new Observation(Double.parseDouble(temp3.get(ta9m)), temp3.get(stid)));
-         //System.out.println(ta9mData[i].toString());
-         
-         for (int c = 0; c < 24; ++c)
-         {
-            temp3.remove(0);
-         }
-         
+         accumulator = AGGREGATOR.aggregate(observations);
       }
       
-      for (int c = 0; c < 24; ++c)
+      snapshot = new MapDataSnapshot(utcDateTime, fileName, parameters, observations, accumulator, diagnostics);
+      
+      if (metrics.isEnabled())
       {
-         if (temp3.size() > 0)
+         metrics.fileParsed(fileName, System.nanoTime() - start, reader.size(), observations.size());
+         metrics.rowsSkipped(fileName, diagnostics.getSkippedRows());
+         for (int p = 0; p < parameters.size(); ++p)
          {
-            temp3.remove(0);
+            metrics.invalidObservations(parameters.getParamId(p), accumulator.getInvalidCount(p));
          }
-            
       }
       
-      calculateStatistics(sradData, SRAD);
-      calculateStatistics(tairData, TAIR);
-      calculateStatistics(ta9mData, TA9M);
-      
    }
    
    /**
-    * Calculates statistics for a type of measurement (tair, ta9m, or srad).
+    * Tokenizes the current station row of the reader and adds the values of the requested
+    * parameters to the observations. Columns that were not requested are skipped over
+    * without being parsed, and after the last one needed the rest of the row is only
+    * counted.
+    * 
+    * A row with more or fewer columns than the header is removed again, since its values
+    * cannot be matched to their parameters, and its values are only accumulated once its
+    * columns have been counted. A value that is not a number is kept as invalid without
+    * losing the rest of its row.
     * 
-    * @param inData An arraylist of Objects to be used in calculations.
-    * @param paramId The type of statistic (srad, tair, or ta9m) to be handled.
+    * @param reader Reader positioned at a station row.
+    * @param observations The observations being parsed.
+    * @param accumulator The statistics being accumulated, or null to accumulate them later.
+    * @param diagnostics The problems found so far.
     */
-   private void calculateStatistics(ArrayList<Observation> inData, String paramId)
+   private void parseRow(MdfReader reader, ObservationStore observations, StatisticsAccumulator accumulator,
+            ParseDiagnostics diagnostics)
    {
       
-      if (paramId.equals(SRAD))
+      int row = observations.addRow();
+      int column = 0;
+      
+      while (column < lastNeededColumn && reader.nextField())
       {
-         double total = 0;
-         int num = 0;
-         double average = 0;
-         double min = Integer.MAX_VALUE;
-         int maxindx = -1;
-         int minindx = -1;
-         double max = Integer.MIN_VALUE;
-         int badObvsCntr = 0;
          
+         int slot = columnSlots[column];
          
-         for (int i = 0; i < inData.size(); ++i)
+         if (slot == ParameterRegistry.STATION)
          {
+            observations.setStationCode(row, reader.fieldAsStationCode(observations.getStations()));
+         }
+         else if (slot != ParameterRegistry.SKIP)
+         {
+            double value;
             
-            double val = inData.get(i).getValue();
-            
-            if (inData.get(i).isValid())
+            try
             {
-               
-               total += val;
-               ++num;
-               
-               if (val < min)
-               {
-                  min = val;
-                  minindx = i;
-                           
-               }
-               
-               if (val > max)
-               {
-                  max = val;
-                  maxindx = i;
-               }
-               
+               value = reader.fieldAsDouble();
             }
-            else
+            catch (NumberFormatException e)
             {
-               ++badObvsCntr;
+               //NaN is never valid, so the value is counted as missing
+               diagnostics.valueFlagged(reader.getLineNumber(), parameters.getParamId(slot), reader);
+               value = Double.NaN;
             }
             
+            observations.setValue(row, slot, value);
          }
          
-         average = (total / num);
-         
-         if (badObvsCntr < NUMBER_OF_MISSING_OBSERVATIONS)
-         {
-            sradMin = new Statistics(min, sradData.get(minindx).getStid(), utcDateTime, (sradData.size() - badObvsCntr), StatsType.MINIMUM);
-            sradMax = new Statistics(max, sradData.get(maxindx).getStid(), utcDateTime, (sradData.size() - badObvsCntr), StatsType.MAXIMUM);
-            sradAverage = new Statistics(average, MESONET, utcDateTime, (sradData.size() - badObvsCntr), StatsType.AVERAGE);
-            sradTotal = new Statistics(total, MESONET, utcDateTime, (sradData.size() - badObvsCntr), StatsType.TOTAL);
-         }
-         
-         else
-         {
-            
-            sradMin = new Statistics(0, "NULL", utcDateTime, (sradData.size() - badObvsCntr), StatsType.MINIMUM);
-            sradMax = new Statistics(0, "NULL", utcDateTime, (sradData.size() - badObvsCntr), StatsType.MAXIMUM);
-            sradAverage = new Statistics(0, "NULL", utcDateTime,  (sradData.size() - badObvsCntr), StatsType.AVERAGE);
-            sradTotal = new Statistics(0, "NULL", utcDateTime, (sradData.size() - badObvsCntr), StatsType.TOTAL);
-            
-         }
+         ++column;
          
       }
       
-      else if (paramId.equals(TAIR))
+      int fields = column + reader.countFields();
+      
+      if (fields != columnSlots.length)
       {
-         
-         double total = 0;
-         int num = 0;
-         double average = 0;
-         double min = Integer.MAX_VALUE;
-         int maxindx = -1;
-         int minindx = -1;
-         double max = Integer.MIN_VALUE;
-         int badObvsCntr = 0;
-         
-         
-         for (int i = 0; i < inData.size(); ++i)
-         {
-            
-            double val = inData.get(i).getValue();
-            
-            if (inData.get(i).isValid())
-            {
-               
-               total += val;
-               ++num;
-               
-               if (val < min)
-               {
-                  min = val;
-                  minindx = i;
-                           
-               }
-               
-               if (val > max)
-               {
-                  max = val;
-                  maxindx = i;
-               }
-               
-            }
-            else
-            {
-               ++badObvsCntr;
-            }
-            
-         }
-         
-         average = (total / num);
-         
-         if (badObvsCntr < NUMBER_OF_MISSING_OBSERVATIONS)
-         {
-            tairMin = new Statistics(min, inData.get(minindx).getStid(), utcDateTime, (inData.size() - badObvsCntr), StatsType.MINIMUM);
-            tairMax = new Statistics(max, inData.get(maxindx).getStid(), utcDateTime, (inData.size() - badObvsCntr), StatsType.MAXIMUM);
-            tairAverage = new Statistics(average, MESONET, utcDateTime, (inData.size() - badObvsCntr), StatsType.AVERAGE);
-         }
-         else
-         {
-            
-            tairMin = new Statistics(0, "NULL", utcDateTime, (sradData.size() - badObvsCntr), StatsType.MINIMUM);
-            tairMax = new Statistics(0, "NULL", utcDateTime, (sradData.size() - badObvsCntr), StatsType.MAXIMUM);
-            tairAverage = new Statistics(0, "NULL", utcDateTime,  (sradData.size() - badObvsCntr), StatsType.AVERAGE);
-            
-         }
-         
+         observations.removeLastRow();
+         diagnostics.rowSkipped(reader.getLineNumber(), columnSlots.length, fields);
+         return;
       }
       
-      else if (paramId.equals(TA9M))
-         
+      if (accumulator != null)
       {
-         
-         double total = 0;
-         int num = 0;
-         double average = 0;
-         double min = Integer.MAX_VALUE;
-         int maxindx = -1;
-         int minindx = -1;
-         double max = Integer.MIN_VALUE;
-         int badObvsCntr = 0;
-         
-         
-         for (int i = 0; i < inData.size(); ++i)
+         for (int c = 0; c < lastNeededColumn; ++c)
          {
-            
-            double val = inData.get(i).getValue();
-            
-            if (inData.get(i).isValid())
+            if (columnSlots[c] >= 0)
             {
-               
-               total += val;
-               ++num;
-               
-               if (val < min)
-               {
-                  min = val;
-                  minindx = i;
-                           
-               }
-               
-               if (val > max)
-               {
-                  max = val;
-                  maxindx = i;
-               }
-               
+               accumulator.add(columnSlots[c], row, observations.getValue(row, columnSlots[c]));
             }
-            else
-            {
-               ++badObvsCntr;
-            }
-            
-         }
-         
-         average = (total / num);
-         
-         if (badObvsCntr < NUMBER_OF_MISSING_OBSERVATIONS)
-         {
-            ta9mMin = new Statistics(min, inData.get(minindx).getStid(), utcDateTime, (inData.size() - badObvsCntr), StatsType.MINIMUM);
-            ta9mMax = new Statistics(max, inData.get(maxindx).getStid(), utcDateTime, (inData.size() - badObvsCntr), StatsType.MAXIMUM);
-            ta9mAverage = new Statistics(average, MESONET, utcDateTime, (inData.size() - badObvsCntr), StatsType.AVERAGE);
-         }
-         else
-         {
-            
-            ta9mMin = new Statistics(0, "NULL", utcDateTime, (sradData.size() - badObvsCntr), StatsType.MINIMUM);
-            ta9mMax = new Statistics(0, "NULL", utcDateTime, (sradData.size() - badObvsCntr), StatsType.MAXIMUM);
-            ta9mAverage = new Statistics(0, "NULL", utcDateTime,  (sradData.size() - badObvsCntr), StatsType.AVERAGE);
-            
          }
-         
       }
       
    }
    
+   /**
+    * Returns the immutable result of the latest parse.
+    * 
+    * @return MapDataSnapshot snapshot, or null before the file is parsed
+    */
+   public MapDataSnapshot getSnapshot()
+   {
+      return snapshot;
+   }
+   
+   /**
+    * Returns a statistic for a parameter, or null if the parameter was not parsed.
+    * 
+    * @param paramId The name of the parameter, such as TAIR or RELH.
+    * @param type The type of statistic.
+    * @return Statistics for paramId of type
+    */
+   public Statistics getStatistics(String paramId, StatsType type)
+   {
+      
+      MapDataSnapshot current = snapshot;
+      
+      return current == null ? null : current.getStatistics(paramId, type);
+      
+   }
+   
+   /**
+    * Returns the problems found while parsing the file.
+    * 
+    * @return ParseDiagnostics diagnostics, or null before the file is parsed
+    */
+   public ParseDiagnostics getDiagnostics()
+   {
+      
+      MapDataSnapshot current = snapshot;
+      
+      return current == null ? null : current.getDiagnostics();
+      
+   }
+   
+   /**
+    * Returns the observations parsed from the file.
+    * 
+    * @return ObservationStore observations, or null before the file is parsed
+    */
+   public ObservationStore getObservations()
+   {
+      
+      MapDataSnapshot current = snapshot;
+      
+      return current == null ? null : current.getObservations();
+      
+   }
+   
+   /**
+    * Returns a new calendar for the date and time the data was taken.
+    * 
+    * @return GregorianCalendar built from utcDateTime
+    */
+   public GregorianCalendar getUTCCalendar()
+   {
+      return EpochTime.toCalendar(utcDateTime);
+   }
+   
+   /**
+    * Returns the date and time the data was taken in seconds since 1970-01-01 UTC.
+    * 
+    * @return long utcDateTime
+    */
+   public long getUTCEpochSecond()
+   {
+      return utcDateTime;
+   }
+   
+   /**
+    * Sets the rules deciding which values are valid in the next parse. The rules are
+    * copied, so changing them afterwards does not affect this MapData.
+    * 
+    * @param validityRules The rules, or null to use Observation.isValidValue.
+    */
+   public void setValidityRules(ValidityRules validityRules)
+   {
+      this.validityRules = validityRules == null ? null : new ValidityRules(validityRules);
+   }
+   
+   /**
+    * Returns the name of the file the data is parsed from.
+    * 
+    * @return String fileName
+    */
+   public String getFileName()
+   {
+      return fileName;
+   }
+   
    /**
     * Returns the average solar radiation.
     * 
@@ -541,7 +525,7 @@ public class MapData
     */
    public Observation getSradAverage()
    {
-      return sradAverage;
+      return getStatistics(SRAD_ID, StatsType.AVERAGE);
    }
    
    /**
@@ -551,7 +535,7 @@ public class MapData
     */
    public Observation getSradMax()
    {
-      return sradMax;
+      return getStatistics(SRAD_ID, StatsType.MAXIMUM);
    }
    
    /**
@@ -561,7 +545,7 @@ public class MapData
     */
    public Observation getSradMin()
    {
-      return sradMin;
+      return getStatistics(SRAD_ID, StatsType.MINIMUM);
    }
    
    /**
@@ -571,7 +555,7 @@ public class MapData
     */
    public Observation getSradTotal()
    {
-      return sradTotal;
+      return getStatistics(SRAD_ID, StatsType.TOTAL);
    }
    
    /**
@@ -581,7 +565,7 @@ public class MapData
     */
    public Observation getTa9mAverage()
    {
-      return ta9mAverage;
+      return getStatistics(TA9M_ID, StatsType.AVERAGE);
    }
    
    /**
@@ -591,7 +575,7 @@ public class MapData
     */
    public Observation getTa9mMax()
    {
-      return ta9mMax;
+      return getStatistics(TA9M_ID, StatsType.MAXIMUM);
    }
    
    /**
@@ -601,7 +585,7 @@ public class MapData
     */
    public Observation getTa9mMin()
    {
-      return ta9mMin;
+      return getStatistics(TA9M_ID, StatsType.MINIMUM);
    }
    
    /**
@@ -611,7 +595,7 @@ public class MapData
     */
    public Observation getTairAverage()
    {
-      return tairAverage;
+      return getStatistics(TAIR_ID, StatsType.AVERAGE);
    }
    
    /**
@@ -621,7 +605,7 @@ public class MapData
     */
    public Observation getTairMax()
    {
-      return tairMax;
+      return getStatistics(TAIR_ID, StatsType.MAXIMUM);
    }
    
    /**
@@ -631,46 +615,20 @@ public class MapData
     */
    public Observation getTairMin()
    {
-      return tairMin;
+      return getStatistics(TAIR_ID, StatsType.MINIMUM);
    }
    
    /**
     * Creates a string to represent the data from the file.
     * 
-    * @return String containing averages, minimums, and maximums, and where they occurred
+    * @return String containing averages, minimums, and maximums, or a note that the file has not been parsed
     */
    public String toString()
    {
       
-      String str = String.format("=========================================================\n"
-         + "=== %04d-%02d-%02d ===\n"
-         + "=========================================================\n"
-         + "Maximum Air Temperature(1.5m) = %.1f C at %s\n"
-         + "Minimum Air Temperature(1.5m) = %.1f C at %s\n"
-         + "Average Air Temperature(1.5m) = %.1f C at %s\n"
-         + "=========================================================\n"
-         + "=========================================================\n"
-         + "Maximum Air Temperature(9.0m) = %.1f C at %s\n"
-         + "Minimum Air Temperature(9.0m) = %.1f C at %s\n"
-         + "Average Air Temperature(9.0m) = %.1f C at %s\n"
-         + "=========================================================\n"
-         + "=========================================================\n"
-         + "Maximum Solar Radiation = %.1f W/M^2 at %s\n"
-         + "Minimum Solar Radiation = %.1f W/M^2 at %s\n"
-         + "Average Solar Radiation = %.1f W/M^2 at %s\n"
-         + "=========================================================\n",
-         this.utcDateTime.get(1), this.utcDateTime.get(2), this.utcDateTime.get(5),
-         this.tairMax.getValue(), this.tairMax.getStid(),
-         this.tairMin.getValue(), this.tairMin.getStid(),
-         this.tairAverage.getValue(), this.tairAverage.getStid(),
-         this.ta9mMax.getValue(), this.ta9mMax.getStid(),
-         this.ta9mMin.getValue(), this.ta9mMin.getStid(),
-         this.ta9mAverage.getValue(), this.ta9mAverage.getStid(),
-         this.sradMax.getValue(), this.sradMax.getStid(),
-         this.sradMin.getValue(), this.sradMin.getStid(),
-         this.sradAverage.getValue(), this.sradAverage.getStid());
-         
-      return str;
+      MapDataSnapshot current = snapshot;
+      
+      return current == null ? fileName + " has not been parsed" : current.toString();
       
    }
    
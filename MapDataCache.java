@@ -0,0 +1,553 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps recently parsed intervals, as immutable snapshots, so that repeated queries for
+ * the same time do not parse the file again. The least recently used intervals
+ * are evicted once the cache holds too many or they take up too much memory, and an
+ * interval is parsed again when its file changes. Safe to share between threads; threads
+ * asking for the same uncached interval at once share a single parse of its file.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class MapDataCache
+{
+   
+   /**
+    * Identifies a cached interval by its directory, time, and parameters.
+    */
+   private static final class Key
+   {
+      
+      /**
+       * The file location for the data.
+       */
+      private final String directory;
+      
+      /**
+       * When the data was taken, in seconds since 1970-01-01 UTC.
+       */
+      private final long utcDateTime;
+      
+      /**
+       * The parameters parsed.
+       */
+      private final ParameterRegistry parameters;
+      
+      /**
+       * Hash of directory, utcDateTime, and the names of the parameters.
+       */
+      private final int hash;
+      
+      /**
+       * Constructor, initializes directory, utcDateTime, and parameters.
+       * 
+       * @param directory The file location for the data.
+       * @param utcDateTime When the data was taken, in seconds since 1970-01-01 UTC.
+       * @param parameters The parameters parsed.
+       */
+      private Key(String directory, long utcDateTime, ParameterRegistry parameters)
+      {
+         
+         this.directory = directory;
+         this.utcDateTime = utcDateTime;
+         this.parameters = parameters;
+         
+         int h = directory.hashCode() * 31 + Long.hashCode(utcDateTime);
+         for (int i = 0; i < parameters.size(); ++i)
+         {
+            h = h * 31 + parameters.getParamId(i).hashCode();
+         }
+         this.hash = h;
+         
+      }
+      
+      /**
+       * Returns whether two registries hold the same parameters in the same order.
+       * 
+       * @param other The parameters to compare with.
+       * @return boolean true if they are the same
+       */
+      private boolean sameParameters(ParameterRegistry other)
+      {
+         
+         if (parameters == other)
+         {
+            return true;
+         }
+         
+         if (parameters.size() != other.size())
+         {
+            return false;
+         }
+         
+         for (int i = 0; i < parameters.size(); ++i)
+         {
+            if (!parameters.getParamId(i).equals(other.getParamId(i)))
+            {
+               return false;
+            }
+         }
+         
+         return true;
+         
+      }
+      
+      @Override
+      public boolean equals(Object other)
+      {
+         
+         if (!(other instanceof Key))
+         {
+            return false;
+         }
+         
+         Key key = (Key) other;
+         return hash == key.hash && utcDateTime == key.utcDateTime && directory.equals(key.directory)
+                  && this.sameParameters(key.parameters);
+         
+      }
+      
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+      
+   }
+   
+   /**
+    * A cached interval and the state of its file when it was parsed.
+    */
+   private static final class Entry
+   {
+      
+      /**
+       * The parsed interval.
+       */
+      private final MapDataSnapshot snapshot;
+      
+      /**
+       * The file the interval was parsed from.
+       */
+      private final File file;
+      
+      /**
+       * Modification time of the file when it was parsed.
+       */
+      private final long lastModified;
+      
+      /**
+       * Length of the file when it was parsed.
+       */
+      private final long length;
+      
+      /**
+       * Estimated bytes of heap the interval takes up.
+       */
+      private final long weight;
+      
+      /**
+       * Constructor, initializes snapshot, file, lastModified, length, and weight.
+       * 
+       * @param snapshot The parsed interval.
+       * @param file The file the interval was parsed from.
+       * @param lastModified Modification time of the file when it was parsed.
+       * @param length Length of the file when it was parsed.
+       */
+      private Entry(MapDataSnapshot snapshot, File file, long lastModified, long length)
+      {
+         
+         this.snapshot = snapshot;
+         this.file = file;
+         this.lastModified = lastModified;
+         this.length = length;
+         this.weight = snapshot.getObservations().estimateBytes();
+         
+      }
+      
+   }
+   
+   /**
+    * Parameters parsed when none are given.
+    */
+   private static final ParameterRegistry DEFAULT_PARAMETERS =
+            new ParameterRegistry(MapData.SRAD_ID, MapData.TAIR_ID, MapData.TA9M_ID);
+   
+   /**
+    * Cached intervals, from least to most recently used. Guarded by itself.
+    */
+   private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+   
+   /**
+    * Most intervals held at once.
+    */
+   private final int maxEntries;
+   
+   /**
+    * Most estimated bytes of heap held at once.
+    */
+   private final long maxWeight;
+   
+   /**
+    * Parses in progress, so that threads missing on the same interval at once wait for one
+    * parse instead of each parsing the file.
+    */
+   private final ConcurrentHashMap<Key, CompletableFuture<MapDataSnapshot>> loading = new ConcurrentHashMap<>();
+   
+   /**
+    * Estimated bytes of heap held. Guarded by entries.
+    */
+   private long weight;
+   
+   /**
+    * Number of lookups answered from the cache.
+    */
+   private final AtomicLong hits = new AtomicLong();
+   
+   /**
+    * Number of lookups that had to parse a file.
+    */
+   private final AtomicLong misses = new AtomicLong();
+   
+   /**
+    * Number of intervals evicted to make room.
+    */
+   private final AtomicLong evictions = new AtomicLong();
+   
+   /**
+    * Number of intervals dropped because their file changed.
+    */
+   private final AtomicLong invalidations = new AtomicLong();
+   
+   /**
+    * Constructor for a cache limited only by the number of intervals.
+    * 
+    * @param maxEntries Most intervals held at once.
+    */
+   public MapDataCache(int maxEntries)
+   {
+      this(maxEntries, Long.MAX_VALUE);
+   }
+   
+   /**
+    * Constructor for a cache limited by the number of intervals and the memory they take up.
+    * 
+    * @param maxEntries Most intervals held at once.
+    * @param maxWeight Most estimated bytes of heap held at once.
+    */
+   public MapDataCache(int maxEntries, long maxWeight)
+   {
+      
+      if (maxEntries < 1 || maxWeight < 1)
+      {
+         throw new IllegalArgumentException("maxEntries and maxWeight must be positive");
+      }
+      
+      this.maxEntries = maxEntries;
+      this.maxWeight = maxWeight;
+      
+   }
+   
+   /**
+    * Returns the parsed interval for a date and time, parsing srad, tair, and ta9m from
+    * its file if it is not cached or the file changed.
+    * 
+    * @param year Year the data was taken.
+    * @param month Month the data was taken.
+    * @param day Day the data was taken.
+    * @param hour Hour the data was taken.
+    * @param minute Minute the data was taken.
+    * @param directory The file location for the data.
+    * @return MapDataSnapshot parsed
+    * @throws FileNotFoundException In case there is no file for the date and time.
+    * @throws IOException In case of an improperly formatted file.
+    */
+   public MapDataSnapshot get(int year, int month, int day, int hour, int minute, String directory)
+            throws FileNotFoundException, IOException
+   {
+      return this.get(EpochTime.of(year, month, day, hour, minute, 0), directory, DEFAULT_PARAMETERS);
+   }
+   
+   /**
+    * Returns the parsed interval for a date and time, parsing it from its file if it is not
+    * cached or the file changed.
+    * 
+    * @param utcDateTime When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param directory The file location for the data.
+    * @param parameters The parameters to parse.
+    * @return MapDataSnapshot parsed
+    * @throws FileNotFoundException In case there is no file for the date and time.
+    * @throws IOException In case of an improperly formatted file.
+    */
+   public MapDataSnapshot get(long utcDateTime, String directory, ParameterRegistry parameters)
+            throws FileNotFoundException, IOException
+   {
+      
+      //only the key is built for a lookup; the interval and its file name are built on a miss
+      Key key = new Key(directory, utcDateTime, parameters);
+      MapDataSnapshot cached = this.lookup(key);
+      
+      if (cached != null)
+      {
+         return cached;
+      }
+      
+      CompletableFuture<MapDataSnapshot> load = new CompletableFuture<>();
+      CompletableFuture<MapDataSnapshot> running = loading.putIfAbsent(key, load);
+      
+      if (running != null)
+      {
+         //another thread is already parsing the file, so its result is shared
+         MapDataSnapshot snapshot = await(running);
+         hits.incrementAndGet();
+         Metrics.get().cacheHit();
+         return snapshot;
+      }
+      
+      try
+      {
+         
+         //a load that finished just before this one started has already cached the file
+         cached = this.lookup(key);
+         
+         if (cached != null)
+         {
+            load.complete(cached);
+            return cached;
+         }
+         
+         //parses outside the lock so other lookups are not held up
+         misses.incrementAndGet();
+         Metrics.get().cacheMiss();
+         MapData mapData = new MapData(EpochTime.year(utcDateTime), EpochTime.month(utcDateTime),
+                  EpochTime.day(utcDateTime), EpochTime.hour(utcDateTime), EpochTime.minute(utcDateTime), directory,
+                  parameters);
+         File file = new File(mapData.getFileName());
+         long lastModified = file.lastModified();
+         long length = file.length();
+         mapData.parseFile();
+         MapDataSnapshot snapshot = mapData.getSnapshot();
+         this.store(key, new Entry(snapshot, file, lastModified, length));
+         load.complete(snapshot);
+         
+         return snapshot;
+         
+      }
+      catch (IOException | RuntimeException e)
+      {
+         load.completeExceptionally(e);
+         throw e;
+      }
+      finally
+      {
+         loading.remove(key, load);
+      }
+      
+   }
+   
+   /**
+    * Returns a cached interval if its file has not changed since it was parsed, dropping it
+    * if it has.
+    * 
+    * @param key The key of the interval.
+    * @return MapDataSnapshot cached, or null if it has to be parsed
+    */
+   private MapDataSnapshot lookup(Key key)
+   {
+      
+      synchronized (entries)
+      {
+         
+         Entry entry = entries.get(key);
+         
+         if (entry != null)
+         {
+            
+            if (entry.file.lastModified() == entry.lastModified && entry.file.length() == entry.length)
+            {
+               hits.incrementAndGet();
+               Metrics.get().cacheHit();
+               return entry.snapshot;
+            }
+            
+            entries.remove(key);
+            weight -= entry.weight;
+            invalidations.incrementAndGet();
+            
+         }
+         
+      }
+      
+      return null;
+      
+   }
+   
+   /**
+    * Caches a parsed interval and evicts the least recently used ones that no longer fit.
+    * 
+    * @param key The key of the interval.
+    * @param entry The parsed interval.
+    */
+   private void store(Key key, Entry entry)
+   {
+      
+      synchronized (entries)
+      {
+         
+         Entry previous = entries.put(key, entry);
+         weight += entry.weight;
+         
+         if (previous != null)
+         {
+            weight -= previous.weight;
+         }
+         
+         Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+         while ((entries.size() > maxEntries || weight > maxWeight) && entries.size() > 1)
+         {
+            weight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions.incrementAndGet();
+         }
+         
+      }
+      
+   }
+   
+   /**
+    * Waits for a parse started by another thread and returns its result, or throws what it
+    * threw.
+    * 
+    * @param load The parse in progress.
+    * @return MapDataSnapshot parsed
+    * @throws IOException In case the parse failed or the wait was interrupted.
+    */
+   private static MapDataSnapshot await(CompletableFuture<MapDataSnapshot> load) throws IOException
+   {
+      
+      try
+      {
+         return load.get();
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while waiting for a parse");
+      }
+      catch (ExecutionException e)
+      {
+         
+         Throwable cause = e.getCause();
+         
+         if (cause instanceof IOException)
+         {
+            throw (IOException) cause;
+         }
+         if (cause instanceof RuntimeException)
+         {
+            throw (RuntimeException) cause;
+         }
+         throw new IOException(cause);
+         
+      }
+      
+   }
+   
+   /**
+    * Removes every cached interval.
+    */
+   public void clear()
+   {
+      
+      synchronized (entries)
+      {
+         entries.clear();
+         weight = 0;
+      }
+      
+   }
+   
+   /**
+    * Returns the number of intervals held.
+    * 
+    * @return int number of intervals
+    */
+   public int size()
+   {
+      
+      synchronized (entries)
+      {
+         return entries.size();
+      }
+      
+   }
+   
+   /**
+    * Returns the estimated bytes of heap held.
+    * 
+    * @return long estimated bytes
+    */
+   public long getWeight()
+   {
+      
+      synchronized (entries)
+      {
+         return weight;
+      }
+      
+   }
+   
+   /**
+    * Returns the number of lookups answered from the cache.
+    * 
+    * @return long hits
+    */
+   public long getHitCount()
+   {
+      return hits.get();
+   }
+   
+   /**
+    * Returns the number of lookups that had to parse a file.
+    * 
+    * @return long misses
+    */
+   public long getMissCount()
+   {
+      return misses.get();
+   }
+   
+   /**
+    * Returns the number of intervals evicted to make room.
+    * 
+    * @return long evictions
+    */
+   public long getEvictionCount()
+   {
+      return evictions.get();
+   }
+   
+   /**
+    * Returns the number of intervals dropped because their file changed.
+    * 
+    * @return long invalidations
+    */
+   public long getInvalidationCount()
+   {
+      return invalidations.get();
+   }
+   
+}
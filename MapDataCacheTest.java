@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the MapDataCache class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class MapDataCacheTest
+{
+   
+   /**
+    * Columns of the files written.
+    */
+   private static final String[] COLUMNS = {"SRAD", "TAIR", "TA9M"};
+   
+   /**
+    * Directory the files of each test are written to.
+    */
+   private MdfTestDirectory files;
+   
+   @Before
+   /**
+    * Creates the directory the files of a test are written to.
+    * 
+    * @throws IOException
+    */
+   public void setUp() throws IOException {
+      files = new MdfTestDirectory("cache");
+   }
+   
+   @After
+   /**
+    * Deletes the files of a test.
+    */
+   public void tearDown() {
+      files.delete();
+   }
+   
+   /**
+    * Writes a file for 2018-08-30 17:00 plus minute with an SRAD of 500 at every station and
+    * the same TAIR and TA9M.
+    * 
+    * @param minute Minute of 2018-08-30 17:00 the data was taken.
+    * @param tair The TAIR value of each station.
+    * @throws IOException
+    */
+   private void write(int minute, double... tair) throws IOException {
+      
+      double[] srad = new double[tair.length];
+      Arrays.fill(srad, 500);
+      
+      files.write(MdfTestDirectory.time(minute), COLUMNS, MdfTestDirectory.stations(tair.length), srad, tair, tair);
+      
+   }
+   
+   @Test
+   /**
+    * Tests that repeated lookups are answered from the cache.
+    * 
+    * @throws IOException
+    */
+   public void testHit() throws IOException {
+      
+      write(0, 30.0, 20.0);
+      
+      MapDataCache test = new MapDataCache(4);
+      
+      MapDataSnapshot first = test.get(2018, 8, 30, 17, 0, files.getPath());
+      MapDataSnapshot second = test.get(2018, 8, 30, 17, 0, files.getPath());
+      
+      Assert.assertSame(first, second);
+      Assert.assertEquals(second.getStatistics("TAIR", StatsType.MAXIMUM).getValue(), 30.0, .1);
+      Assert.assertEquals(1, test.getHitCount());
+      Assert.assertEquals(1, test.getMissCount());
+      
+   }
+   
+   @Test
+   /**
+    * Tests that the least recently used interval is evicted.
+    * 
+    * @throws IOException
+    */
+   public void testEviction() throws IOException {
+      
+      write(0, 30.0);
+      write(5, 31.0);
+      write(10, 32.0);
+      
+      MapDataCache test = new MapDataCache(2);
+      
+      test.get(2018, 8, 30, 17, 0, files.getPath());
+      test.get(2018, 8, 30, 17, 5, files.getPath());
+      test.get(2018, 8, 30, 17, 0, files.getPath());
+      test.get(2018, 8, 30, 17, 10, files.getPath());
+      
+      Assert.assertEquals(2, test.size());
+      Assert.assertEquals(1, test.getEvictionCount());
+      
+      test.get(2018, 8, 30, 17, 0, files.getPath());
+      
+      Assert.assertEquals(2, test.getHitCount());
+      
+   }
+   
+   @Test
+   /**
+    * Tests that an interval is parsed again once its file changes.
+    * 
+    * @throws IOException
+    */
+   public void testInvalidation() throws IOException {
+      
+      write(0, 30.0);
+      
+      MapDataCache test = new MapDataCache(4);
+      
+      test.get(2018, 8, 30, 17, 0, files.getPath());
+      write(0, 30.0, 35.0);
+      MapDataSnapshot changed = test.get(2018, 8, 30, 17, 0, files.getPath());
+      
+      Assert.assertEquals(changed.getStatistics("TAIR", StatsType.MAXIMUM).getValue(), 35.0, .1);
+      Assert.assertEquals(1, test.getInvalidationCount());
+      Assert.assertEquals(2, test.getMissCount());
+      
+   }
+
+   @Test
+   /**
+    * Tests that threads missing on the same interval at once share one parse.
+    * 
+    * @throws Exception In case a lookup fails.
+    */
+   public void testSingleParse() throws Exception {
+      
+      MapDataCache test = new MapDataCache(4);
+      ExecutorService pool = Executors.newFixedThreadPool(8);
+      CountDownLatch ready = new CountDownLatch(1);
+      List<Future<MapDataSnapshot>> results = new ArrayList<>();
+      
+      try
+      {
+         
+         for (int i = 0; i < 8; ++i)
+         {
+            results.add(pool.submit(() -> {
+               ready.await();
+               return test.get(2017, 9, 25, 17, 45, "data");
+            }));
+         }
+         ready.countDown();
+         
+         for (Future<MapDataSnapshot> result : results)
+         {
+            Assert.assertTrue(result.get() == results.get(0).get());
+         }
+         
+         Assert.assertEquals(1, test.getMissCount());
+         Assert.assertEquals(7, test.getHitCount());
+         
+      }
+      finally
+      {
+         pool.shutdown();
+      }
+      
+   }
+   
+}
@@ -0,0 +1,32 @@
+import java.io.IOException;
+
+/**
+ * Receives the intervals parsed by a LiveIngestor as their files appear.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public interface MapDataListener
+{
+   
+   /**
+    * Called once an interval is parsed and the rolling statistics include it. Calls are made
+    * one at a time, in the order the intervals finish parsing.
+    * 
+    * @param interval The parsed interval.
+    * @param source The ingestor, whose rolling statistics may be read during the call.
+    */
+   public void intervalParsed(MapDataSnapshot interval, LiveIngestor source);
+   
+   /**
+    * Called when a file could not be parsed, such as one still being written. The file is
+    * parsed again the next time it changes.
+    * 
+    * @param fileName The name of the file.
+    * @param e The reason it could not be parsed.
+    */
+   public void parseFailed(String fileName, IOException e);
+   
+}
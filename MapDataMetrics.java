@@ -0,0 +1,109 @@
+/**
+ * Receives measurements of where time goes while loading intervals. Implementations must
+ * be safe to call from many threads at once. Measurements are only taken when isEnabled
+ * returns true, so the default NOOP costs nothing on the parse path.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public interface MapDataMetrics
+{
+   
+   /**
+    * Metrics that ignore every measurement and are not enabled.
+    */
+   public static final MapDataMetrics NOOP = new MapDataMetrics()
+   {
+      
+      @Override
+      public boolean isEnabled()
+      {
+         return false;
+      }
+      
+      @Override
+      public void fileParsed(String fileName, long nanos, long bytes, int rows)
+      {
+      }
+      
+      @Override
+      public void rowsSkipped(String fileName, int count)
+      {
+      }
+      
+      @Override
+      public void invalidObservations(String paramId, int count)
+      {
+      }
+      
+      @Override
+      public void statisticsCalculated(String paramId, long nanos)
+      {
+      }
+      
+      @Override
+      public void cacheHit()
+      {
+      }
+      
+      @Override
+      public void cacheMiss()
+      {
+      }
+      
+   };
+   
+   /**
+    * Returns whether measurements should be taken at all.
+    * 
+    * @return boolean true if enabled
+    */
+   public boolean isEnabled();
+   
+   /**
+    * Called once for each file parsed.
+    * 
+    * @param fileName The name of the file.
+    * @param nanos Time taken to parse it, in nanoseconds.
+    * @param bytes Size of the file in bytes.
+    * @param rows Number of station rows parsed.
+    */
+   public void fileParsed(String fileName, long nanos, long bytes, int rows);
+   
+   /**
+    * Called once for each file parsed.
+    * 
+    * @param fileName The name of the file.
+    * @param count Number of rows skipped because they did not match the header.
+    */
+   public void rowsSkipped(String fileName, int count);
+   
+   /**
+    * Called once for each parameter of each file parsed.
+    * 
+    * @param paramId The name of the parameter.
+    * @param count Number of invalid observations of the parameter in the file.
+    */
+   public void invalidObservations(String paramId, int count);
+   
+   /**
+    * Called each time the statistics for a parameter of an interval are built.
+    * 
+    * @param paramId The name of the parameter.
+    * @param nanos Time taken to build them, in nanoseconds.
+    */
+   public void statisticsCalculated(String paramId, long nanos);
+   
+   /**
+    * Called when a MapDataCache finds an interval it already holds.
+    */
+   public void cacheHit();
+   
+   /**
+    * Called when a MapDataCache has to parse an interval.
+    */
+   public void cacheMiss();
+   
+}
@@ -0,0 +1,442 @@
+import java.util.GregorianCalendar;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Holds the parsed observations of one interval and the statistics based upon them. A
+ * snapshot is built once, by a parse or a load, and never changes after that, so any number
+ * of threads may read it at the same time without locking.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public final class MapDataSnapshot
+{
+   
+   /**
+    * Number of observations that can be invalid and still maintain valid statistics.
+    */
+   private static final int NUMBER_OF_MISSING_OBSERVATIONS = 10;
+   
+   /**
+    * String holding the web site name Mesonet.
+    */
+   private static final String MESONET = "Mesonet";
+   
+   /**
+    * Contains the date and time when the data was taken, in seconds since 1970-01-01 UTC.
+    */
+   private final long utcDateTime;
+   
+   /**
+    * Contains the file name from which data was parsed.
+    */
+   private final String fileName;
+   
+   /**
+    * Parameters held, in the same order as the columns of observations.
+    */
+   private final ParameterRegistry parameters;
+   
+   /**
+    * Data for each parameter, sealed against changes.
+    */
+   private final ObservationStore observations;
+   
+   /**
+    * Running statistics for each parameter, only read after construction.
+    */
+   private final StatisticsAccumulator accumulator;
+   
+   /**
+    * Problems found while parsing, only read after construction.
+    */
+   private final ParseDiagnostics diagnostics;
+   
+   /**
+    * Holds the statistics for each parameter, indexed by slot then StatsType. Each slot is
+    * only built once it is asked for, and is published atomically.
+    */
+   private final AtomicReferenceArray<Statistics[]> statistics;
+   
+   /**
+    * Holds the quantiles for each parameter, indexed by slot then StatsType. Each slot is
+    * only built once a quantile is asked for, and is published atomically.
+    */
+   private final AtomicReferenceArray<Statistics[]> quantiles;
+   
+   /**
+    * Constructor, seals observations and keeps the statistics accumulated for them.
+    * 
+    * @param utcDateTime When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param fileName The name of the file the data was parsed from.
+    * @param parameters The parameters held by observations, in the same order.
+    * @param observations The parsed observations, which must not change afterwards.
+    * @param accumulator Statistics accumulated over observations, which must not change afterwards.
+    */
+   public MapDataSnapshot(long utcDateTime, String fileName, ParameterRegistry parameters,
+            ObservationStore observations, StatisticsAccumulator accumulator)
+   {
+      this(utcDateTime, fileName, parameters, observations, accumulator, new ParseDiagnostics());
+   }
+   
+   /**
+    * Constructor, seals observations and the problems found while parsing them and keeps
+    * the statistics accumulated for them.
+    * 
+    * @param utcDateTime When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param fileName The name of the file the data was parsed from.
+    * @param parameters The parameters held by observations, in the same order.
+    * @param observations The parsed observations, which must not change afterwards.
+    * @param accumulator Statistics accumulated over observations, which must not change afterwards.
+    * @param diagnostics Problems found while parsing, which are sealed.
+    */
+   public MapDataSnapshot(long utcDateTime, String fileName, ParameterRegistry parameters,
+            ObservationStore observations, StatisticsAccumulator accumulator, ParseDiagnostics diagnostics)
+   {
+      
+      observations.seal();
+      diagnostics.seal();
+      
+      this.utcDateTime = utcDateTime;
+      this.fileName = fileName;
+      this.parameters = parameters;
+      this.observations = observations;
+      this.accumulator = accumulator;
+      this.diagnostics = diagnostics;
+      this.statistics = new AtomicReferenceArray<Statistics[]>(parameters.size());
+      this.quantiles = new AtomicReferenceArray<Statistics[]>(parameters.size());
+      
+   }
+   
+   /**
+    * Determines whether a parameter has enough data for its statistics to be reported. Rows
+    * skipped while parsing count as missing observations of every parameter, and a
+    * parameter with no valid values never has enough.
+    * 
+    * @param column The column of the observations.
+    * @return boolean true if the statistics can be reported
+    */
+   private boolean hasEnoughData(int column)
+   {
+      
+      int missing = accumulator.getInvalidCount(column) + diagnostics.getSkippedRows();
+      
+      return missing < NUMBER_OF_MISSING_OBSERVATIONS && accumulator.getCount(column) > 0;
+      
+   }
+   
+   /**
+    * Builds the average, minimum, maximum, and total for a parameter from the values
+    * accumulated while parsing.
+    * 
+    * @param column The column of the observations to be used in calculations.
+    * @return Statistics[] indexed by StatsType, with no quantiles
+    */
+   private Statistics[] calculateStatistics(int column)
+   {
+      
+      int reporting = observations.size() - accumulator.getInvalidCount(column);
+      
+      Statistics[] result = new Statistics[StatsType.values().length];
+      
+      if (this.hasEnoughData(column))
+      {
+         result[StatsType.MINIMUM.ordinal()] = new Statistics(accumulator.getMin(column),
+                  observations.getStid(accumulator.getMinRow(column)), utcDateTime, reporting, StatsType.MINIMUM);
+         result[StatsType.MAXIMUM.ordinal()] = new Statistics(accumulator.getMax(column),
+                  observations.getStid(accumulator.getMaxRow(column)), utcDateTime, reporting, StatsType.MAXIMUM);
+         result[StatsType.AVERAGE.ordinal()] = new Statistics(accumulator.getAverage(column), MESONET, utcDateTime,
+                  reporting, StatsType.AVERAGE);
+         result[StatsType.TOTAL.ordinal()] = new Statistics(accumulator.getTotal(column), MESONET, utcDateTime,
+                  reporting, StatsType.TOTAL);
+      }
+      else
+      {
+         for (StatsType type : StatsType.values())
+         {
+            if (!type.isQuantile())
+            {
+               result[type.ordinal()] = new Statistics(0, "NULL", utcDateTime, reporting, type);
+            }
+         }
+      }
+      
+      return result;
+      
+   }
+   
+   /**
+    * Builds the quantiles for a parameter from a sketch of its values. Kept apart from
+    * calculateStatistics so that only callers who ask for a quantile pay for the sketch.
+    * 
+    * @param column The column of the observations to be used in calculations.
+    * @return Statistics[] indexed by StatsType, with only quantiles
+    */
+   private Statistics[] calculateQuantiles(int column)
+   {
+      
+      int reporting = observations.size() - accumulator.getInvalidCount(column);
+      
+      Statistics[] result = new Statistics[StatsType.values().length];
+      QuantileSketch sketch = this.hasEnoughData(column) ? this.buildSketch(column) : null;
+      
+      for (StatsType type : StatsType.values())
+      {
+         if (type.isQuantile())
+         {
+            result[type.ordinal()] = sketch == null ? new Statistics(0, "NULL", utcDateTime, reporting, type)
+                     : new Statistics(sketch.getQuantile(type), MESONET, utcDateTime, reporting, type);
+         }
+      }
+      
+      return result;
+      
+   }
+   
+   /**
+    * Builds a sketch of the valid values of a column.
+    * 
+    * @param column The column of the observations.
+    * @return QuantileSketch of the column
+    */
+   private QuantileSketch buildSketch(int column)
+   {
+      
+      QuantileSketch sketch = new QuantileSketch();
+      sketch.add(observations, column);
+      
+      return sketch;
+      
+   }
+   
+   /**
+    * Returns a new sketch of the valid values of a parameter, which can be merged with those
+    * of other intervals to find quantiles over a longer time.
+    * 
+    * @param paramId The name of the parameter.
+    * @return QuantileSketch of paramId, or null if the parameter was not parsed
+    */
+   public QuantileSketch getSketch(String paramId)
+   {
+      
+      int slot = parameters.indexOf(paramId);
+      
+      return slot == ParameterRegistry.SKIP ? null : this.buildSketch(slot);
+      
+   }
+   
+   /**
+    * Returns a new histogram of the valid values of a parameter.
+    * 
+    * @param paramId The name of the parameter.
+    * @param lower The lower bound of the first bucket.
+    * @param upper The upper bound of the last bucket.
+    * @param buckets The number of buckets between lower and upper.
+    * @return Histogram of paramId, or null if the parameter was not parsed
+    */
+   public Histogram getHistogram(String paramId, double lower, double upper, int buckets)
+   {
+      
+      int slot = parameters.indexOf(paramId);
+      
+      if (slot == ParameterRegistry.SKIP)
+      {
+         return null;
+      }
+      
+      Histogram histogram = new Histogram(lower, upper, buckets);
+      histogram.add(observations, slot);
+      
+      return histogram;
+      
+   }
+   
+   /**
+    * Returns a statistic for a parameter, or null if the parameter was not parsed.
+    * 
+    * @param paramId The name of the parameter, such as TAIR or RELH.
+    * @param type The type of statistic.
+    * @return Statistics for paramId of type
+    */
+   public Statistics getStatistics(String paramId, StatsType type)
+   {
+      
+      int slot = parameters.indexOf(paramId);
+      
+      if (slot == ParameterRegistry.SKIP)
+      {
+         return null;
+      }
+      
+      AtomicReferenceArray<Statistics[]> built = type.isQuantile() ? quantiles : statistics;
+      Statistics[] result = built.get(slot);
+      
+      if (result == null)
+      {
+         
+         MapDataMetrics metrics = Metrics.get();
+         long start = metrics.isEnabled() ? System.nanoTime() : 0;
+         
+         //threads that race here build equal results and all read back the one that won
+         built.compareAndSet(slot, null,
+                  type.isQuantile() ? this.calculateQuantiles(slot) : this.calculateStatistics(slot));
+         
+         if (metrics.isEnabled())
+         {
+            metrics.statisticsCalculated(paramId, System.nanoTime() - start);
+         }
+         
+         result = built.get(slot);
+         
+      }
+      
+      return result[type.ordinal()];
+      
+   }
+   
+   /**
+    * Returns the parameters held.
+    * 
+    * @return ParameterRegistry parameters
+    */
+   public ParameterRegistry getParameters()
+   {
+      return parameters;
+   }
+   
+   /**
+    * Returns the observations, which can no longer be changed.
+    * 
+    * @return ObservationStore observations
+    */
+   public ObservationStore getObservations()
+   {
+      return observations;
+   }
+   
+   /**
+    * Returns the problems found while parsing, which are empty if the data was not parsed
+    * from a file. They are sealed, so they cannot be changed through the snapshot.
+    * 
+    * @return ParseDiagnostics diagnostics
+    */
+   public ParseDiagnostics getDiagnostics()
+   {
+      return diagnostics;
+   }
+   
+   /**
+    * Returns the number of invalid observations of a parameter, or -1 if it was not parsed.
+    * 
+    * @param paramId The name of the parameter.
+    * @return int invalid count
+    */
+   public int getInvalidCount(String paramId)
+   {
+      
+      int slot = parameters.indexOf(paramId);
+      
+      return slot == ParameterRegistry.SKIP ? -1 : accumulator.getInvalidCount(slot);
+      
+   }
+   
+   /**
+    * Returns the name of the file the data was parsed from.
+    * 
+    * @return String fileName
+    */
+   public String getFileName()
+   {
+      return fileName;
+   }
+   
+   /**
+    * Returns the date and time the data was taken in seconds since 1970-01-01 UTC.
+    * 
+    * @return long utcDateTime
+    */
+   public long getUTCEpochSecond()
+   {
+      return utcDateTime;
+   }
+   
+   /**
+    * Returns a new calendar for the date and time the data was taken.
+    * 
+    * @return GregorianCalendar built from utcDateTime
+    */
+   public GregorianCalendar getUTCCalendar()
+   {
+      return EpochTime.toCalendar(utcDateTime);
+   }
+   
+   /**
+    * Returns a statistic for the report, which is NULL if the parameter was not parsed.
+    * 
+    * @param paramId The name of the parameter.
+    * @param type The type of statistic.
+    * @return Statistics for paramId of type
+    */
+   private Statistics getReported(String paramId, StatsType type)
+   {
+      
+      Statistics statistic = this.getStatistics(paramId, type);
+      
+      return statistic == null ? new Statistics(0, "NULL", utcDateTime, 0, type) : statistic;
+      
+   }
+   
+   /**
+    * Creates a string to represent the data from the file. A parameter that was not parsed
+    * is reported as NULL.
+    * 
+    * @return String containing averages, minimums, and maximums, and where they occurred
+    */
+   public String toString()
+   {
+      
+      Statistics tairMax = this.getReported(MapData.TAIR_ID, StatsType.MAXIMUM);
+      Statistics tairMin = this.getReported(MapData.TAIR_ID, StatsType.MINIMUM);
+      Statistics tairAverage = this.getReported(MapData.TAIR_ID, StatsType.AVERAGE);
+      Statistics ta9mMax = this.getReported(MapData.TA9M_ID, StatsType.MAXIMUM);
+      Statistics ta9mMin = this.getReported(MapData.TA9M_ID, StatsType.MINIMUM);
+      Statistics ta9mAverage = this.getReported(MapData.TA9M_ID, StatsType.AVERAGE);
+      Statistics sradMax = this.getReported(MapData.SRAD_ID, StatsType.MAXIMUM);
+      Statistics sradMin = this.getReported(MapData.SRAD_ID, StatsType.MINIMUM);
+      Statistics sradAverage = this.getReported(MapData.SRAD_ID, StatsType.AVERAGE);
+      
+      String str = String.format("=========================================================\n"
+         + "=== %04d-%02d-%02d ===\n"
+         + "=========================================================\n"
+         + "Maximum Air Temperature(1.5m) = %.1f C at %s\n"
+         + "Minimum Air Temperature(1.5m) = %.1f C at %s\n"
+         + "Average Air Temperature(1.5m) = %.1f C at %s\n"
+         + "=========================================================\n"
+         + "=========================================================\n"
+         + "Maximum Air Temperature(9.0m) = %.1f C at %s\n"
+         + "Minimum Air Temperature(9.0m) = %.1f C at %s\n"
+         + "Average Air Temperature(9.0m) = %.1f C at %s\n"
+         + "=========================================================\n"
+         + "=========================================================\n"
+         + "Maximum Solar Radiation = %.1f W/M^2 at %s\n"
+         + "Minimum Solar Radiation = %.1f W/M^2 at %s\n"
+         + "Average Solar Radiation = %.1f W/M^2 at %s\n"
+         + "=========================================================\n",
+         EpochTime.year(utcDateTime), EpochTime.month(utcDateTime), EpochTime.day(utcDateTime),
+         tairMax.getValue(), tairMax.getStid(),
+         tairMin.getValue(), tairMin.getStid(),
+         tairAverage.getValue(), tairAverage.getStid(),
+         ta9mMax.getValue(), ta9mMax.getStid(),
+         ta9mMin.getValue(), ta9mMin.getStid(),
+         ta9mAverage.getValue(), ta9mAverage.getStid(),
+         sradMax.getValue(), sradMax.getStid(),
+         sradMin.getValue(), sradMin.getStid(),
+         sradAverage.getValue(), sradAverage.getStid());
+         
+      return str;
+      
+   }
+   
+}
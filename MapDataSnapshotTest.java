@@ -0,0 +1,130 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the MapDataSnapshot class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class MapDataSnapshotTest
+{
+   
+   @Test
+   /**
+    * Tests that a parsed snapshot holds the same statistics as its MapData.
+    * 
+    * @throws FileNotFoundException
+    * @throws IOException
+    */
+   public void testLoad() throws FileNotFoundException, IOException {
+      
+      MapDataSnapshot test = MapData.load(2017, 9, 25, 17, 45, "data",
+               new ParameterRegistry(MapData.SRAD_ID, MapData.TAIR_ID, MapData.TA9M_ID));
+      
+      Assert.assertEquals(test.getStatistics("TAIR", StatsType.MAXIMUM).getValue(), 35.3, .1);
+      Assert.assertEquals(test.getStatistics("SRAD", StatsType.TOTAL).getValue(), 8334.0, .1);
+      Assert.assertTrue(test.getObservations().isSealed());
+      
+   }
+   
+   @Test
+   /**
+    * Tests that the observations of a snapshot can no longer be changed.
+    * 
+    * @throws FileNotFoundException
+    * @throws IOException
+    */
+   public void testSealed() throws FileNotFoundException, IOException {
+      
+      MapData mapData = new MapData(2017, 9, 25, 17, 45, "data");
+      mapData.parseFile();
+      
+      try
+      {
+         mapData.getObservations().setValue(0, 0, 1.0);
+         Assert.fail("Expected IllegalStateException");
+      }
+      catch (IllegalStateException e)
+      {
+         Assert.assertEquals(mapData.getSradMax().getValue(), 899.0, .1);
+      }
+      
+   }
+   
+   @Test
+   /**
+    * Tests that many threads reading one snapshot all see the same statistics.
+    * 
+    * @throws Exception
+    */
+   public void testConcurrentReads() throws Exception {
+      
+      final MapDataSnapshot test = MapData.load(2017, 9, 25, 17, 45, "data",
+               new ParameterRegistry(MapData.SRAD_ID, MapData.TAIR_ID, MapData.TA9M_ID));
+      
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      List<Future<Statistics>> results = new ArrayList<>();
+      
+      for (int i = 0; i < 64; ++i)
+      {
+         results.add(executor.submit(new Callable<Statistics>() {
+            public Statistics call() {
+               return test.getStatistics("TA9M", StatsType.MINIMUM);
+            }
+         }));
+      }
+      
+      for (Future<Statistics> result : results)
+      {
+         Assert.assertSame(test.getStatistics("TA9M", StatsType.MINIMUM), result.get());
+      }
+      
+      executor.shutdown();
+      
+   }
+
+   @Test
+   /**
+    * Tests that quantiles are only built when one is asked for, apart from the other
+    * statistics.
+    * 
+    * @throws FileNotFoundException
+    * @throws IOException
+    */
+   public void testLazyQuantiles() throws FileNotFoundException, IOException {
+      
+      MapDataSnapshot test = MapData.load(2017, 9, 25, 17, 45, "data",
+               new ParameterRegistry(MapData.SRAD_ID, MapData.TAIR_ID, MapData.TA9M_ID));
+      CountingMetrics metrics = new CountingMetrics();
+      Metrics.set(metrics);
+      
+      try
+      {
+         
+         test.toString();
+         Assert.assertEquals(3, metrics.getStatisticsCalculated());
+         
+         Assert.assertEquals(test.getStatistics("TAIR", StatsType.MEDIAN).getValue(), 33.5, .5);
+         test.getStatistics("TAIR", StatsType.PERCENTILE_95);
+         Assert.assertEquals(4, metrics.getStatisticsCalculated());
+         
+      }
+      finally
+      {
+         Metrics.set(null);
+      }
+      
+   }
+   
+}
@@ -1,5 +1,10 @@
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -14,6 +19,24 @@ import org.junit.Test;
 public class MapDataTest
 {
    
+   /**
+    * Directory the files of a test are written to, or null if it writes none.
+    */
+   private MdfTestDirectory files;
+   
+   @After
+   /**
+    * Deletes the files of a test.
+    */
+   public void tearDown() {
+      
+      if (files != null)
+      {
+         files.delete();
+      }
+      
+   }
+   
    @Test
    /**
     * Tests constructors, parseFile and other associated methods.
@@ -76,5 +99,86 @@ public class MapDataTest
                "Mesonet")));
       
    }
+   
+   @Test
+   /**
+    * Tests parsing a chosen set of parameters instead of srad, tair, and ta9m.
+    * 
+    * @throws FileNotFoundException
+    * @throws IOException
+    */
+   public void testParseChosenParameters() throws FileNotFoundException, IOException {
+      
+      MapData test = new MapData (2017, 9, 25, 17, 45, "data", new ParameterRegistry("RELH", "TAIR"));
+      
+      test.parseFile();
+      
+      Assert.assertNotNull(test.getStatistics("RELH", StatsType.AVERAGE));
+      Assert.assertEquals(test.getStatistics("TAIR", StatsType.MAXIMUM).getValue(), 35.3, .1);
+      Assert.assertTrue(test.getStatistics("TAIR", StatsType.MINIMUM).getStid().equals("ANT2"));
+      Assert.assertNull(test.getSradTotal());
+      
+   }
 
+   @Test
+   /**
+    * Tests that the last line of a file is never parsed as a station, whether the file ends
+    * with a line break or not and whether its lines end with LF or CRLF.
+    * 
+    * @throws FileNotFoundException
+    * @throws IOException
+    */
+   public void testLineEndings() throws FileNotFoundException, IOException {
+      
+      List<String> lines = Files.readAllLines(Paths.get("data/201709251745.mdf"), StandardCharsets.US_ASCII);
+      files = new MdfTestDirectory("endings");
+      String[] contents = {
+         String.join("\n", lines) + "\n",
+         String.join("\n", lines),
+         String.join("\r\n", lines) + "\r\n",
+         String.join("\r\n", lines)
+      };
+      
+      for (String content : contents)
+      {
+         
+         MapData test = new MapData (2017, 9, 25, 17, 45, files.getPath());
+         Files.write(Paths.get(test.getFileName()), content.getBytes(StandardCharsets.US_ASCII));
+         
+         test.parseFile();
+         
+         //BIXB, on the last line, holds the largest TAIR of the file but is not a station row
+         Assert.assertEquals(10, test.getObservations().size());
+         Assert.assertTrue(test.getObservations().getStid(9).equals("BESS"));
+         Assert.assertEquals(test.getTairMax().getValue(), 35.3, .1);
+         Assert.assertEquals(test.getSradTotal().getValue(), 8334.0, .1);
+         Assert.assertTrue(test.getDiagnostics().isClean());
+         
+      }
+      
+   }
+   
+   
+   @Test
+   /**
+    * Tests that the report is written before the file is parsed and when a parameter it
+    * shows was not parsed.
+    * 
+    * @throws IOException
+    */
+   public void testToStringMissingParameters() throws IOException {
+      
+      MapData test = new MapData(2017, 9, 25, 17, 45, "data", new ParameterRegistry(MapData.TAIR_ID));
+      
+      Assert.assertTrue(test.toString().endsWith("has not been parsed"));
+      
+      test.parseFile();
+      String report = test.toString();
+      
+      Assert.assertTrue(report.contains("Maximum Air Temperature(1.5m) = 35.3 C at BESS"));
+      Assert.assertTrue(report.contains("Maximum Air Temperature(9.0m) = 0.0 C at NULL"));
+      Assert.assertTrue(report.contains("Average Solar Radiation = 0.0 W/M^2 at NULL"));
+      
+   }
+   
 }
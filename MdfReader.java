@@ -0,0 +1,392 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads the lines and space separated fields of an .mdf file straight from its bytes.
+ * Files are memory-mapped, and numbers are parsed from the bytes without building Strings.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class MdfReader
+{
+   
+   /**
+    * Largest mantissa, 2^53, that is held exactly by a double.
+    */
+   private static final long MAX_EXACT_MANTISSA = 1L << 53;
+   
+   /**
+    * Powers of ten that are held exactly by a double, indexed by exponent.
+    */
+   private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+      1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+   
+   /**
+    * Bytes of the file.
+    */
+   private ByteBuffer buffer;
+   
+   /**
+    * Index of the start of the next line.
+    */
+   private int position;
+   
+   /**
+    * Index after the last byte of the file.
+    */
+   private int limit;
+   
+   /**
+    * Index after the last byte of the current row.
+    */
+   private int rowEnd;
+   
+   /**
+    * Index the search for the next field of the current row starts at.
+    */
+   private int cursor;
+   
+   /**
+    * Number of lines read so far, so the line number of the current row.
+    */
+   private int lineNumber;
+   
+   /**
+    * Index of the first byte of the current field.
+    */
+   private int fieldStart;
+   
+   /**
+    * Index after the last byte of the current field.
+    */
+   private int fieldEnd;
+   
+   /**
+    * Constructor, reads from the bytes between the position and limit of buffer.
+    * 
+    * @param buffer Bytes of an .mdf file.
+    */
+   public MdfReader(ByteBuffer buffer)
+   {
+      
+      this.buffer = buffer;
+      this.position = buffer.position();
+      this.limit = buffer.limit();
+      
+   }
+   
+   /**
+    * Memory-maps a file and returns a reader for it.
+    * 
+    * @param fileName The name of the file.
+    * @return MdfReader for the file
+    * @throws FileNotFoundException In case of an incorrect directory.
+    * @throws IOException In case the file could not be mapped.
+    */
+   public static MdfReader map(String fileName) throws FileNotFoundException, IOException
+   {
+      
+      RandomAccessFile file = new RandomAccessFile(fileName, "r");
+      
+      try
+      {
+         FileChannel channel = file.getChannel();
+         return new MdfReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+      }
+      finally
+      {
+         //the mapping stays valid after the file is closed
+         file.close();
+      }
+      
+   }
+   
+   /**
+    * Returns the number of bytes read from.
+    * 
+    * @return int number of bytes
+    */
+   public int size()
+   {
+      return limit - buffer.position();
+   }
+   
+   /**
+    * Returns the index after the last byte of the line starting at start.
+    * 
+    * @param start Index of the start of the line.
+    * @return int index of the line terminator, or limit
+    */
+   private int lineEnd(int start)
+   {
+      
+      int i = start;
+      while (i < limit)
+      {
+         byte b = buffer.get(i);
+         if (b == '\n' || b == '\r')
+         {
+            break;
+         }
+         ++i;
+      }
+      
+      return i;
+      
+   }
+   
+   /**
+    * Returns the index of the start of the line after the terminator at end.
+    * 
+    * @param end Index of a line terminator, or limit.
+    * @return int index of the start of the next line
+    */
+   private int nextLineStart(int end)
+   {
+      
+      if (end < limit && buffer.get(end) == '\r' && end + 1 < limit && buffer.get(end + 1) == '\n')
+      {
+         return end + 2;
+      }
+      
+      return end < limit ? end + 1 : end;
+      
+   }
+   
+   /**
+    * Reads the next line as a String. Used for the few header lines of a file.
+    * 
+    * @return String holding the line, or null at the end of the file
+    */
+   public String readLine()
+   {
+      
+      if (position >= limit)
+      {
+         return null;
+      }
+      
+      int end = lineEnd(position);
+      char[] chars = new char[end - position];
+      for (int i = 0; i < chars.length; ++i)
+      {
+         chars[i] = (char) (buffer.get(position + i) & 0xff);
+      }
+      
+      position = nextLineStart(end);
+      ++lineNumber;
+      
+      return new String(chars);
+      
+   }
+   
+   /**
+    * Moves to the next station row. The last line of a file is not a station row, so a
+    * line is only returned as a row when another line follows it.
+    * 
+    * @return boolean true if there is a row, false at the end of the data
+    */
+   public boolean nextRow()
+   {
+      
+      if (position >= limit)
+      {
+         return false;
+      }
+      
+      int end = lineEnd(position);
+      int next = nextLineStart(end);
+      
+      if (next >= limit)
+      {
+         position = limit;
+         return false;
+      }
+      
+      cursor = position;
+      rowEnd = end;
+      position = next;
+      ++lineNumber;
+      
+      return true;
+      
+   }
+   
+   /**
+    * Returns the line number of the current row, counting from 1.
+    * 
+    * @return int line number
+    */
+   public int getLineNumber()
+   {
+      return lineNumber;
+   }
+   
+   /**
+    * Counts the fields of the current row that have not been read yet, without moving to
+    * them.
+    * 
+    * @return int number of fields left
+    */
+   public int countFields()
+   {
+      
+      int fields = 0;
+      boolean inField = false;
+      
+      for (int i = cursor; i < rowEnd; ++i)
+      {
+         
+         boolean space = buffer.get(i) == ' ';
+         
+         if (!space && !inField)
+         {
+            ++fields;
+         }
+         inField = !space;
+         
+      }
+      
+      return fields;
+      
+   }
+   
+   /**
+    * Moves to the next field of the current row.
+    * 
+    * @return boolean true if there is a field, false at the end of the row
+    */
+   public boolean nextField()
+   {
+      
+      int i = cursor;
+      while (i < rowEnd && buffer.get(i) == ' ')
+      {
+         ++i;
+      }
+      
+      if (i == rowEnd)
+      {
+         cursor = i;
+         return false;
+      }
+      
+      fieldStart = i;
+      while (i < rowEnd && buffer.get(i) != ' ')
+      {
+         ++i;
+      }
+      fieldEnd = i;
+      cursor = i;
+      
+      return true;
+      
+   }
+   
+   /**
+    * Returns the current field as a String.
+    * 
+    * @return String holding the field
+    */
+   public String fieldAsString()
+   {
+      
+      char[] chars = new char[fieldEnd - fieldStart];
+      for (int i = 0; i < chars.length; ++i)
+      {
+         chars[i] = (char) (buffer.get(fieldStart + i) & 0xff);
+      }
+      
+      return new String(chars);
+      
+   }
+   
+   /**
+    * Returns the code of the current field in a station dictionary, without building a
+    * String unless the station has not been seen before.
+    * 
+    * @param stations The dictionary to look the field up in.
+    * @return int station code of the field
+    */
+   public int fieldAsStationCode(StationDictionary stations)
+   {
+      return stations.encode(buffer, fieldStart, fieldEnd);
+   }
+   
+   /**
+    * Parses the current field as a double. Plain decimals such as -996 or 33.25 are read
+    * straight from the bytes and give the same result as Double.parseDouble; anything
+    * else is handed to Double.parseDouble.
+    * 
+    * @return double value of the field
+    * @throws NumberFormatException In case the field is not a number.
+    */
+   public double fieldAsDouble()
+   {
+      
+      int i = fieldStart;
+      boolean negative = false;
+      
+      if (buffer.get(i) == '-' || buffer.get(i) == '+')
+      {
+         negative = buffer.get(i) == '-';
+         ++i;
+      }
+      
+      long mantissa = 0;
+      int fractionDigits = 0;
+      int digits = 0;
+      boolean point = false;
+      
+      for (; i < fieldEnd; ++i)
+      {
+         
+         int b = buffer.get(i);
+         
+         if (b >= '0' && b <= '9')
+         {
+            
+            mantissa = mantissa * 10 + (b - '0');
+            ++digits;
+            
+            if (point)
+            {
+               ++fractionDigits;
+            }
+            
+            if (mantissa >= MAX_EXACT_MANTISSA)
+            {
+               return Double.parseDouble(this.fieldAsString());
+            }
+            
+         }
+         else if (b == '.' && !point)
+         {
+            point = true;
+         }
+         else
+         {
+            return Double.parseDouble(this.fieldAsString());
+         }
+         
+      }
+      
+      if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length)
+      {
+         return Double.parseDouble(this.fieldAsString());
+      }
+      
+      //both operands are exact, so the one division is rounded the same way parseDouble rounds
+      double value = mantissa / POWERS_OF_TEN[fractionDigits];
+      
+      return negative ? -value : value;
+      
+   }
+   
+}
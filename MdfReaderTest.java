@@ -0,0 +1,80 @@
+import java.nio.ByteBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the MdfReader class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class MdfReaderTest
+{
+   
+   /**
+    * Returns a reader over the bytes of a String.
+    * 
+    * @param text The text to read.
+    * @return MdfReader for text
+    */
+   private static MdfReader reader(String text) {
+      return new MdfReader(ByteBuffer.wrap(text.getBytes()));
+   }
+   
+   @Test
+   /**
+    * Tests reading header lines, rows, and fields, and that the last line is not a row.
+    */
+   public void testRowsAndFields() {
+      
+      MdfReader test = reader("header\r\n  STID  TAIR\r\n  MIAM   33.5\r\n  NRMN -996\r\n  TRLR 1\r\n");
+      
+      Assert.assertTrue(test.readLine().equals("header"));
+      Assert.assertTrue(test.readLine().equals("  STID  TAIR"));
+      
+      Assert.assertTrue(test.nextRow());
+      Assert.assertTrue(test.nextField());
+      Assert.assertTrue(test.fieldAsString().equals("MIAM"));
+      Assert.assertTrue(test.nextField());
+      Assert.assertEquals(test.fieldAsDouble(), 33.5, .0001);
+      Assert.assertFalse(test.nextField());
+      
+      Assert.assertTrue(test.nextRow());
+      Assert.assertTrue(test.nextField());
+      Assert.assertTrue(test.nextField());
+      Assert.assertEquals(test.fieldAsDouble(), -996, .0001);
+      
+      Assert.assertFalse(test.nextRow());
+      
+   }
+   
+   @Test
+   /**
+    * Tests that numbers parsed from bytes match Double.parseDouble.
+    */
+   public void testFieldAsDouble() {
+      
+      String[] values = {"0", "-0.0", "33.1", "-999.00", "972.11", "0.07", "1e3", "+5", "123456.789"};
+      
+      StringBuilder text = new StringBuilder();
+      for (String value : values)
+      {
+         text.append(' ').append(value).append('\n');
+      }
+      text.append('\n');
+      
+      MdfReader test = reader(text.toString());
+      
+      for (String value : values)
+      {
+         Assert.assertTrue(test.nextRow());
+         Assert.assertTrue(test.nextField());
+         Assert.assertEquals(Double.doubleToLongBits(Double.parseDouble(value)),
+                  Double.doubleToLongBits(test.fieldAsDouble()));
+      }
+      
+   }
+
+}
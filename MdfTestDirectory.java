@@ -0,0 +1,209 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+
+/**
+ * A temporary directory that tests write small .mdf files to, deleted with everything in
+ * it once the test is done. Each file has the STID, STNM, and TIME columns followed by the
+ * columns asked for, and one row per station.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class MdfTestDirectory
+{
+   
+   /**
+    * The directory the files are written to.
+    */
+   private final File directory;
+   
+   /**
+    * Constructor, creates an empty temporary directory.
+    * 
+    * @param prefix The start of the name of the directory.
+    * @throws IOException In case the directory could not be created.
+    */
+   public MdfTestDirectory(String prefix) throws IOException
+   {
+      directory = Files.createTempDirectory(prefix).toFile();
+   }
+   
+   /**
+    * Returns the time of an interval on 2018-08-30 in the hour from 17:00.
+    * 
+    * @param minute Minute of 2018-08-30 17:00 the data was taken.
+    * @return long date and time in seconds since 1970-01-01 UTC
+    */
+   public static long time(int minute)
+   {
+      return EpochTime.of(2018, 8, 30, 17, minute, 0);
+   }
+   
+   /**
+    * Returns station IDs ST00, ST01, and so on.
+    * 
+    * @param count The number of stations.
+    * @return String[] station IDs
+    */
+   public static String[] stations(int count)
+   {
+      
+      String[] stids = new String[count];
+      for (int i = 0; i < count; ++i)
+      {
+         stids[i] = String.format("ST%02d", i);
+      }
+      
+      return stids;
+      
+   }
+   
+   /**
+    * Returns the directory the files are written to.
+    * 
+    * @return File directory
+    */
+   public File getDirectory()
+   {
+      return directory;
+   }
+   
+   /**
+    * Returns the path of the directory the files are written to.
+    * 
+    * @return String path
+    */
+   public String getPath()
+   {
+      return directory.getPath();
+   }
+   
+   /**
+    * Returns the file of an interval in the directory.
+    * 
+    * @param time When the data was taken, in seconds since 1970-01-01 UTC.
+    * @return File for the interval, which need not exist
+    */
+   public File file(long time)
+   {
+      return new File(directory, String.format("%04d%02d%02d%02d%02d.mdf", EpochTime.year(time),
+               EpochTime.month(time), EpochTime.day(time), EpochTime.hour(time), EpochTime.minute(time)));
+   }
+   
+   /**
+    * Writes the file of an interval.
+    * 
+    * @param time When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param columns The names of the columns after STID, STNM, and TIME.
+    * @param stids The station ID of each row.
+    * @param values The values of each column, indexed by column then row.
+    * @return File written
+    * @throws IOException In case the file could not be written.
+    */
+   public File write(long time, String[] columns, String[] stids, double[]... values) throws IOException
+   {
+      return this.write(this.file(time), time, columns, stids, values);
+   }
+   
+   /**
+    * Writes the data of an interval to a file of any name, such as one that is renamed into
+    * place once written.
+    * 
+    * @param file The file to write.
+    * @param time When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param columns The names of the columns after STID, STNM, and TIME.
+    * @param stids The station ID of each row.
+    * @param values The values of each column, indexed by column then row.
+    * @return File written
+    * @throws IOException In case the file could not be written.
+    */
+   public File write(File file, long time, String[] columns, String[] stids, double[]... values) throws IOException
+   {
+      
+      PrintWriter out = new PrintWriter(file);
+      
+      try
+      {
+         
+         out.println("  101 ! (c) 2018 Oklahoma Climatological Survey - all rights reserved");
+         out.println(String.format("  %04d %02d %02d 00 00 00", EpochTime.year(time), EpochTime.month(time),
+                  EpochTime.day(time)));
+         
+         StringBuilder line = new StringBuilder(" STID  STNM  TIME");
+         for (String column : columns)
+         {
+            line.append(String.format("%7s", column));
+         }
+         out.println(line);
+         
+         for (int i = 0; i < stids.length; ++i)
+         {
+            
+            line.setLength(0);
+            line.append(String.format(" %s  %4d  %4d", stids[i], 100 + i,
+                     EpochTime.hour(time) * 60 + EpochTime.minute(time)));
+            for (double[] column : values)
+            {
+               line.append(String.format("%7.1f", column[i]));
+            }
+            out.println(line);
+            
+         }
+         
+         //the last line of a file is not a station row
+         out.println();
+         
+      }
+      finally
+      {
+         out.close();
+      }
+      
+      return file;
+      
+   }
+   
+   /**
+    * Writes the file of an interval and parses it.
+    * 
+    * @param time When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param columns The names of the columns after STID, STNM, and TIME, which are parsed.
+    * @param stids The station ID of each row.
+    * @param values The values of each column, indexed by column then row.
+    * @return MapData parsed from the file
+    * @throws IOException In case the file could not be written or parsed.
+    */
+   public MapData parse(long time, String[] columns, String[] stids, double[]... values) throws IOException
+   {
+      
+      this.write(time, columns, stids, values);
+      
+      MapData mapData = new MapData(EpochTime.year(time), EpochTime.month(time), EpochTime.day(time),
+               EpochTime.hour(time), EpochTime.minute(time), this.getPath(), new ParameterRegistry(columns));
+      mapData.parseFile();
+      
+      return mapData;
+      
+   }
+   
+   /**
+    * Deletes the directory and every file in it.
+    */
+   public void delete()
+   {
+      
+      File[] files = directory.listFiles();
+      
+      for (int i = 0; files != null && i < files.length; ++i)
+      {
+         files[i].delete();
+      }
+      directory.delete();
+      
+   }
+   
+}
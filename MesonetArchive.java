@@ -0,0 +1,528 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Reads and writes a binary archive of many parsed intervals, such as a day or a month.
+ * Each interval is stored as a column of station codes, a column of values and a validity
+ * bitmap per parameter, with one station dictionary shared by the whole archive.
+ * 
+ * The layout is: magic number, version, value width in bytes (8 for double, 4 for float),
+ * parameter names, station names, interval count, then for each interval its time in epoch
+ * seconds, row count, the number of rows skipped and values flagged while parsing it,
+ * station codes, and for each parameter its values and validity words. Version 1 archives,
+ * written before the parse counts were kept, are read with counts of 0.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class MesonetArchive
+{
+   
+   /**
+    * Marks the start of an archive, the bytes "MDFA".
+    */
+   private static final int MAGIC = 0x4D444641;
+   
+   /**
+    * Version of the layout written.
+    */
+   private static final int VERSION = 2;
+   
+   /**
+    * Last version written without the parse counts of each interval.
+    */
+   private static final int VERSION_WITHOUT_DIAGNOSTICS = 1;
+   
+   /**
+    * Width of a value stored as a double.
+    */
+   private static final int DOUBLE_WIDTH = 8;
+   
+   /**
+    * Width of a value stored as a float.
+    */
+   private static final int FLOAT_WIDTH = 4;
+   
+   /**
+    * Writes an archive one interval at a time. The station names come before the intervals
+    * in the layout but are only all known once the last interval is added, so the intervals
+    * are written to a temporary file beside the archive and copied in after the header.
+    */
+   private static final class ArchiveWriter implements Closeable
+   {
+      
+      /**
+       * The name of the archive file.
+       */
+      private final String archiveName;
+      
+      /**
+       * Whether values are stored as floats.
+       */
+      private final boolean singlePrecision;
+      
+      /**
+       * Codes of the stations of the archive, in the order they were first seen.
+       */
+      private final StationDictionary stations = new StationDictionary();
+      
+      /**
+       * Temporary file the intervals are written to.
+       */
+      private final File body;
+      
+      /**
+       * Stream to the temporary file.
+       */
+      private final DataOutputStream out;
+      
+      /**
+       * Names of the parameters every interval holds, or null before the first is added.
+       */
+      private String[] paramIds;
+      
+      /**
+       * Number of intervals added.
+       */
+      private int count;
+      
+      /**
+       * Constructor, creates the temporary file the intervals are written to.
+       * 
+       * @param archiveName The name of the archive file.
+       * @param singlePrecision Whether values are stored as floats.
+       * @throws IOException In case the temporary file could not be created.
+       */
+      private ArchiveWriter(String archiveName, boolean singlePrecision) throws IOException
+      {
+         
+         this.archiveName = archiveName;
+         this.singlePrecision = singlePrecision;
+         
+         body = File.createTempFile("archive", ".tmp", new File(archiveName).getAbsoluteFile().getParentFile());
+         out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(body), 1 << 16));
+         
+      }
+      
+      /**
+       * Writes an interval to the temporary file.
+       * 
+       * @param interval A parsed interval holding the same parameters as every other.
+       * @throws IOException In case the interval could not be written.
+       */
+      private void add(MapData interval) throws IOException
+      {
+         
+         ObservationStore observations = interval.getObservations();
+         
+         if (paramIds == null)
+         {
+            paramIds = paramIds(observations);
+         }
+         else if (!Arrays.equals(paramIds, paramIds(observations)))
+         {
+            throw new IllegalArgumentException("Intervals hold different parameters: " + interval.getFileName());
+         }
+         
+         int rows = observations.size();
+         
+         out.writeLong(interval.getUTCEpochSecond());
+         out.writeInt(rows);
+         out.writeInt(interval.getDiagnostics().getSkippedRows());
+         out.writeInt(interval.getDiagnostics().getFlaggedValues());
+         
+         for (int i = 0; i < rows; ++i)
+         {
+            out.writeInt(stations.encode(observations.getStid(i)));
+         }
+         
+         for (int p = 0; p < paramIds.length; ++p)
+         {
+            
+            for (int i = 0; i < rows; ++i)
+            {
+               if (singlePrecision)
+               {
+                  out.writeFloat((float) observations.getValue(i, p));
+               }
+               else
+               {
+                  out.writeDouble(observations.getValue(i, p));
+               }
+            }
+            
+            long[] words = observations.getValidity(p).toLongArray();
+            out.writeInt(words.length);
+            for (long word : words)
+            {
+               out.writeLong(word);
+            }
+            
+         }
+         
+         ++count;
+         
+      }
+      
+      /**
+       * Writes the archive: its header, the stations of every interval added, and then the
+       * intervals themselves.
+       * 
+       * @throws IOException In case the archive could not be written.
+       */
+      private void finish() throws IOException
+      {
+         
+         out.close();
+         
+         String[] names = paramIds == null ? new String[0] : paramIds;
+         DataOutputStream archive = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(archiveName),
+                  1 << 16));
+         
+         try
+         {
+            
+            archive.writeInt(MAGIC);
+            archive.writeInt(VERSION);
+            archive.writeByte(singlePrecision ? FLOAT_WIDTH : DOUBLE_WIDTH);
+            
+            archive.writeInt(names.length);
+            for (String paramId : names)
+            {
+               writeName(archive, paramId);
+            }
+            
+            archive.writeInt(stations.size());
+            for (int s = 0; s < stations.size(); ++s)
+            {
+               writeName(archive, stations.decode(s));
+            }
+            
+            archive.writeInt(count);
+            Files.copy(body.toPath(), archive);
+            
+         }
+         finally
+         {
+            archive.close();
+         }
+         
+      }
+      
+      /**
+       * Deletes the temporary file.
+       * 
+       * @throws IOException In case the temporary file could not be closed.
+       */
+      @Override
+      public void close() throws IOException
+      {
+         
+         out.close();
+         body.delete();
+         
+      }
+      
+   }
+   
+   /**
+    * Constructor, not used since every method is static.
+    */
+   private MesonetArchive()
+   {
+   }
+   
+   /**
+    * Writes intervals to an archive, keeping every value as a double.
+    * 
+    * @param archiveName The name of the archive file.
+    * @param intervals Parsed intervals that all hold the same parameters.
+    * @throws IOException In case the archive could not be written.
+    */
+   public static void write(String archiveName, List<MapData> intervals) throws IOException
+   {
+      write(archiveName, intervals, false);
+   }
+   
+   /**
+    * Writes intervals to an archive.
+    * 
+    * @param archiveName The name of the archive file.
+    * @param intervals Parsed intervals that all hold the same parameters.
+    * @param singlePrecision Whether values are stored as floats, which halves their size.
+    * @throws IOException In case the archive could not be written.
+    */
+   public static void write(String archiveName, List<MapData> intervals, boolean singlePrecision) throws IOException
+   {
+      
+      ArchiveWriter writer = new ArchiveWriter(archiveName, singlePrecision);
+      
+      try
+      {
+         
+         for (MapData interval : intervals)
+         {
+            writer.add(interval);
+         }
+         
+         writer.finish();
+         
+      }
+      finally
+      {
+         writer.close();
+      }
+      
+   }
+   
+   /**
+    * Parses every .mdf file in a directory from start to end and writes them to an archive.
+    * Each interval is written as soon as it is parsed and then let go, so only the few
+    * files RangeIngestor parses ahead are held at once, however long the range is.
+    * 
+    * @param directory The file location for the data.
+    * @param start The date and time of the first interval, in seconds since 1970-01-01 UTC.
+    * @param end The date and time of the last interval, in seconds since 1970-01-01 UTC.
+    * @param parameters The parameters to parse and store.
+    * @param archiveName The name of the archive file.
+    * @return int number of intervals written
+    * @throws IOException In case a file could not be parsed or the archive could not be written.
+    */
+   public static int convert(String directory, long start, long end, ParameterRegistry parameters, String archiveName)
+            throws IOException
+   {
+      
+      RangeIngestor ingestor = new RangeIngestor(directory, Runtime.getRuntime().availableProcessors(),
+               4 * Runtime.getRuntime().availableProcessors(), parameters);
+      ArchiveWriter writer = new ArchiveWriter(archiveName, false);
+      
+      try
+      {
+         
+         ingestor.ingestEach(start, end, interval -> {
+            try
+            {
+               writer.add(interval);
+            }
+            catch (IOException e)
+            {
+               throw new UncheckedIOException(e);
+            }
+         });
+         
+         writer.finish();
+         
+         return writer.count;
+         
+      }
+      catch (UncheckedIOException e)
+      {
+         throw e.getCause();
+      }
+      finally
+      {
+         writer.close();
+      }
+      
+   }
+   
+   /**
+    * Loads every interval held in an archive, in the order they were written.
+    * 
+    * @param archiveName The name of the archive file.
+    * @return List of MapData, one per interval
+    * @throws FileNotFoundException In case the archive does not exist.
+    * @throws IOException In case the file is not an archive or is cut short.
+    */
+   public static List<MapData> read(String archiveName) throws FileNotFoundException, IOException
+   {
+      
+      ByteBuffer in;
+      RandomAccessFile file = new RandomAccessFile(archiveName, "r");
+      
+      try
+      {
+         FileChannel channel = file.getChannel();
+         in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      finally
+      {
+         file.close();
+      }
+      
+      try
+      {
+         
+         if (in.getInt() != MAGIC)
+         {
+            throw new IOException("Not a Mesonet archive: " + archiveName);
+         }
+         
+         int version = in.getInt();
+         if (version != VERSION && version != VERSION_WITHOUT_DIAGNOSTICS)
+         {
+            throw new IOException("Unsupported archive version " + version + ": " + archiveName);
+         }
+         
+         int width = in.get();
+         if (width != DOUBLE_WIDTH && width != FLOAT_WIDTH)
+         {
+            throw new IOException("Unsupported value width " + width + ": " + archiveName);
+         }
+         
+         String[] paramIds = new String[readCount(in, Short.BYTES, archiveName)];
+         for (int p = 0; p < paramIds.length; ++p)
+         {
+            paramIds[p] = readName(in);
+         }
+         
+         //maps the archive's own station codes to those of the shared dictionary
+         int[] stations = new int[readCount(in, Short.BYTES, archiveName)];
+         for (int s = 0; s < stations.length; ++s)
+         {
+            stations[s] = StationDictionary.shared().encode(readName(in));
+         }
+         
+         int intervalCount = readCount(in, Long.BYTES + Integer.BYTES, archiveName);
+         List<MapData> intervals = new ArrayList<>(intervalCount);
+         
+         for (int n = 0; n < intervalCount; ++n)
+         {
+            
+            long utcDateTime = in.getLong();
+            int rows = readCount(in, Integer.BYTES + paramIds.length * width, archiveName);
+            ParseDiagnostics diagnostics = version == VERSION_WITHOUT_DIAGNOSTICS ? new ParseDiagnostics()
+                     : new ParseDiagnostics(readCount(in, 0, archiveName), readCount(in, 0, archiveName));
+            ObservationStore observations = new ObservationStore(paramIds);
+            
+            for (int i = 0; i < rows; ++i)
+            {
+               observations.setStationCode(observations.addRow(), stations[in.getInt()]);
+            }
+            
+            for (int p = 0; p < paramIds.length; ++p)
+            {
+               
+               for (int i = 0; i < rows; ++i)
+               {
+                  observations.setValue(i, p, width == DOUBLE_WIDTH ? in.getDouble() : in.getFloat());
+               }
+               
+               long[] words = new long[readCount(in, Long.BYTES, archiveName)];
+               for (int w = 0; w < words.length; ++w)
+               {
+                  words[w] = in.getLong();
+               }
+               observations.setValidity(p, BitSet.valueOf(words));
+               
+            }
+            
+            intervals.add(MapData.fromObservations(utcDateTime, observations, diagnostics, archiveName));
+            
+         }
+         
+         return intervals;
+         
+      }
+      catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e)
+      {
+         throw new IOException("Archive is cut short or corrupt: " + archiveName, e);
+      }
+      
+   }
+   
+   /**
+    * Reads the number of items that follow, checking that that many could fit in the bytes
+    * left so that a corrupt count cannot cause a huge or negative allocation.
+    * 
+    * @param in Buffer to read from.
+    * @param minBytes The fewest bytes each item takes up.
+    * @param archiveName The name of the archive, for the error message.
+    * @return int number of items
+    * @throws IOException In case the count is negative or too large for the archive.
+    */
+   private static int readCount(ByteBuffer in, int minBytes, String archiveName) throws IOException
+   {
+      
+      int count = in.getInt();
+      
+      if (count < 0 || (long) count * minBytes > in.remaining())
+      {
+         throw new IOException("Corrupt archive, count " + count + " at byte " + (in.position() - Integer.BYTES)
+                  + " does not fit: " + archiveName);
+      }
+      
+      return count;
+      
+   }
+   
+   /**
+    * Returns the names of the parameters held by observations, in order.
+    * 
+    * @param observations The observations of an interval.
+    * @return String[] parameter names
+    */
+   private static String[] paramIds(ObservationStore observations)
+   {
+      
+      String[] paramIds = new String[observations.getParamCount()];
+      for (int p = 0; p < paramIds.length; ++p)
+      {
+         paramIds[p] = observations.getParamId(p);
+      }
+      
+      return paramIds;
+      
+   }
+   
+   /**
+    * Writes a name as its length followed by its UTF-8 bytes.
+    * 
+    * @param out Stream to write to.
+    * @param name The name to write.
+    * @throws IOException In case the name could not be written.
+    */
+   private static void writeName(DataOutputStream out, String name) throws IOException
+   {
+      
+      byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+      out.writeShort(bytes.length);
+      out.write(bytes);
+      
+   }
+   
+   /**
+    * Reads a name written by writeName.
+    * 
+    * @param in Buffer to read from.
+    * @return String name
+    */
+   private static String readName(ByteBuffer in)
+   {
+      
+      byte[] bytes = new byte[in.getShort() & 0xffff];
+      in.get(bytes);
+      
+      return new String(bytes, StandardCharsets.UTF_8);
+      
+   }
+   
+}
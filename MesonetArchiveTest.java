@@ -0,0 +1,170 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the MesonetArchive class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class MesonetArchiveTest
+{
+   
+   @Test
+   /**
+    * Tests that an interval written to an archive loads back with the same statistics.
+    * 
+    * @throws IOException
+    */
+   public void testWriteAndRead() throws IOException {
+      
+      MapData parsed = new MapData (2017, 9, 25, 17, 45, "data");
+      parsed.parseFile();
+      
+      File archive = File.createTempFile("mesonet", ".mda");
+      archive.deleteOnExit();
+      
+      MesonetArchive.write(archive.getPath(), Arrays.asList(parsed));
+      List<MapData> test = MesonetArchive.read(archive.getPath());
+      
+      Assert.assertEquals(1, test.size());
+      Assert.assertEquals(parsed.getUTCEpochSecond(), test.get(0).getUTCEpochSecond());
+      Assert.assertEquals(parsed.getObservations().size(), test.get(0).getObservations().size());
+      Assert.assertTrue(parsed.toString().equals(test.get(0).toString()));
+      Assert.assertEquals(parsed.getStatistics("SRAD", StatsType.TOTAL).getNumberOfReportingStations(),
+               test.get(0).getStatistics("SRAD", StatsType.TOTAL).getNumberOfReportingStations());
+      
+   }
+   
+   @Test
+   /**
+    * Tests that converting a range of files writes an archive that loads back with the same
+    * statistics as parsing the files.
+    * 
+    * @throws IOException
+    */
+   public void testConvert() throws IOException {
+      
+      long time = EpochTime.of(2017, 9, 25, 17, 45, 0);
+      MapData parsed = new MapData (2017, 9, 25, 17, 45, "data", new ParameterRegistry("TAIR", "SRAD"));
+      parsed.parseFile();
+      
+      File archive = File.createTempFile("mesonet", ".mda");
+      archive.deleteOnExit();
+      
+      Assert.assertEquals(1, MesonetArchive.convert("data", time, time, new ParameterRegistry("TAIR", "SRAD"),
+               archive.getPath()));
+      List<MapData> test = MesonetArchive.read(archive.getPath());
+      
+      Assert.assertEquals(1, test.size());
+      Assert.assertEquals(time, test.get(0).getUTCEpochSecond());
+      Assert.assertTrue(parsed.toString().equals(test.get(0).toString()));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that a file that is not an archive is rejected.
+    * 
+    * @throws IOException
+    */
+   public void testReadNotArchive() throws IOException {
+      
+      try
+      {
+         MesonetArchive.read("data/201709251745.mdf");
+         Assert.fail("Expected IOException");
+      }
+      catch (IOException e)
+      {
+         Assert.assertTrue(e.getMessage().startsWith("Not a Mesonet archive"));
+      }
+      
+   }
+
+   @Test
+   /**
+    * Tests that negative or huge counts in a corrupt archive are rejected with an
+    * IOException rather than a failed allocation.
+    * 
+    * @throws IOException
+    */
+   public void testReadCorruptCount() throws IOException {
+      
+      MapData parsed = new MapData (2017, 9, 25, 17, 45, "data");
+      parsed.parseFile();
+      
+      File archive = File.createTempFile("mesonet", ".mda");
+      archive.deleteOnExit();
+      
+      for (int count : new int[] {-1, Integer.MAX_VALUE})
+      {
+         
+         MesonetArchive.write(archive.getPath(), Arrays.asList(parsed));
+         
+         //the parameter count follows the magic number, version, and value width
+         RandomAccessFile file = new RandomAccessFile(archive, "rw");
+         file.seek(9);
+         file.writeInt(count);
+         file.close();
+         
+         try
+         {
+            MesonetArchive.read(archive.getPath());
+            Assert.fail("Expected IOException");
+         }
+         catch (IOException e)
+         {
+            Assert.assertTrue(e.getMessage().startsWith("Corrupt archive, count " + count));
+         }
+         
+      }
+      
+   }
+   
+   
+   @Test
+   /**
+    * Tests that the rows skipped while parsing a damaged file are kept by the archive, so
+    * that a parameter with too many missing observations is still reported as NULL.
+    * 
+    * @throws IOException
+    */
+   public void testWriteAndReadDamaged() throws IOException {
+      
+      //five skipped rows and five missing SRAD values make ten missing SRAD observations
+      List<String> lines = Files.readAllLines(Paths.get("data/201709251745.mdf"), StandardCharsets.US_ASCII);
+      for (int i = 3; i < 8; ++i)
+      {
+         lines.set(i, lines.get(i).substring(0, 40));
+         lines.set(i + 5, lines.get(i + 5).replaceFirst(" 8\\d\\d ", "-996 "));
+      }
+      
+      MapData parsed = new MapData (2017, 9, 25, 17, 45, "data");
+      parsed.parse(ByteBuffer.wrap((String.join("\n", lines) + "\n").getBytes(StandardCharsets.US_ASCII)));
+      
+      File archive = File.createTempFile("mesonet", ".mda");
+      archive.deleteOnExit();
+      
+      MesonetArchive.write(archive.getPath(), Arrays.asList(parsed));
+      MapData test = MesonetArchive.read(archive.getPath()).get(0);
+      
+      Assert.assertEquals(5, test.getDiagnostics().getSkippedRows());
+      Assert.assertTrue(parsed.getStatistics("SRAD", StatsType.MAXIMUM).getStid().equals("NULL"));
+      Assert.assertTrue(test.getStatistics("SRAD", StatsType.MAXIMUM).getStid().equals("NULL"));
+      Assert.assertTrue(parsed.toString().equals(test.toString()));
+      
+   }
+   
+}
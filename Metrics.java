@@ -0,0 +1,44 @@
+/**
+ * Holds the MapDataMetrics that every MapData, MapDataSnapshot, and MapDataCache reports to.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public final class Metrics
+{
+   
+   /**
+    * The metrics reported to, MapDataMetrics.NOOP until others are installed.
+    */
+   private static volatile MapDataMetrics metrics = MapDataMetrics.NOOP;
+   
+   /**
+    * Not instantiated.
+    */
+   private Metrics()
+   {
+   }
+   
+   /**
+    * Returns the metrics reported to.
+    * 
+    * @return MapDataMetrics installed
+    */
+   public static MapDataMetrics get()
+   {
+      return metrics;
+   }
+   
+   /**
+    * Installs the metrics to report to from now on.
+    * 
+    * @param installed The metrics, or null to stop reporting.
+    */
+   public static void set(MapDataMetrics installed)
+   {
+      metrics = installed == null ? MapDataMetrics.NOOP : installed;
+   }
+   
+}
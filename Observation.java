@@ -16,23 +16,49 @@ public class Observation extends AbstractObservation
    private double value;
    
    /**
-    * Station Id where the data for the observation was taken.
+    * Code in the shared StationDictionary of the station where the data for the
+    * observation was taken.
     */
-   private String stid;
+   private int stationId;
    
    /**
-    * Constructor, initializes value and stid, then calls isValid.
+    * Constructor, initializes value and stid, then determines whether the value is valid.
     * 
     * @param value The value of the observation.
     * @param stid The ID of the station where the observation was taken.
     */
    public Observation(double value, String stid)
+   {
+      this(value, stid, isValidValue(value));
+   }
+   
+   /**
+    * Constructor, initializes value and stid with a validity already determined, such as
+    * by ValidityRules.
+    * 
+    * @param value The value of the observation.
+    * @param stid The ID of the station where the observation was taken.
+    * @param valid Whether the value is valid.
+    */
+   public Observation(double value, String stid, boolean valid)
+   {
+      this(value, stid == null ? -1 : StationDictionary.shared().encode(stid), valid);
+   }
+   
+   /**
+    * Constructor, initializes value and the station by its code in the shared
+    * StationDictionary, with a validity already determined.
+    * 
+    * @param value The value of the observation.
+    * @param stationId The code of the station where the observation was taken.
+    * @param valid Whether the value is valid.
+    */
+   public Observation(double value, int stationId, boolean valid)
    {
       
       this.value = value;
-      this.stid = stid;
-      
-      this.isValid();
+      this.stationId = stationId;
+      this.valid = valid;
       
    }
    
@@ -47,35 +73,47 @@ public class Observation extends AbstractObservation
    }
    
    /**
-    * Determines whether or not the observation is balid and sets the
-    * boolean valid accordingly.
+    * Returns whether or not the observation is valid, as determined when it was
+    * constructed.
     * 
     * @return boolean valid
     */
    public boolean isValid()
    {
-      
-      if (this.value < -900)
-      {
-         this.valid = false;
-      }
-      else
-      {
-         this.valid = true;
-      }
-      
       return valid;
-      
+   }
+   
+   /**
+    * Determines whether or not a value is valid data. Values below -900 are the codes
+    * Mesonet uses for missing or bad data.
+    * 
+    * @param value The value of an observation.
+    * @return boolean true if valid, false if not
+    */
+   public static boolean isValidValue(double value)
+   {
+      return value >= -900;
    }
    
    /**
     * Returns the Id of the station at which the observation was recorded.
     * 
-    * @return String stid
+    * @return String stid, or null if no station was given
     */
    public String getStid()
    {
-      return this.stid;
+      return this.stationId == -1 ? null : StationDictionary.shared().decode(this.stationId);
+   }
+   
+   /**
+    * Returns the code in the shared StationDictionary of the station at which the
+    * observation was recorded.
+    * 
+    * @return int station code, or -1 if no station was given
+    */
+   public int getStationId()
+   {
+      return this.stationId;
    }
    
    /**
@@ -86,7 +124,7 @@ public class Observation extends AbstractObservation
    public String toString()
    {
       return String.format("Station ID: %s   "
-            + "Value: %.02f   Valid? %b\n", this.stid, this.value, this.valid);
+            + "Value: %.02f   Valid? %b\n", this.getStid(), this.value, this.valid);
    }
 
 }
@@ -0,0 +1,392 @@
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Holds the observations of one interval in columns: a double array per parameter, a
+ * station code column encoded with the shared StationDictionary, and a validity bitset per
+ * parameter. Once sealed,
+ * a store can no longer be changed and may be read by many threads at once.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ObservationStore
+{
+   
+   /**
+    * Number of rows room is made for before the first resize.
+    */
+   private static final int INITIAL_CAPACITY = 128;
+   
+   /**
+    * Names of the parameters held, one per value column.
+    */
+   private String[] paramIds;
+   
+   /**
+    * Dictionary the station column is encoded with, shared with every other store.
+    */
+   private StationDictionary stations;
+   
+   /**
+    * Station code of each row.
+    */
+   private int[] stationColumn;
+   
+   /**
+    * Values of each parameter, indexed by parameter then row.
+    */
+   private double[][] values;
+   
+   /**
+    * Whether each value is valid, one bitset per parameter.
+    */
+   private BitSet[] valid;
+   
+   /**
+    * Number of rows held.
+    */
+   private int size;
+   
+   /**
+    * Whether the store can no longer be changed.
+    */
+   private boolean sealed;
+   
+   /**
+    * Constructor, initializes an empty column for each parameter.
+    * 
+    * @param paramIds The names of the parameters to hold.
+    */
+   public ObservationStore(String... paramIds)
+   {
+      
+      this.paramIds = paramIds.clone();
+      stations = StationDictionary.shared();
+      stationColumn = new int[INITIAL_CAPACITY];
+      values = new double[paramIds.length][INITIAL_CAPACITY];
+      valid = new BitSet[paramIds.length];
+      
+      for (int p = 0; p < paramIds.length; ++p)
+      {
+         valid[p] = new BitSet(INITIAL_CAPACITY);
+      }
+      
+   }
+   
+   /**
+    * Adds a row for a station. The values of the row start out as 0 and invalid.
+    * 
+    * @param stid The ID of the station.
+    * @return int index of the new row
+    */
+   public int addRow(String stid)
+   {
+      
+      int row = addRow();
+      setStid(row, stid);
+      
+      return row;
+      
+   }
+   
+   /**
+    * Adds a row whose station ID is set later with setStid. The values of the row start
+    * out as 0 and invalid.
+    * 
+    * @return int index of the new row
+    */
+   public int addRow()
+   {
+      
+      this.checkWritable();
+      
+      if (size == stationColumn.length)
+      {
+         int capacity = size * 2;
+         stationColumn = Arrays.copyOf(stationColumn, capacity);
+         for (int p = 0; p < values.length; ++p)
+         {
+            values[p] = Arrays.copyOf(values[p], capacity);
+         }
+      }
+      
+      stationColumn[size] = -1;
+      
+      return size++;
+      
+   }
+   
+   /**
+    * Removes the row added last, such as one found to be damaged after it was added.
+    */
+   public void removeLastRow()
+   {
+      
+      this.checkWritable();
+      
+      --size;
+      for (int p = 0; p < values.length; ++p)
+      {
+         values[p][size] = 0;
+         valid[p].clear(size);
+      }
+      
+   }
+   
+   /**
+    * Sets the station ID of a row.
+    * 
+    * @param row The index of the row.
+    * @param stid The ID of the station.
+    */
+   public void setStid(int row, String stid)
+   {
+      
+      this.checkWritable();
+      stationColumn[row] = stations.encode(stid);
+      
+   }
+   
+   /**
+    * Sets the station of a row by its code in the shared StationDictionary.
+    * 
+    * @param row The index of the row.
+    * @param code The code of the station.
+    */
+   public void setStationCode(int row, int code)
+   {
+      
+      this.checkWritable();
+      stationColumn[row] = code;
+      
+   }
+   
+   /**
+    * Sets the value of a parameter for a row and marks whether it is valid.
+    * 
+    * @param row The index of the row.
+    * @param param The index of the parameter.
+    * @param value The value of the observation.
+    */
+   public void setValue(int row, int param, double value)
+   {
+      
+      this.checkWritable();
+      values[param][row] = value;
+      valid[param].set(row, Observation.isValidValue(value));
+      
+   }
+   
+   /**
+    * Replaces whether each value of a parameter is valid.
+    * 
+    * @param param The index of the parameter.
+    * @param validity Bitset with a set bit for each valid row.
+    */
+   public void setValidity(int param, BitSet validity)
+   {
+      
+      this.checkWritable();
+      valid[param] = (BitSet) validity.clone();
+      
+   }
+   
+   /**
+    * Replaces whether each value of every parameter is valid with the result of a set of
+    * rules, evaluating each column in bulk.
+    * 
+    * @param rules The rules to evaluate.
+    */
+   public void applyRules(ValidityRules rules)
+   {
+      
+      this.checkWritable();
+      
+      for (int p = 0; p < paramIds.length; ++p)
+      {
+         valid[p] = rules.evaluate(paramIds[p], values[p], size);
+      }
+      
+   }
+   
+   /**
+    * Returns a copy of whether each value of a parameter is valid.
+    * 
+    * @param param The index of the parameter.
+    * @return BitSet with a set bit for each valid row
+    */
+   public BitSet getValidity(int param)
+   {
+      //clone() may trim the original's words, so it is not used on a store being read by many threads
+      return BitSet.valueOf(valid[param].toLongArray());
+   }
+   
+   /**
+    * Returns the number of rows held.
+    * 
+    * @return int size
+    */
+   public int size()
+   {
+      return size;
+   }
+   
+   /**
+    * Stops the store from being changed any further.
+    */
+   public void seal()
+   {
+      sealed = true;
+   }
+   
+   /**
+    * Returns whether the store can no longer be changed.
+    * 
+    * @return boolean sealed
+    */
+   public boolean isSealed()
+   {
+      return sealed;
+   }
+   
+   /**
+    * Throws an exception if the store has been sealed.
+    * 
+    * @throws IllegalStateException In case the store has been sealed.
+    */
+   private void checkWritable()
+   {
+      
+      if (sealed)
+      {
+         throw new IllegalStateException("Observations can no longer be changed");
+      }
+      
+   }
+   
+   /**
+    * Returns about how many bytes of heap the rows held take up. Station IDs are held once
+    * by the shared dictionary and are not counted.
+    * 
+    * @return long estimated bytes
+    */
+   public long estimateBytes()
+   {
+      return (long) stationColumn.length * (Integer.BYTES + paramIds.length * Double.BYTES)
+               + (long) paramIds.length * stationColumn.length / Byte.SIZE;
+   }
+   
+   /**
+    * Returns the number of parameters held.
+    * 
+    * @return int number of parameters
+    */
+   public int getParamCount()
+   {
+      return paramIds.length;
+   }
+   
+   /**
+    * Returns the name of a parameter.
+    * 
+    * @param param The index of the parameter.
+    * @return String parameter name
+    */
+   public String getParamId(int param)
+   {
+      return paramIds[param];
+   }
+   
+   /**
+    * Returns the index of a parameter, or -1 if it is not held.
+    * 
+    * @param paramId The name of the parameter.
+    * @return int index of paramId
+    */
+   public int indexOf(String paramId)
+   {
+      
+      for (int p = 0; p < paramIds.length; ++p)
+      {
+         if (paramIds[p].equals(paramId))
+         {
+            return p;
+         }
+      }
+      
+      return -1;
+      
+   }
+   
+   /**
+    * Returns the value of a parameter for a row.
+    * 
+    * @param row The index of the row.
+    * @param param The index of the parameter.
+    * @return double value
+    */
+   public double getValue(int row, int param)
+   {
+      return values[param][row];
+   }
+   
+   /**
+    * Returns whether the value of a parameter for a row is valid.
+    * 
+    * @param row The index of the row.
+    * @param param The index of the parameter.
+    * @return boolean valid
+    */
+   public boolean isValid(int row, int param)
+   {
+      return valid[param].get(row);
+   }
+   
+   /**
+    * Returns the station code of a row.
+    * 
+    * @param row The index of the row.
+    * @return int station code
+    */
+   public int getStationCode(int row)
+   {
+      return stationColumn[row];
+   }
+   
+   /**
+    * Returns the station ID of a row.
+    * 
+    * @param row The index of the row.
+    * @return String station ID
+    */
+   public String getStid(int row)
+   {
+      return stations.decode(stationColumn[row]);
+   }
+   
+   /**
+    * Returns the dictionary the station column is encoded with.
+    * 
+    * @return StationDictionary stations
+    */
+   public StationDictionary getStations()
+   {
+      return stations;
+   }
+   
+   /**
+    * Returns a row's value for a parameter as an Observation.
+    * 
+    * @param row The index of the row.
+    * @param param The index of the parameter.
+    * @return Observation for the row and parameter
+    */
+   public Observation getObservation(int row, int param)
+   {
+      return new Observation(values[param][row], stationColumn[row], valid[param].get(row));
+   }
+   
+}
@@ -0,0 +1,60 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the ObservationStore class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ObservationStoreTest
+{
+   
+   @Test
+   /**
+    * Tests adding rows, setting values, and reading them back.
+    */
+   public void testAddRow() {
+      
+      ObservationStore test = new ObservationStore("TAIR", "SRAD");
+      
+      int row = test.addRow("MIAM");
+      test.setValue(row, 0, 33.5);
+      test.setValue(row, 1, -996);
+      
+      Assert.assertEquals(1, test.size());
+      Assert.assertEquals(1, test.indexOf("SRAD"));
+      Assert.assertEquals(-1, test.indexOf("TA9M"));
+      Assert.assertEquals(test.getValue(row, 0), 33.5, .1);
+      Assert.assertTrue(test.isValid(row, 0));
+      Assert.assertFalse(test.isValid(row, 1));
+      Assert.assertTrue(test.getStid(row).equals("MIAM"));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that the store grows past its initial size and shares station IDs.
+    */
+   public void testGrow() {
+      
+      ObservationStore test = new ObservationStore("TAIR");
+      
+      for (int i = 0; i < 1000; ++i)
+      {
+         int row = test.addRow(i % 2 == 0 ? "NRMN" : "MIAM");
+         test.setValue(row, 0, i);
+      }
+      
+      Assert.assertEquals(1000, test.size());
+      Assert.assertTrue(test.getStations() == StationDictionary.shared());
+      Assert.assertEquals(test.getStationCode(0), test.getStationCode(998));
+      Assert.assertNotEquals(test.getStationCode(0), test.getStationCode(1));
+      Assert.assertEquals(test.getValue(999, 0), 999.0, .1);
+      Assert.assertTrue(test.getStid(998).equals("NRMN"));
+      
+   }
+
+}
@@ -0,0 +1,184 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Accumulates the statistics of an interval with many stations by splitting its rows into
+ * chunks that are accumulated on a fork-join pool and then merged in row order. The result
+ * is exactly the same as a single pass, including which station is reported when values
+ * tie for the minimum or maximum.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ParallelAggregator
+{
+   
+   /**
+    * Number of rows accumulated by one task when none is given.
+    */
+   public static final int DEFAULT_CHUNK_ROWS = 16 * StatisticsAccumulator.BLOCK_SIZE;
+   
+   /**
+    * Accumulates a range of rows, splitting it in two while it is longer than chunkRows.
+    */
+   private static final class Chunk extends RecursiveTask<StatisticsAccumulator>
+   {
+      
+      /**
+       * Version of the serialized form.
+       */
+      private static final long serialVersionUID = 1L;
+      
+      /**
+       * The rows accumulated.
+       */
+      private final ObservationStore observations;
+      
+      /**
+       * First row of the range.
+       */
+      private final int from;
+      
+      /**
+       * Row after the last of the range.
+       */
+      private final int to;
+      
+      /**
+       * Most rows accumulated without splitting.
+       */
+      private final int chunkRows;
+      
+      /**
+       * Constructor, initializes a task for a range of rows.
+       * 
+       * @param observations The rows accumulated.
+       * @param from The first row, which must start a block.
+       * @param to The row after the last.
+       * @param chunkRows The most rows accumulated without splitting.
+       */
+      private Chunk(ObservationStore observations, int from, int to, int chunkRows)
+      {
+         this.observations = observations;
+         this.from = from;
+         this.to = to;
+         this.chunkRows = chunkRows;
+      }
+      
+      /**
+       * Accumulates the range, or the two halves of it on separate threads.
+       * 
+       * @return StatisticsAccumulator for the range
+       */
+      @Override
+      protected StatisticsAccumulator compute()
+      {
+         
+         if (to - from <= chunkRows)
+         {
+            return accumulate(observations, from, to);
+         }
+         
+         //splits on a block boundary so the halves can be merged exactly
+         int blocks = (to - from + StatisticsAccumulator.BLOCK_SIZE - 1) / StatisticsAccumulator.BLOCK_SIZE;
+         int middle = from + blocks / 2 * StatisticsAccumulator.BLOCK_SIZE;
+         
+         Chunk first = new Chunk(observations, from, middle, chunkRows);
+         first.fork();
+         StatisticsAccumulator second = new Chunk(observations, middle, to, chunkRows).compute();
+         
+         StatisticsAccumulator result = first.join();
+         result.merge(second);
+         
+         return result;
+         
+      }
+      
+   }
+   
+   /**
+    * Pool the chunks run on.
+    */
+   private final ForkJoinPool pool;
+   
+   /**
+    * Most rows accumulated by one task.
+    */
+   private final int chunkRows;
+   
+   /**
+    * Constructor, runs chunks of DEFAULT_CHUNK_ROWS on the common pool.
+    */
+   public ParallelAggregator()
+   {
+      this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_ROWS);
+   }
+   
+   /**
+    * Constructor, initializes the pool and chunk size.
+    * 
+    * @param pool The pool the chunks run on.
+    * @param chunkRows The most rows accumulated by one task, a multiple of
+    *           StatisticsAccumulator.BLOCK_SIZE.
+    */
+   public ParallelAggregator(ForkJoinPool pool, int chunkRows)
+   {
+      
+      if (chunkRows <= 0 || chunkRows % StatisticsAccumulator.BLOCK_SIZE != 0)
+      {
+         throw new IllegalArgumentException("Chunk rows must be a positive multiple of "
+                  + StatisticsAccumulator.BLOCK_SIZE + ": " + chunkRows);
+      }
+      
+      this.pool = pool;
+      this.chunkRows = chunkRows;
+      
+   }
+   
+   /**
+    * Accumulates every row of a store. Stores of no more than one chunk are accumulated on
+    * the calling thread.
+    * 
+    * @param observations The observations to accumulate.
+    * @return StatisticsAccumulator holding every column of observations
+    */
+   public StatisticsAccumulator aggregate(ObservationStore observations)
+   {
+      
+      if (observations.size() <= chunkRows)
+      {
+         return accumulate(observations, 0, observations.size());
+      }
+      
+      return pool.invoke(new Chunk(observations, 0, observations.size(), chunkRows));
+      
+   }
+   
+   /**
+    * Accumulates a range of rows in a single pass.
+    * 
+    * @param observations The observations to accumulate.
+    * @param from The first row.
+    * @param to The row after the last.
+    * @return StatisticsAccumulator for the range
+    */
+   public static StatisticsAccumulator accumulate(ObservationStore observations, int from, int to)
+   {
+      
+      StatisticsAccumulator accumulator = new StatisticsAccumulator(observations.getParamCount());
+      
+      for (int i = from; i < to; ++i)
+      {
+         for (int p = 0; p < observations.getParamCount(); ++p)
+         {
+            accumulator.add(p, i, observations.getValue(i, p), observations.isValid(i, p));
+         }
+      }
+      
+      return accumulator;
+      
+   }
+   
+}
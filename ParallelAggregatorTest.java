@@ -0,0 +1,100 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the ParallelAggregator class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ParallelAggregatorTest
+{
+   
+   @Test
+   /**
+    * Tests that splitting a large interval across threads gives exactly the statistics of a
+    * single pass, including the rows reported for tied minimums and maximums.
+    */
+   public void testMatchesSinglePass() {
+      
+      Random random = new Random(16);
+      ObservationStore store = new ObservationStore("TAIR", "SRAD");
+      
+      for (int i = 0; i < 50000; ++i)
+      {
+         int row = store.addRow("S" + i);
+         //leaves the first block of SRAD invalid and many values tied
+         store.setValue(row, 0, random.nextInt(20) == 0 ? -999 : Math.round(random.nextGaussian() * 100) / 10.0);
+         store.setValue(row, 1, i < 1500 ? -996 : random.nextDouble() * 1000);
+      }
+      
+      StatisticsAccumulator expected = ParallelAggregator.accumulate(store, 0, store.size());
+      ForkJoinPool pool = new ForkJoinPool(4);
+      StatisticsAccumulator actual = new ParallelAggregator(pool, StatisticsAccumulator.BLOCK_SIZE).aggregate(store);
+      pool.shutdown();
+      
+      for (int p = 0; p < 2; ++p)
+      {
+         Assert.assertEquals(actual.getTotal(p), expected.getTotal(p), 0);
+         Assert.assertEquals(actual.getMin(p), expected.getMin(p), 0);
+         Assert.assertEquals(actual.getMax(p), expected.getMax(p), 0);
+         Assert.assertEquals(expected.getMinRow(p), actual.getMinRow(p));
+         Assert.assertEquals(expected.getMaxRow(p), actual.getMaxRow(p));
+         Assert.assertEquals(expected.getCount(p), actual.getCount(p));
+         Assert.assertEquals(expected.getInvalidCount(p), actual.getInvalidCount(p));
+      }
+      
+   }
+
+   @Test
+   /**
+    * Tests that a parsed file large enough to be accumulated across threads gives the same
+    * statistics as a single pass over its rows.
+    * 
+    * @throws IOException
+    */
+   public void testLargeFile() throws IOException {
+      
+      List<String> lines = Files.readAllLines(Paths.get("data/201709251745.mdf"), StandardCharsets.US_ASCII);
+      StringBuilder contents = new StringBuilder();
+      
+      for (int i = 0; i < 3; ++i)
+      {
+         contents.append(lines.get(i)).append('\n');
+      }
+      
+      //cycles the ten stations of the file under new IDs, past two chunks of rows
+      int rows = 40000;
+      for (int i = 0; i < rows; ++i)
+      {
+         String row = lines.get(3 + i % 10);
+         String stid = String.format("%4s", Integer.toString(i, 36)).replace(' ', '0');
+         contents.append(row.substring(0, 3)).append(stid).append(row.substring(7)).append('\n');
+      }
+      contents.append(lines.get(lines.size() - 1)).append('\n');
+      
+      MapData test = new MapData (2017, 9, 25, 17, 45, "data");
+      test.parse(ByteBuffer.wrap(contents.toString().getBytes(StandardCharsets.US_ASCII)));
+      
+      ObservationStore observations = test.getObservations();
+      StatisticsAccumulator expected = ParallelAggregator.accumulate(observations, 0, observations.size());
+      int srad = observations.indexOf("SRAD");
+      
+      Assert.assertEquals(rows, observations.size());
+      Assert.assertEquals(test.getStatistics("SRAD", StatsType.TOTAL).getValue(), expected.getTotal(srad), 0);
+      Assert.assertEquals(test.getStatistics("SRAD", StatsType.TOTAL).getValue(), 8334.0 * rows / 10, .1);
+      Assert.assertTrue(test.getStatistics("TAIR", StatsType.MAXIMUM).getStid().equals("0009"));
+      
+   }
+   
+}
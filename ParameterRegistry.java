@@ -0,0 +1,211 @@
+import java.io.IOException;
+
+/**
+ * Holds the parameters requested from a file and maps the columns named in a file's
+ * header onto them, so that only the requested columns are parsed.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ParameterRegistry
+{
+   
+   /**
+    * Marker that represents station ID in the data.
+    */
+   public static final String STID = "STID";
+   
+   /**
+    * Slot given to a column that was not requested.
+    */
+   public static final int SKIP = -1;
+   
+   /**
+    * Slot given to the station ID column.
+    */
+   public static final int STATION = -2;
+   
+   /**
+    * Names of the requested parameters, indexed by slot.
+    */
+   private String[] paramIds;
+   
+   /**
+    * Constructor, initializes paramIds.
+    * 
+    * @param paramIds The names of the parameters to parse, such as TAIR or RELH.
+    */
+   public ParameterRegistry(String... paramIds)
+   {
+      
+      if (paramIds.length == 0)
+      {
+         throw new IllegalArgumentException("At least one parameter must be requested");
+      }
+      
+      for (int i = 0; i < paramIds.length; ++i)
+      {
+         for (int c = 0; c < i; ++c)
+         {
+            if (paramIds[i].equals(paramIds[c]))
+            {
+               throw new IllegalArgumentException("Parameter requested twice: " + paramIds[i]);
+            }
+         }
+      }
+      
+      this.paramIds = paramIds.clone();
+      
+   }
+   
+   /**
+    * Returns the number of requested parameters.
+    * 
+    * @return int number of parameters
+    */
+   public int size()
+   {
+      return paramIds.length;
+   }
+   
+   /**
+    * Returns the name of the parameter in a slot.
+    * 
+    * @param slot The slot of the parameter.
+    * @return String parameter name
+    */
+   public String getParamId(int slot)
+   {
+      return paramIds[slot];
+   }
+   
+   /**
+    * Returns the names of all requested parameters, in slot order.
+    * 
+    * @return String[] parameter names
+    */
+   public String[] getParamIds()
+   {
+      return paramIds.clone();
+   }
+   
+   /**
+    * Returns the slot of a parameter, or SKIP if it was not requested.
+    * 
+    * @param paramId The name of the parameter.
+    * @return int slot of paramId
+    */
+   public int indexOf(String paramId)
+   {
+      
+      for (int i = 0; i < paramIds.length; ++i)
+      {
+         if (paramIds[i].equals(paramId))
+         {
+            return i;
+         }
+      }
+      
+      return SKIP;
+      
+   }
+   
+   /**
+    * Reads the column names from a file's header line and returns the slot for each column:
+    * the parameter's slot if it was requested, STATION for the station ID, and SKIP
+    * otherwise. The length of the result is the number of columns in the file.
+    * 
+    * @param headerLine The line of the file holding the column names.
+    * @return int[] slot for each column
+    * @throws IOException In case a requested parameter or the station ID is not in the header.
+    */
+   public int[] mapColumns(String headerLine) throws IOException
+   {
+      
+      int[] slots = new int[headerLine.length() / 2 + 1];
+      boolean[] found = new boolean[paramIds.length];
+      boolean stationFound = false;
+      int column = 0;
+      int length = headerLine.length();
+      int i = 0;
+      
+      while (i < length)
+      {
+         
+         //skips the padding in front of the next column name
+         while (i < length && headerLine.charAt(i) == ' ')
+         {
+            ++i;
+         }
+         
+         if (i == length)
+         {
+            break;
+         }
+         
+         int begin = i;
+         while (i < length && headerLine.charAt(i) != ' ')
+         {
+            ++i;
+         }
+         
+         slots[column] = SKIP;
+         
+         if (matches(headerLine, begin, i, STID))
+         {
+            slots[column] = STATION;
+            stationFound = true;
+         }
+         else
+         {
+            for (int p = 0; p < paramIds.length; ++p)
+            {
+               if (matches(headerLine, begin, i, paramIds[p]))
+               {
+                  slots[column] = p;
+                  found[p] = true;
+               }
+            }
+         }
+         
+         ++column;
+         
+      }
+      
+      if (!stationFound)
+      {
+         throw new IOException("Missing " + STID + " in parameter header");
+      }
+      
+      for (int p = 0; p < paramIds.length; ++p)
+      {
+         if (!found[p])
+         {
+            throw new IOException("Missing " + paramIds[p] + " in parameter header");
+         }
+      }
+      
+      int[] result = new int[column];
+      System.arraycopy(slots, 0, result, 0, column);
+      
+      return result;
+      
+   }
+   
+   /**
+    * Determines whether the characters of a line between begin and end spell out a name.
+    * 
+    * @param line The line holding the token.
+    * @param begin Index of the first character of the token.
+    * @param end Index after the last character of the token.
+    * @param name The name to compare to.
+    * @return boolean true if the token is name, false if not
+    */
+   private static boolean matches(String line, int begin, int end, String name)
+   {
+      return end - begin == name.length() && line.startsWith(name, begin);
+   }
+   
+}
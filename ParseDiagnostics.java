@@ -0,0 +1,189 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records the problems found while parsing one file: rows that were skipped because their
+ * number of columns does not match the header, and values that could not be read as
+ * numbers and were kept as invalid. Only the first MAX_MESSAGES problems are described, but
+ * every one is counted, and no message is built once the limit is reached, so a badly
+ * corrupted file cannot use up the heap or slow the parse. Once sealed by the snapshot
+ * that holds them, diagnostics can no longer be changed.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ParseDiagnostics
+{
+   
+   /**
+    * Largest number of problems described.
+    */
+   public static final int MAX_MESSAGES = 100;
+   
+   /**
+    * Number of rows skipped.
+    */
+   private int skippedRows;
+   
+   /**
+    * Number of values kept as invalid because they could not be read.
+    */
+   private int flaggedValues;
+   
+   /**
+    * Descriptions of the first problems found, each starting with its line number.
+    */
+   private final List<String> messages = new ArrayList<>();
+   
+   /**
+    * Whether the diagnostics can no longer be changed.
+    */
+   private boolean sealed;
+   
+   /**
+    * Constructor, starts with no problems recorded.
+    */
+   public ParseDiagnostics()
+   {
+   }
+   
+   /**
+    * Constructor, for the problems of an interval loaded from a MesonetArchive, which keeps
+    * their counts but not their descriptions.
+    * 
+    * @param skippedRows The number of rows skipped.
+    * @param flaggedValues The number of values kept as invalid because they could not be read.
+    */
+   public ParseDiagnostics(int skippedRows, int flaggedValues)
+   {
+      this.skippedRows = skippedRows;
+      this.flaggedValues = flaggedValues;
+   }
+   
+   /**
+    * Records a row that was skipped because it has the wrong number of columns.
+    * 
+    * @param line The line number of the row in the file.
+    * @param expectedColumns The number of columns in the header.
+    * @param foundColumns The number of columns in the row.
+    */
+   public void rowSkipped(int line, int expectedColumns, int foundColumns)
+   {
+      
+      this.checkWritable();
+      ++skippedRows;
+      
+      if (this.isDescribing())
+      {
+         messages.add("line " + line + ": skipped row, expected " + expectedColumns + " columns but found "
+                  + foundColumns);
+      }
+      
+   }
+   
+   /**
+    * Records a value that could not be read and was kept as invalid. Its text is only read
+    * from the reader while fewer than MAX_MESSAGES have been added.
+    * 
+    * @param line The line number of the row in the file.
+    * @param paramId The name of the parameter of the value.
+    * @param reader Reader positioned at the value.
+    */
+   public void valueFlagged(int line, String paramId, MdfReader reader)
+   {
+      
+      this.checkWritable();
+      ++flaggedValues;
+      
+      if (this.isDescribing())
+      {
+         messages.add("line " + line + ": " + paramId + " value \"" + reader.fieldAsString() + "\" is not a number");
+      }
+      
+   }
+   
+   /**
+    * Returns whether another problem would still be described.
+    * 
+    * @return boolean true if fewer than MAX_MESSAGES have been added
+    */
+   private boolean isDescribing()
+   {
+      return messages.size() < MAX_MESSAGES;
+   }
+   
+   /**
+    * Stops the diagnostics from being changed any further.
+    */
+   public void seal()
+   {
+      sealed = true;
+   }
+   
+   /**
+    * Throws if the diagnostics have been sealed.
+    */
+   private void checkWritable()
+   {
+      
+      if (sealed)
+      {
+         throw new IllegalStateException("Diagnostics can no longer be changed");
+      }
+      
+   }
+   
+   /**
+    * Returns whether no problems were found.
+    * 
+    * @return boolean true if every row was read as is
+    */
+   public boolean isClean()
+   {
+      return skippedRows == 0 && flaggedValues == 0;
+   }
+   
+   /**
+    * Returns the number of rows skipped.
+    * 
+    * @return int skipped rows
+    */
+   public int getSkippedRows()
+   {
+      return skippedRows;
+   }
+   
+   /**
+    * Returns the number of values kept as invalid because they could not be read.
+    * 
+    * @return int flagged values
+    */
+   public int getFlaggedValues()
+   {
+      return flaggedValues;
+   }
+   
+   /**
+    * Returns descriptions of the first MAX_MESSAGES problems found, in the order found.
+    * 
+    * @return List of messages
+    */
+   public List<String> getMessages()
+   {
+      return Collections.unmodifiableList(messages);
+   }
+   
+   /**
+    * Returns a summary of the problems found.
+    * 
+    * @return String holding the counts of skipped rows and flagged values
+    */
+   public String toString()
+   {
+      return String.format("%d rows skipped, %d values flagged", skippedRows, flaggedValues);
+   }
+   
+}
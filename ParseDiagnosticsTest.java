@@ -0,0 +1,153 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the ParseDiagnostics class and parsing damaged files.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ParseDiagnosticsTest
+{
+   
+   @Test
+   /**
+    * Tests that an undamaged file parses with no problems recorded, and that the recorded
+    * problems of a snapshot cannot be changed.
+    * 
+    * @throws IOException
+    */
+   public void testClean() throws IOException {
+      
+      MapData test = new MapData (2017, 9, 25, 17, 45, "data");
+      
+      Assert.assertNull(test.getDiagnostics());
+      test.parseFile();
+      
+      Assert.assertTrue(test.getDiagnostics().isClean());
+      Assert.assertEquals(0, test.getDiagnostics().getMessages().size());
+      Assert.assertTrue(test.getSnapshot().getDiagnostics() == test.getDiagnostics());
+      
+      try
+      {
+         test.getDiagnostics().rowSkipped(4, 24, 3);
+         Assert.fail("Expected IllegalStateException");
+      }
+      catch (IllegalStateException e)
+      {
+         Assert.assertTrue(test.getDiagnostics().isClean());
+      }
+      
+   }
+   
+   @Test
+   /**
+    * Tests that short and long rows are skipped, a value that is not a number is kept as
+    * invalid, and every other row still lines up with the header.
+    * 
+    * @throws IOException
+    */
+   public void testDamagedRows() throws IOException {
+      
+      List<String> lines = Files.readAllLines(Paths.get("data/201709251745.mdf"), StandardCharsets.US_ASCII);
+      //ADAX loses the end of its row, ALTU's TAIR is garbled, and APAC gains a column
+      lines.set(4, lines.get(4).substring(0, 40));
+      lines.set(5, lines.get(5).replace(" 33.7 ", "  abc "));
+      lines.set(8, lines.get(8) + "    7.0");
+      
+      MapData test = new MapData (2017, 9, 25, 17, 45, "data");
+      test.parse(ByteBuffer.wrap((String.join("\n", lines) + "\n").getBytes(StandardCharsets.US_ASCII)));
+      
+      ParseDiagnostics diagnostics = test.getDiagnostics();
+      ObservationStore observations = test.getObservations();
+      
+      Assert.assertFalse(diagnostics.isClean());
+      Assert.assertEquals(2, diagnostics.getSkippedRows());
+      Assert.assertEquals(1, diagnostics.getFlaggedValues());
+      Assert.assertTrue(diagnostics.getMessages().get(0).startsWith("line 5: skipped row"));
+      Assert.assertTrue(diagnostics.getMessages().get(1).equals("line 6: TAIR value \"abc\" is not a number"));
+      Assert.assertTrue(diagnostics.getMessages().get(2).startsWith("line 9: skipped row"));
+      
+      Assert.assertEquals(8, observations.size());
+      Assert.assertTrue(observations.getStid(1).equals("ALTU"));
+      Assert.assertFalse(observations.isValid(1, observations.indexOf("TAIR")));
+      Assert.assertEquals(observations.getValue(1, observations.indexOf("SRAD")), 851, .1);
+      Assert.assertTrue(observations.getStid(2).equals("ALV2"));
+      Assert.assertEquals(1, test.getSnapshot().getInvalidCount("TAIR"));
+      Assert.assertEquals(test.getStatistics("TAIR", StatsType.MAXIMUM).getValue(), 35.3, .1);
+      Assert.assertTrue(test.getStatistics("TAIR", StatsType.MAXIMUM).getStid().equals("BESS"));
+      
+      //the skipped rows were removed before their values were accumulated
+      Assert.assertEquals(7, test.getStatistics("TAIR", StatsType.AVERAGE).getNumberOfReportingStations());
+      
+   }
+   
+   @Test
+   /**
+    * Tests that only the first MAX_MESSAGES problems are described but all are counted.
+    */
+   public void testMessageLimit() {
+      
+      ParseDiagnostics test = new ParseDiagnostics();
+      
+      for (int i = 0; i < ParseDiagnostics.MAX_MESSAGES + 50; ++i)
+      {
+         test.rowSkipped(i + 4, 24, 3);
+      }
+      
+      Assert.assertEquals(ParseDiagnostics.MAX_MESSAGES + 50, test.getSkippedRows());
+      Assert.assertEquals(ParseDiagnostics.MAX_MESSAGES, test.getMessages().size());
+      Assert.assertTrue(test.toString().equals("150 rows skipped, 0 values flagged"));
+      Assert.assertTrue(test.getMessages().get(0).equals("line 4: skipped row, expected 24 columns but found 3"));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that a file whose rows are all skipped, or mostly skipped, reports NULL
+    * statistics instead of failing.
+    * 
+    * @throws IOException
+    */
+   public void testSkippedRowsAreMissing() throws IOException {
+      
+      List<String> lines = Files.readAllLines(Paths.get("data/201709251745.mdf"), StandardCharsets.US_ASCII);
+      for (int i = 3; i < lines.size() - 1; ++i)
+      {
+         lines.set(i, lines.get(i).substring(0, 40));
+      }
+      
+      MapData test = new MapData (2017, 9, 25, 17, 45, "data");
+      test.parse(ByteBuffer.wrap((String.join("\n", lines) + "\n").getBytes(StandardCharsets.US_ASCII)));
+      
+      Assert.assertEquals(10, test.getDiagnostics().getSkippedRows());
+      Assert.assertEquals(0, test.getObservations().size());
+      Assert.assertTrue(test.getStatistics("TAIR", StatsType.MAXIMUM).getStid().equals("NULL"));
+      Assert.assertTrue(test.getStatistics("TAIR", StatsType.MEDIAN).getStid().equals("NULL"));
+      Assert.assertTrue(test.toString().contains("at NULL"));
+      
+      //five skipped rows and five missing SRAD values make ten missing SRAD observations
+      lines = Files.readAllLines(Paths.get("data/201709251745.mdf"), StandardCharsets.US_ASCII);
+      for (int i = 3; i < 8; ++i)
+      {
+         lines.set(i, lines.get(i).substring(0, 40));
+         lines.set(i + 5, lines.get(i + 5).replaceFirst(" 8\\d\\d ", "-996 "));
+      }
+      test.parse(ByteBuffer.wrap((String.join("\n", lines) + "\n").getBytes(StandardCharsets.US_ASCII)));
+      
+      Assert.assertEquals(5, test.getDiagnostics().getSkippedRows());
+      Assert.assertEquals(5, test.getSnapshot().getInvalidCount("SRAD"));
+      Assert.assertTrue(test.getStatistics("SRAD", StatsType.MAXIMUM).getStid().equals("NULL"));
+      Assert.assertEquals(test.getStatistics("TAIR", StatsType.MAXIMUM).getValue(), 35.3, .1);
+      
+   }
+   
+}
@@ -0,0 +1,454 @@
+/**
+ * Estimates quantiles, such as the median, of a stream of values in bounded memory. Values
+ * are counted in buckets whose bounds grow geometrically, so every quantile is returned to
+ * within a fixed relative error of a true value. Sketches built separately, such as one per
+ * interval or per thread, can be merged into one that is the same as if every value had been
+ * added to it.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class QuantileSketch
+{
+   
+   /**
+    * Relative error used when none is given.
+    */
+   public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+   
+   /**
+    * Number of buckets kept for each sign when none is given.
+    */
+   public static final int DEFAULT_MAX_BUCKETS = 2048;
+   
+   /**
+    * Values closer to zero than this are counted as zero.
+    */
+   private static final double MIN_INDEXABLE = 1e-9;
+   
+   /**
+    * Counts of values falling in a run of consecutive bucket indexes. Once more than maxBuckets
+    * indexes are needed, the lowest are folded into the lowest one kept.
+    */
+   private static final class Store
+   {
+      
+      /**
+       * Count of each bucket, counts[i] being that of bucket offset + i.
+       */
+      private long[] counts = new long[0];
+      
+      /**
+       * Index of the bucket held by counts[0].
+       */
+      private int offset;
+      
+      /**
+       * Lowest index holding a value.
+       */
+      private int minIndex = Integer.MAX_VALUE;
+      
+      /**
+       * Highest index holding a value.
+       */
+      private int maxIndex = Integer.MIN_VALUE;
+      
+      /**
+       * Number of values held.
+       */
+      private long total;
+      
+      /**
+       * Most buckets held at once.
+       */
+      private final int maxBuckets;
+      
+      /**
+       * Constructor, initializes an empty store.
+       * 
+       * @param maxBuckets The most buckets held at once.
+       */
+      private Store(int maxBuckets)
+      {
+         this.maxBuckets = maxBuckets;
+      }
+      
+      /**
+       * Adds a count to a bucket.
+       * 
+       * @param index The index of the bucket.
+       * @param count The count to add.
+       */
+      private void add(int index, long count)
+      {
+         
+         int low = Math.min(minIndex, index);
+         int high = Math.max(maxIndex, index);
+         
+         if ((long) high - low + 1 > maxBuckets)
+         {
+            low = high - maxBuckets + 1;
+         }
+         
+         if (total == 0 || low < offset || high >= offset + counts.length)
+         {
+            this.relayout(low, high);
+         }
+         
+         index = Math.max(index, low);
+         counts[index - offset] += count;
+         minIndex = Math.min(minIndex, index);
+         maxIndex = Math.max(maxIndex, index);
+         total += count;
+         
+      }
+      
+      /**
+       * Moves the counts into a new array able to hold every index from low to high, folding
+       * any below low into low.
+       * 
+       * @param low The lowest index to hold.
+       * @param high The highest index to hold.
+       */
+      private void relayout(int low, int high)
+      {
+         
+         int length = (int) Math.min(maxBuckets, Math.max(2L * counts.length, (long) high - low + 1));
+         long[] moved = new long[length];
+         
+         //splits any spare room between both ends so values drifting either way rarely move it again
+         int newOffset = low - (length - (high - low + 1)) / 2;
+         
+         for (int i = minIndex; total > 0 && i <= maxIndex; ++i)
+         {
+            moved[Math.max(i, low) - newOffset] += counts[i - offset];
+         }
+         
+         counts = moved;
+         offset = newOffset;
+         
+         if (total > 0)
+         {
+            minIndex = Math.max(minIndex, low);
+         }
+         
+      }
+      
+      /**
+       * Returns the count of a bucket.
+       * 
+       * @param index The index of the bucket.
+       * @return long count
+       */
+      private long get(int index)
+      {
+         return counts[index - offset];
+      }
+      
+   }
+   
+   /**
+    * Relative error of each quantile returned.
+    */
+   private final double relativeAccuracy;
+   
+   /**
+    * Ratio of the upper to the lower bound of each bucket.
+    */
+   private final double gamma;
+   
+   /**
+    * Natural logarithm of gamma.
+    */
+   private final double logGamma;
+   
+   /**
+    * Counts of positive values.
+    */
+   private final Store positive;
+   
+   /**
+    * Counts of negative values, by magnitude.
+    */
+   private final Store negative;
+   
+   /**
+    * Number of values counted as zero.
+    */
+   private long zeroCount;
+   
+   /**
+    * Smallest value added.
+    */
+   private double min = Double.POSITIVE_INFINITY;
+   
+   /**
+    * Largest value added.
+    */
+   private double max = Double.NEGATIVE_INFINITY;
+   
+   /**
+    * Constructor, initializes an empty sketch with a 1% relative error.
+    */
+   public QuantileSketch()
+   {
+      this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKETS);
+   }
+   
+   /**
+    * Constructor, initializes an empty sketch.
+    * 
+    * @param relativeAccuracy The relative error of each quantile returned, between 0 and 1.
+    * @param maxBuckets The most buckets kept for each sign. Past this, accuracy is lost
+    *           for the values closest to zero first.
+    */
+   public QuantileSketch(double relativeAccuracy, int maxBuckets)
+   {
+      
+      if (!(relativeAccuracy > 0 && relativeAccuracy < 1))
+      {
+         throw new IllegalArgumentException("Relative accuracy must be between 0 and 1: " + relativeAccuracy);
+      }
+      
+      if (maxBuckets < 1)
+      {
+         throw new IllegalArgumentException("Too few buckets: " + maxBuckets);
+      }
+      
+      this.relativeAccuracy = relativeAccuracy;
+      this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+      this.logGamma = Math.log(gamma);
+      this.positive = new Store(maxBuckets);
+      this.negative = new Store(maxBuckets);
+      
+   }
+   
+   /**
+    * Adds a value.
+    * 
+    * @param value The value to add.
+    */
+   public void add(double value)
+   {
+      
+      if (Double.isNaN(value))
+      {
+         throw new IllegalArgumentException("Cannot add NaN");
+      }
+      
+      if (value > MIN_INDEXABLE)
+      {
+         positive.add(this.index(value), 1);
+      }
+      else if (value < -MIN_INDEXABLE)
+      {
+         negative.add(this.index(-value), 1);
+      }
+      else
+      {
+         ++zeroCount;
+      }
+      
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+      
+   }
+   
+   /**
+    * Adds the valid values of one column of a store.
+    * 
+    * @param observations The observations to add.
+    * @param param The column of the parameter to add.
+    */
+   public void add(ObservationStore observations, int param)
+   {
+      
+      for (int i = 0; i < observations.size(); ++i)
+      {
+         if (observations.isValid(i, param))
+         {
+            this.add(observations.getValue(i, param));
+         }
+      }
+      
+   }
+   
+   /**
+    * Adds every value of another sketch to this one.
+    * 
+    * @param other A sketch with the same relative accuracy.
+    */
+   public void merge(QuantileSketch other)
+   {
+      
+      if (other.gamma != gamma)
+      {
+         throw new IllegalArgumentException("Cannot merge sketches of different accuracy");
+      }
+      
+      for (int i = other.positive.minIndex; other.positive.total > 0 && i <= other.positive.maxIndex; ++i)
+      {
+         long count = other.positive.get(i);
+         if (count > 0)
+         {
+            positive.add(i, count);
+         }
+      }
+      
+      for (int i = other.negative.minIndex; other.negative.total > 0 && i <= other.negative.maxIndex; ++i)
+      {
+         long count = other.negative.get(i);
+         if (count > 0)
+         {
+            negative.add(i, count);
+         }
+      }
+      
+      zeroCount += other.zeroCount;
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+      
+   }
+   
+   /**
+    * Returns the index of the bucket holding a positive magnitude.
+    * 
+    * @param magnitude A value above MIN_INDEXABLE.
+    * @return int index
+    */
+   private int index(double magnitude)
+   {
+      return (int) Math.ceil(Math.log(magnitude) / logGamma);
+   }
+   
+   /**
+    * Returns the value standing for every magnitude in a bucket, which is within the relative
+    * accuracy of each of them.
+    * 
+    * @param index The index of the bucket.
+    * @return double value
+    */
+   private double value(int index)
+   {
+      return 2 * Math.pow(gamma, index) / (gamma + 1);
+   }
+   
+   /**
+    * Returns an estimate of a quantile of the values added.
+    * 
+    * @param quantile The quantile, from 0 for the smallest value to 1 for the largest.
+    * @return double estimate, or NaN if nothing has been added
+    */
+   public double getQuantile(double quantile)
+   {
+      
+      if (!(quantile >= 0 && quantile <= 1))
+      {
+         throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+      }
+      
+      long count = this.getCount();
+      
+      if (count == 0)
+      {
+         return Double.NaN;
+      }
+      
+      long rank = (long) (quantile * (count - 1));
+      double result;
+      
+      if (rank < negative.total)
+      {
+         
+         //the most negative values have the highest indexes
+         long seen = 0;
+         int i = negative.maxIndex;
+         while ((seen += negative.get(i)) <= rank)
+         {
+            --i;
+         }
+         result = -this.value(i);
+         
+      }
+      else if (rank < negative.total + zeroCount)
+      {
+         result = 0;
+      }
+      else
+      {
+         
+         long seen = negative.total + zeroCount;
+         int i = positive.minIndex;
+         while ((seen += positive.get(i)) <= rank)
+         {
+            ++i;
+         }
+         result = this.value(i);
+         
+      }
+      
+      return Math.max(min, Math.min(max, result));
+      
+   }
+   
+   /**
+    * Returns an estimate of the quantile a type of statistic stands for.
+    * 
+    * @param type MEDIAN, PERCENTILE_95, or PERCENTILE_99.
+    * @return double estimate, or NaN if nothing has been added
+    */
+   public double getQuantile(StatsType type)
+   {
+      
+      if (!type.isQuantile())
+      {
+         throw new IllegalArgumentException(type + " is not a quantile");
+      }
+      
+      return this.getQuantile(type.getQuantile());
+      
+   }
+   
+   /**
+    * Returns the number of values added.
+    * 
+    * @return long count
+    */
+   public long getCount()
+   {
+      return positive.total + negative.total + zeroCount;
+   }
+   
+   /**
+    * Returns the smallest value added.
+    * 
+    * @return double minimum, or positive infinity if nothing has been added
+    */
+   public double getMin()
+   {
+      return min;
+   }
+   
+   /**
+    * Returns the largest value added.
+    * 
+    * @return double maximum, or negative infinity if nothing has been added
+    */
+   public double getMax()
+   {
+      return max;
+   }
+   
+   /**
+    * Returns the relative error of each quantile returned.
+    * 
+    * @return double relativeAccuracy
+    */
+   public double getRelativeAccuracy()
+   {
+      return relativeAccuracy;
+   }
+   
+}
@@ -0,0 +1,99 @@
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the QuantileSketch and Histogram classes.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class QuantileSketchTest
+{
+   
+   @Test
+   /**
+    * Tests that quantiles of mixed positive, negative, and zero values are within the
+    * relative accuracy of the true ones.
+    */
+   public void testAccuracy() {
+      
+      Random random = new Random(14);
+      double[] values = new double[10000];
+      QuantileSketch sketch = new QuantileSketch();
+      
+      for (int i = 0; i < values.length; ++i)
+      {
+         values[i] = i % 50 == 0 ? 0 : random.nextGaussian() * 20 + 10;
+         sketch.add(values[i]);
+      }
+      
+      Arrays.sort(values);
+      
+      for (double quantile : new double[] {0, .05, .25, .5, .95, .99, 1})
+      {
+         double expected = values[(int) (quantile * (values.length - 1))];
+         Assert.assertEquals(sketch.getQuantile(quantile), expected, Math.abs(expected) * .01 + 1e-9);
+      }
+      
+      Assert.assertEquals(10000, sketch.getCount());
+      Assert.assertEquals(sketch.getMin(), values[0], 0);
+      Assert.assertEquals(sketch.getMax(), values[values.length - 1], 0);
+      
+   }
+   
+   @Test
+   /**
+    * Tests that merging sketches matches one sketch of every value, and that the bucket
+    * limit keeps the largest values accurate.
+    */
+   public void testMerge() {
+      
+      QuantileSketch whole = new QuantileSketch();
+      QuantileSketch first = new QuantileSketch();
+      QuantileSketch second = new QuantileSketch(QuantileSketch.DEFAULT_RELATIVE_ACCURACY, 64);
+      
+      for (int i = 1; i <= 1000; ++i)
+      {
+         whole.add(i);
+         (i % 2 == 0 ? first : second).add(i);
+      }
+      
+      first.merge(second);
+      
+      Assert.assertEquals(first.getQuantile(StatsType.MEDIAN), whole.getQuantile(StatsType.MEDIAN), 0);
+      Assert.assertEquals(first.getQuantile(StatsType.PERCENTILE_99), whole.getQuantile(StatsType.PERCENTILE_99), 0);
+      Assert.assertEquals(second.getQuantile(StatsType.PERCENTILE_95), 950, 950 * .01);
+      Assert.assertTrue(Double.isNaN(new QuantileSketch().getQuantile(.5)));
+      
+   }
+   
+   @Test
+   /**
+    * Tests histogram buckets, merging, and quantiles.
+    */
+   public void testHistogram() {
+      
+      Histogram first = new Histogram(0, 100, 10);
+      Histogram second = new Histogram(0, 100, 10);
+      
+      for (int i = -5; i < 105; ++i)
+      {
+         (i % 2 == 0 ? first : second).add(i);
+      }
+      
+      first.merge(second);
+      
+      Assert.assertEquals(110, first.getTotal());
+      Assert.assertEquals(5, first.getUnderflow());
+      Assert.assertEquals(5, first.getOverflow());
+      Assert.assertEquals(10, first.getCount(3));
+      Assert.assertEquals(first.getBucketLower(3), 30.0, 0);
+      Assert.assertEquals(first.getQuantile(.5), 50.0, 1);
+      
+   }
+
+}
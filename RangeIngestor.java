@@ -0,0 +1,236 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Parses every 5 minute file in a directory between two times, spreading the files across
+ * a pool of worker threads.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class RangeIngestor
+{
+   
+   /**
+    * Number of minutes between two data files.
+    */
+   public static final int INTERVAL_MINUTES = 5;
+   
+   /**
+    * Number of seconds between two data files.
+    */
+   public static final long INTERVAL_SECONDS = INTERVAL_MINUTES * EpochTime.SECONDS_PER_MINUTE;
+   
+   /**
+    * Contains the directory where data is stored.
+    */
+   private String directory;
+   
+   /**
+    * Parameters parsed from each file.
+    */
+   private ParameterRegistry parameters;
+   
+   /**
+    * Number of worker threads parsing files.
+    */
+   private int threads;
+   
+   /**
+    * Number of files that may wait for a worker before submission blocks.
+    */
+   private int queueCapacity;
+   
+   /**
+    * Constructor that uses one worker per available core.
+    * 
+    * @param directory The file location for the data.
+    */
+   public RangeIngestor(String directory)
+   {
+      this(directory, Runtime.getRuntime().availableProcessors(), 4 * Runtime.getRuntime().availableProcessors());
+   }
+   
+   /**
+    * Constructor, initializes directory, threads, and queueCapacity.
+    * 
+    * @param directory The file location for the data.
+    * @param threads Number of worker threads parsing files.
+    * @param queueCapacity Number of files that may wait for a worker.
+    */
+   public RangeIngestor(String directory, int threads, int queueCapacity)
+   {
+      this(directory, threads, queueCapacity, new ParameterRegistry(MapData.SRAD_ID, MapData.TAIR_ID, MapData.TA9M_ID));
+   }
+   
+   /**
+    * Constructor, initializes directory, threads, queueCapacity, and the parameters parsed.
+    * 
+    * @param directory The file location for the data.
+    * @param threads Number of worker threads parsing files.
+    * @param queueCapacity Number of files that may wait for a worker.
+    * @param parameters The parameters to parse from each file.
+    */
+   public RangeIngestor(String directory, int threads, int queueCapacity, ParameterRegistry parameters)
+   {
+      
+      if (threads < 1 || queueCapacity < 1)
+      {
+         throw new IllegalArgumentException("threads and queueCapacity must be positive");
+      }
+      
+      this.directory = directory;
+      this.threads = threads;
+      this.queueCapacity = queueCapacity;
+      this.parameters = parameters;
+      
+   }
+   
+   /**
+    * Parses every file from start to end, both inclusive, and returns them in time order.
+    * Times with no file in the directory are skipped. The calendars hold the month number
+    * the same way MapData's constructor does.
+    * 
+    * @param start The date and time of the first interval.
+    * @param end The date and time of the last interval.
+    * @return List of parsed MapData, one per file found
+    * @throws IOException In case a file could not be read or is improperly formatted.
+    */
+   public List<MapData> ingest(GregorianCalendar start, GregorianCalendar end) throws IOException
+   {
+      return this.ingest(EpochTime.fromCalendar(start), EpochTime.fromCalendar(end));
+   }
+   
+   /**
+    * Parses every file from start to end, both inclusive, and returns them in time order.
+    * Times with no file in the directory are skipped.
+    * 
+    * @param start The date and time of the first interval, in seconds since 1970-01-01 UTC.
+    * @param end The date and time of the last interval, in seconds since 1970-01-01 UTC.
+    * @return List of parsed MapData, one per file found
+    * @throws IOException In case a file could not be read or is improperly formatted.
+    */
+   public List<MapData> ingest(long start, long end) throws IOException
+   {
+      return this.ingest(start, end, null);
+   }
+   
+   /**
+    * Parses every file from start to end, both inclusive, and returns them in time order.
+    * Each interval is also added to a station time-series index, in time order. Every
+    * interval is held until the range is finished, so long ranges are better passed to
+    * ingestEach.
+    * 
+    * @param start The date and time of the first interval, in seconds since 1970-01-01 UTC.
+    * @param end The date and time of the last interval, in seconds since 1970-01-01 UTC.
+    * @param index Index to add every interval to, or null.
+    * @return List of parsed MapData, one per file found
+    * @throws IOException In case a file could not be read or is improperly formatted.
+    */
+   public List<MapData> ingest(long start, long end, StationTimeSeriesIndex index) throws IOException
+   {
+      
+      List<MapData> results = new ArrayList<>();
+      
+      this.ingestEach(start, end, mapData -> {
+         results.add(mapData);
+         if (index != null)
+         {
+            index.add(mapData.getSnapshot());
+         }
+      });
+      
+      return results;
+      
+   }
+   
+   /**
+    * Parses every file from start to end, both inclusive, and passes each to a consumer in
+    * time order as soon as it and every earlier one are parsed. At most threads plus
+    * queueCapacity files are parsed ahead of the consumer, so memory stays bounded however
+    * long the range is, as long as the consumer does not keep the intervals. Times with no
+    * file in the directory are skipped.
+    * 
+    * @param start The date and time of the first interval, in seconds since 1970-01-01 UTC.
+    * @param end The date and time of the last interval, in seconds since 1970-01-01 UTC.
+    * @param consumer Called with each parsed interval on the calling thread.
+    * @throws IOException In case a file could not be read or is improperly formatted.
+    */
+   public void ingestEach(long start, long end, Consumer<? super MapData> consumer) throws IOException
+   {
+      
+      /*
+       * the bounded queue with caller-runs keeps at most queueCapacity files waiting,
+       * the submitting thread parses files itself whenever the workers fall behind.
+       */
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+               new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+      ArrayDeque<Future<MapData>> pending = new ArrayDeque<>();
+      
+      try
+      {
+         
+         for (long time = start; time <= end; time += INTERVAL_SECONDS)
+         {
+            
+            final MapData mapData = new MapData(EpochTime.year(time), EpochTime.month(time), EpochTime.day(time),
+                     EpochTime.hour(time), EpochTime.minute(time), directory, parameters);
+            
+            if (new File(mapData.getFileName()).isFile())
+            {
+               
+               //waits for the oldest file before parsing further ahead
+               if (pending.size() == threads + queueCapacity)
+               {
+                  consumer.accept(pending.poll().get());
+               }
+               
+               pending.add(executor.submit(() -> {
+                  mapData.parseFile();
+                  return mapData;
+               }));
+               
+            }
+            
+         }
+         
+         while (!pending.isEmpty())
+         {
+            consumer.accept(pending.poll().get());
+         }
+         
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         throw new InterruptedIOException("Interrupted while ingesting " + directory);
+      }
+      catch (ExecutionException e)
+      {
+         if (e.getCause() instanceof IOException)
+         {
+            throw (IOException) e.getCause();
+         }
+         throw new IOException("Failed to ingest " + directory, e.getCause());
+      }
+      finally
+      {
+         executor.shutdownNow();
+      }
+      
+   }
+   
+}
@@ -0,0 +1,123 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the RangeIngestor class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class RangeIngestorTest
+{
+   
+   /**
+    * Directory the files of a test are written to, or null if it writes none.
+    */
+   private MdfTestDirectory files;
+   
+   @After
+   /**
+    * Deletes the files of a test.
+    */
+   public void tearDown() {
+      
+      if (files != null)
+      {
+         files.delete();
+      }
+      
+   }
+   
+   @Test
+   /**
+    * Tests that ingest finds the one file in a range and skips times with no file.
+    * 
+    * @throws IOException
+    */
+   public void testIngest() throws IOException {
+      
+      RangeIngestor ingestor = new RangeIngestor("data", 2, 2);
+      
+      List<MapData> results = ingestor.ingest(new GregorianCalendar(2017, 9, 25, 17, 30),
+               new GregorianCalendar(2017, 9, 25, 18, 0));
+      
+      Assert.assertEquals(1, results.size());
+      Assert.assertEquals(results.get(0).getTairMax().getValue(), 35.3, .1);
+      Assert.assertEquals(results.get(0).getSradTotal().getValue(), 8334.0, .1);
+      
+   }
+   
+   @Test
+   /**
+    * Tests that a range with no files returns nothing.
+    * 
+    * @throws IOException
+    */
+   public void testIngestEmptyRange() throws IOException {
+      
+      RangeIngestor ingestor = new RangeIngestor("data");
+      
+      List<MapData> results = ingestor.ingest(new GregorianCalendar(2001, 1, 1, 0, 0),
+               new GregorianCalendar(2001, 1, 1, 1, 0));
+      
+      Assert.assertEquals(0, results.size());
+      
+   }
+
+   @Test
+   /**
+    * Tests that ingestEach passes intervals on in time order without parsing more than
+    * threads plus queueCapacity files ahead of the consumer.
+    * 
+    * @throws IOException
+    */
+   public void testIngestEach() throws IOException {
+      
+      files = new MdfTestDirectory("range");
+      long start = EpochTime.of(2017, 9, 25, 0, 0, 0);
+      int count = 30;
+      
+      for (int i = 0; i < count; ++i)
+      {
+         long time = start + i * RangeIngestor.INTERVAL_SECONDS;
+         Files.copy(Paths.get("data/201709251745.mdf"), files.file(time).toPath());
+      }
+      
+      RangeIngestor ingestor = new RangeIngestor(files.getPath(), 1, 1);
+      CountingMetrics metrics = new CountingMetrics();
+      List<Long> times = new ArrayList<>();
+      Metrics.set(metrics);
+      
+      try
+      {
+         
+         ingestor.ingestEach(start, start + 2 * count * RangeIngestor.INTERVAL_SECONDS, mapData -> {
+            times.add(mapData.getUTCEpochSecond());
+            Assert.assertTrue(metrics.getFilesParsed() <= times.size() + 2);
+            Assert.assertEquals(mapData.getTairMax().getValue(), 35.3, .1);
+         });
+         
+      }
+      finally
+      {
+         Metrics.set(null);
+      }
+      
+      Assert.assertEquals(count, times.size());
+      for (int i = 0; i < count; ++i)
+      {
+         Assert.assertEquals(start + i * RangeIngestor.INTERVAL_SECONDS, (long) times.get(i));
+      }
+      
+   }
+   
+}
@@ -0,0 +1,619 @@
+/**
+ * Keeps the minimum, maximum, average, total, and quantiles of a parameter over a sliding
+ * window of intervals, such as the last hour or the last day. Each new interval is added and the
+ * intervals that fall out of the window are dropped without rescanning the ones that remain.
+ * A quantile sketch is only built for each interval when the window is made to keep quantiles.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class RollingStatistics
+{
+   
+   /**
+    * Length of a one hour window in minutes.
+    */
+   public static final int HOUR = 60;
+   
+   /**
+    * Length of a twenty-four hour window in minutes.
+    */
+   public static final int DAY = 24 * 60;
+   
+   /**
+    * String holding the web site name Mesonet.
+    */
+   private static final String MESONET = "Mesonet";
+   
+   /**
+    * The minimum, maximum, total, count, and sketch of the valid values of one interval.
+    */
+   private static final class Interval
+   {
+      
+      /**
+       * Date and time of the interval, in seconds since 1970-01-01 UTC.
+       */
+      private long time;
+      
+      /**
+       * Smallest valid value.
+       */
+      private double min = Integer.MAX_VALUE;
+      
+      /**
+       * Code of the station the smallest valid value was taken at, or -1.
+       */
+      private int minStation = -1;
+      
+      /**
+       * Largest valid value.
+       */
+      private double max = Integer.MIN_VALUE;
+      
+      /**
+       * Code of the station the largest valid value was taken at, or -1.
+       */
+      private int maxStation = -1;
+      
+      /**
+       * Total of the valid values.
+       */
+      private double total;
+      
+      /**
+       * Number of valid values.
+       */
+      private int count;
+      
+      /**
+       * Sketch of the valid values, or null if quantiles are not kept.
+       */
+      private QuantileSketch sketch;
+      
+   }
+   
+   /**
+    * The parameter the statistics are kept for.
+    */
+   private String paramId;
+   
+   /**
+    * Whether a sketch of each interval is kept so that quantiles can be asked for.
+    */
+   private boolean quantiles;
+   
+   /**
+    * Length of the window in seconds.
+    */
+   private long windowSeconds;
+   
+   /**
+    * Date and time of each interval in the window, in seconds since 1970-01-01 UTC, indexed
+    * by sequence number modulo capacity.
+    */
+   private long[] times;
+   
+   /**
+    * Smallest valid value of each interval.
+    */
+   private double[] mins;
+   
+   /**
+    * Code of the station the smallest valid value of each interval was taken at, or -1.
+    */
+   private int[] minStations;
+   
+   /**
+    * Largest valid value of each interval.
+    */
+   private double[] maxes;
+   
+   /**
+    * Code of the station the largest valid value of each interval was taken at, or -1.
+    */
+   private int[] maxStations;
+   
+   /**
+    * Total of the valid values of each interval.
+    */
+   private double[] totals;
+   
+   /**
+    * Number of valid values of each interval.
+    */
+   private int[] counts;
+   
+   /**
+    * Sketch of the valid values of each interval, merged when a quantile is asked for.
+    */
+   private QuantileSketch[] sketches;
+   
+   /**
+    * Sequence number of the oldest interval in the window.
+    */
+   private long first;
+   
+   /**
+    * Sequence number the next interval will be given.
+    */
+   private long next;
+   
+   /**
+    * Sequence numbers of the intervals that may still become the minimum, with
+    * increasing minimums from head to tail.
+    */
+   private long[] minDeque;
+   
+   /**
+    * Position of the head of minDeque.
+    */
+   private long minHead;
+   
+   /**
+    * Position after the tail of minDeque.
+    */
+   private long minTail;
+   
+   /**
+    * Sequence numbers of the intervals that may still become the maximum, with
+    * decreasing maximums from head to tail.
+    */
+   private long[] maxDeque;
+   
+   /**
+    * Position of the head of maxDeque.
+    */
+   private long maxHead;
+   
+   /**
+    * Position after the tail of maxDeque.
+    */
+   private long maxTail;
+   
+   /**
+    * Total of the valid values of every interval in the window.
+    */
+   private double windowTotal;
+   
+   /**
+    * Number of valid values of every interval in the window.
+    */
+   private int windowCount;
+   
+   /**
+    * Date and time of the newest interval in the window, in seconds since 1970-01-01 UTC.
+    */
+   private long windowEnd;
+   
+   /**
+    * Constructor, initializes an empty window that does not keep quantiles.
+    * 
+    * @param paramId The parameter the statistics are kept for, such as TAIR or SRAD.
+    * @param windowMinutes The length of the window in minutes, such as HOUR or DAY.
+    */
+   public RollingStatistics(String paramId, int windowMinutes)
+   {
+      this(paramId, windowMinutes, false);
+   }
+   
+   /**
+    * Constructor, initializes an empty window.
+    * 
+    * @param paramId The parameter the statistics are kept for, such as TAIR or SRAD.
+    * @param windowMinutes The length of the window in minutes, such as HOUR or DAY.
+    * @param quantiles Whether to sketch each interval so that getQuantile can be called.
+    */
+   public RollingStatistics(String paramId, int windowMinutes, boolean quantiles)
+   {
+      
+      if (windowMinutes < RangeIngestor.INTERVAL_MINUTES)
+      {
+         throw new IllegalArgumentException("Window is shorter than one interval: " + windowMinutes);
+      }
+      
+      this.paramId = paramId;
+      this.quantiles = quantiles;
+      this.windowSeconds = windowMinutes * EpochTime.SECONDS_PER_MINUTE;
+      
+      int capacity = windowMinutes / RangeIngestor.INTERVAL_MINUTES;
+      times = new long[capacity];
+      mins = new double[capacity];
+      minStations = new int[capacity];
+      maxes = new double[capacity];
+      maxStations = new int[capacity];
+      totals = new double[capacity];
+      counts = new int[capacity];
+      sketches = new QuantileSketch[capacity];
+      minDeque = new long[capacity];
+      maxDeque = new long[capacity];
+      
+   }
+   
+   /**
+    * Adds a parsed interval to the window and drops the intervals that are no longer in it.
+    * Intervals must be added in time order.
+    * 
+    * @param interval A parsed interval holding the parameter.
+    */
+   public void add(MapData interval)
+   {
+      this.add(interval.getSnapshot());
+   }
+   
+   /**
+    * Adds a parsed interval to the window and drops the intervals that are no longer in it.
+    * Intervals must be added in time order.
+    * 
+    * @param interval A parsed interval holding the parameter.
+    */
+   public void add(MapDataSnapshot interval)
+   {
+      
+      Interval summary = this.summarize(interval);
+      
+      if (next > first && summary.time <= times[(int) ((next - 1) % times.length)])
+      {
+         throw new IllegalArgumentException("Intervals must be added in time order");
+      }
+      
+      this.push(summary);
+      
+   }
+   
+   /**
+    * Adds a parsed interval at any time, replacing the interval already held for the same
+    * time, such as when a file is rewritten or corrected late. An interval older than the
+    * window is ignored. Adding in time order is as fast as add; otherwise the window is
+    * rebuilt from the intervals it holds.
+    * 
+    * @param interval A parsed interval holding the parameter.
+    */
+   public void replace(MapDataSnapshot interval)
+   {
+      
+      Interval summary = this.summarize(interval);
+      
+      if (next == first || summary.time > times[(int) ((next - 1) % times.length)])
+      {
+         this.push(summary);
+         return;
+      }
+      
+      if (summary.time <= windowEnd - windowSeconds)
+      {
+         return;
+      }
+      
+      //copies out the intervals held, leaving out any at the same time as the new one
+      Interval[] held = new Interval[(int) (next - first)];
+      int kept = 0;
+      
+      for (long n = first; n < next; ++n)
+      {
+         
+         int index = (int) (n % times.length);
+         
+         if (times[index] != summary.time)
+         {
+            Interval old = new Interval();
+            old.time = times[index];
+            old.min = mins[index];
+            old.minStation = minStations[index];
+            old.max = maxes[index];
+            old.maxStation = maxStations[index];
+            old.total = totals[index];
+            old.count = counts[index];
+            old.sketch = sketches[index];
+            held[kept++] = old;
+         }
+         
+      }
+      
+      while (first < next)
+      {
+         this.dropFirst();
+      }
+      
+      boolean placed = false;
+      
+      for (int i = 0; i < kept; ++i)
+      {
+         
+         if (!placed && summary.time < held[i].time)
+         {
+            this.push(summary);
+            placed = true;
+         }
+         
+         this.push(held[i]);
+         
+      }
+      
+      if (!placed)
+      {
+         this.push(summary);
+      }
+      
+   }
+   
+   /**
+    * Finds the minimum, maximum, total, count, and, if quantiles are kept, sketch of the
+    * valid values of the parameter in an interval.
+    * 
+    * @param interval A parsed interval holding the parameter.
+    * @return Interval summarizing the parameter
+    */
+   private Interval summarize(MapDataSnapshot interval)
+   {
+      
+      ObservationStore observations = interval.getObservations();
+      int param = observations.indexOf(paramId);
+      
+      if (param == -1)
+      {
+         throw new IllegalArgumentException(paramId + " was not parsed from " + interval.getFileName());
+      }
+      
+      Interval summary = new Interval();
+      summary.time = interval.getUTCEpochSecond();
+      summary.sketch = quantiles ? new QuantileSketch() : null;
+      
+      for (int i = 0; i < observations.size(); ++i)
+      {
+         
+         if (observations.isValid(i, param))
+         {
+            
+            double val = observations.getValue(i, param);
+            summary.total += val;
+            ++summary.count;
+            if (summary.sketch != null)
+            {
+               summary.sketch.add(val);
+            }
+            
+            if (val < summary.min)
+            {
+               summary.min = val;
+               summary.minStation = observations.getStationCode(i);
+            }
+            
+            if (val > summary.max)
+            {
+               summary.max = val;
+               summary.maxStation = observations.getStationCode(i);
+            }
+            
+         }
+         
+      }
+      
+      return summary;
+      
+   }
+   
+   /**
+    * Adds the summary of an interval newer than every one held, dropping the intervals that
+    * it pushes out of the window.
+    * 
+    * @param summary The summary of the interval.
+    */
+   private void push(Interval summary)
+   {
+      
+      long time = summary.time;
+      
+      //drops every interval that the new one pushes out of the window
+      while (first < next && (times[(int) (first % times.length)] <= time - windowSeconds || next - first == times.length))
+      {
+         this.dropFirst();
+      }
+      
+      int index = (int) (next % times.length);
+      times[index] = time;
+      mins[index] = summary.min;
+      minStations[index] = summary.minStation;
+      maxes[index] = summary.max;
+      maxStations[index] = summary.maxStation;
+      totals[index] = summary.total;
+      counts[index] = summary.count;
+      sketches[index] = summary.sketch;
+      
+      windowTotal += summary.total;
+      windowCount += summary.count;
+      windowEnd = time;
+      
+      if (summary.count > 0)
+      {
+         
+         //earlier intervals win ties, so only strictly worse ones are removed
+         while (minTail > minHead && mins[(int) (minDeque[(int) ((minTail - 1) % minDeque.length)] % times.length)] > summary.min)
+         {
+            --minTail;
+         }
+         minDeque[(int) (minTail++ % minDeque.length)] = next;
+         
+         while (maxTail > maxHead && maxes[(int) (maxDeque[(int) ((maxTail - 1) % maxDeque.length)] % times.length)] < summary.max)
+         {
+            --maxTail;
+         }
+         maxDeque[(int) (maxTail++ % maxDeque.length)] = next;
+         
+      }
+      
+      ++next;
+      
+   }
+   
+   /**
+    * Removes the oldest interval from the window.
+    */
+   private void dropFirst()
+   {
+      
+      int index = (int) (first % times.length);
+      windowTotal -= totals[index];
+      windowCount -= counts[index];
+      
+      if (minTail > minHead && minDeque[(int) (minHead % minDeque.length)] == first)
+      {
+         ++minHead;
+      }
+      
+      if (maxTail > maxHead && maxDeque[(int) (maxHead % maxDeque.length)] == first)
+      {
+         ++maxHead;
+      }
+      
+      sketches[index] = null;
+      ++first;
+      
+      if (first == next)
+      {
+         //resets the running sums so rounding errors do not carry across an empty window
+         windowTotal = 0;
+         windowCount = 0;
+      }
+      
+   }
+   
+   /**
+    * Returns the number of intervals in the window.
+    * 
+    * @return int number of intervals
+    */
+   public int getIntervalCount()
+   {
+      return (int) (next - first);
+   }
+   
+   /**
+    * Returns the minimum of the parameter over the window.
+    * 
+    * @return Statistics minimum, or null if no interval has been added
+    */
+   public Statistics getMinimum()
+   {
+      
+      if (minTail == minHead)
+      {
+         return this.empty(StatsType.MINIMUM);
+      }
+      
+      int index = (int) (minDeque[(int) (minHead % minDeque.length)] % times.length);
+      return new Statistics(mins[index], StationDictionary.shared().decode(minStations[index]), windowEnd, windowCount,
+               StatsType.MINIMUM);
+      
+   }
+   
+   /**
+    * Returns the maximum of the parameter over the window.
+    * 
+    * @return Statistics maximum, or null if no interval has been added
+    */
+   public Statistics getMaximum()
+   {
+      
+      if (maxTail == maxHead)
+      {
+         return this.empty(StatsType.MAXIMUM);
+      }
+      
+      int index = (int) (maxDeque[(int) (maxHead % maxDeque.length)] % times.length);
+      return new Statistics(maxes[index], StationDictionary.shared().decode(maxStations[index]), windowEnd, windowCount,
+               StatsType.MAXIMUM);
+      
+   }
+   
+   /**
+    * Returns the average of the parameter over the window.
+    * 
+    * @return Statistics average, or null if no interval has been added
+    */
+   public Statistics getAverage()
+   {
+      
+      if (windowCount == 0)
+      {
+         return this.empty(StatsType.AVERAGE);
+      }
+      
+      return new Statistics(windowTotal / windowCount, MESONET, windowEnd, windowCount, StatsType.AVERAGE);
+      
+   }
+   
+   /**
+    * Returns the total of the parameter over the window.
+    * 
+    * @return Statistics total, or null if no interval has been added
+    */
+   public Statistics getTotal()
+   {
+      
+      if (windowCount == 0)
+      {
+         return this.empty(StatsType.TOTAL);
+      }
+      
+      return new Statistics(windowTotal, MESONET, windowEnd, windowCount, StatsType.TOTAL);
+      
+   }
+   
+   /**
+    * Returns a quantile of the parameter over the window, estimated by merging the sketch of
+    * each interval in it.
+    * 
+    * @param type MEDIAN, PERCENTILE_95, or PERCENTILE_99.
+    * @return Statistics quantile, or null if no interval has been added
+    * @throws IllegalStateException In case the window does not keep quantiles.
+    */
+   public Statistics getQuantile(StatsType type)
+   {
+      
+      if (!type.isQuantile())
+      {
+         throw new IllegalArgumentException(type + " is not a quantile");
+      }
+      
+      if (!quantiles)
+      {
+         throw new IllegalStateException("Quantiles are not kept for " + paramId);
+      }
+      
+      if (windowCount == 0)
+      {
+         return this.empty(type);
+      }
+      
+      QuantileSketch merged = new QuantileSketch();
+      for (long i = first; i < next; ++i)
+      {
+         merged.merge(sketches[(int) (i % sketches.length)]);
+      }
+      
+      return new Statistics(merged.getQuantile(type), MESONET, windowEnd, windowCount, type);
+      
+   }
+   
+   /**
+    * Returns the statistic reported when the window holds no valid values.
+    * 
+    * @param type The type of statistic.
+    * @return Statistics holding no data, or null if no interval has been added
+    */
+   private Statistics empty(StatsType type)
+   {
+      
+      if (next == 0)
+      {
+         return null;
+      }
+      
+      return new Statistics(0, "NULL", windowEnd, 0, type);
+      
+   }
+   
+}
@@ -0,0 +1,173 @@
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the RollingStatistics class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class RollingStatisticsTest
+{
+   
+   /**
+    * Columns of the files written.
+    */
+   private static final String[] TAIR = {"TAIR"};
+   
+   /**
+    * Directory the files of each test are written to.
+    */
+   private MdfTestDirectory files;
+   
+   @Before
+   /**
+    * Creates the directory the files of a test are written to.
+    * 
+    * @throws IOException
+    */
+   public void setUp() throws IOException {
+      files = new MdfTestDirectory("rolling");
+   }
+   
+   @After
+   /**
+    * Deletes the files of a test.
+    */
+   public void tearDown() {
+      files.delete();
+   }
+   
+   @Test
+   /**
+    * Tests that intervals are combined and then dropped as the window slides.
+    * 
+    * @throws IOException
+    */
+   public void testSlidingWindow() throws IOException {
+      
+      String[] stids = {"MIAM", "NRMN"};
+      
+      RollingStatistics test = new RollingStatistics("TAIR", 10);
+      
+      test.add(files.parse(MdfTestDirectory.time(0), TAIR, stids, new double[] {30.0, 20.0}));
+      test.add(files.parse(MdfTestDirectory.time(5), TAIR, stids, new double[] {25.0, 40.0}));
+      
+      Assert.assertEquals(2, test.getIntervalCount());
+      Assert.assertEquals(test.getMinimum().getValue(), 20.0, .1);
+      Assert.assertTrue(test.getMinimum().getStid().equals("NRMN"));
+      Assert.assertEquals(test.getMaximum().getValue(), 40.0, .1);
+      Assert.assertEquals(test.getAverage().getValue(), 28.75, .01);
+      Assert.assertEquals(4, test.getAverage().getNumberOfReportingStations());
+      
+      test.add(files.parse(MdfTestDirectory.time(10), TAIR, stids, new double[] {-996, 22.0}));
+      
+      Assert.assertEquals(2, test.getIntervalCount());
+      Assert.assertEquals(test.getMinimum().getValue(), 22.0, .1);
+      Assert.assertEquals(test.getMaximum().getValue(), 40.0, .1);
+      Assert.assertEquals(test.getTotal().getValue(), 87.0, .1);
+      Assert.assertEquals(3, test.getTotal().getNumberOfReportingStations());
+      Assert.assertEquals(StatsType.TOTAL, test.getTotal().getStatType());
+      
+      test.add(files.parse(MdfTestDirectory.time(15), TAIR, stids, new double[] {21.0, 23.0}));
+      
+      Assert.assertEquals(test.getMaximum().getValue(), 23.0, .1);
+      Assert.assertEquals(test.getMinimum().getValue(), 21.0, .1);
+      Assert.assertTrue(test.getMinimum().getStid().equals("MIAM"));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that an empty window reports nothing.
+    */
+   public void testEmpty() {
+      
+      RollingStatistics test = new RollingStatistics("TAIR", RollingStatistics.HOUR);
+      
+      Assert.assertEquals(0, test.getIntervalCount());
+      Assert.assertNull(test.getAverage());
+      
+   }
+
+   @Test
+   /**
+    * Tests that a rewritten interval replaces the one held for its time, a late one is put
+    * in order, and one older than the window is ignored.
+    * 
+    * @throws IOException
+    */
+   public void testReplace() throws IOException {
+      
+      String[] stids = {"MIAM", "NRMN"};
+      
+      RollingStatistics test = new RollingStatistics("TAIR", 15);
+      
+      test.replace(files.parse(MdfTestDirectory.time(0), TAIR, stids, new double[] {30.0, 20.0}).getSnapshot());
+      test.replace(files.parse(MdfTestDirectory.time(10), TAIR, stids, new double[] {25.0, 40.0}).getSnapshot());
+      
+      //a rewrite of the newest interval with a row missing, then with it restored
+      test.replace(files.parse(MdfTestDirectory.time(10), TAIR, new String[] {"MIAM"}, new double[] {25.0}).getSnapshot());
+      Assert.assertEquals(2, test.getIntervalCount());
+      Assert.assertEquals(test.getMaximum().getValue(), 30.0, .1);
+      Assert.assertEquals(test.getTotal().getValue(), 75.0, .1);
+      
+      test.replace(files.parse(MdfTestDirectory.time(10), TAIR, stids, new double[] {25.0, 40.0}).getSnapshot());
+      Assert.assertEquals(test.getMaximum().getValue(), 40.0, .1);
+      Assert.assertEquals(test.getTotal().getValue(), 115.0, .1);
+      
+      //an interval arriving late between the two
+      test.replace(files.parse(MdfTestDirectory.time(5), TAIR, stids, new double[] {10.0, 35.0}).getSnapshot());
+      Assert.assertEquals(3, test.getIntervalCount());
+      Assert.assertEquals(test.getMinimum().getValue(), 10.0, .1);
+      Assert.assertTrue(test.getMinimum().getStid().equals("MIAM"));
+      Assert.assertEquals(test.getTotal().getValue(), 160.0, .1);
+      
+      //sliding forward drops the oldest, then an interval older than the window is ignored
+      test.add(files.parse(MdfTestDirectory.time(15), TAIR, stids, new double[] {26.0, 27.0}).getSnapshot());
+      test.replace(files.parse(MdfTestDirectory.time(0), TAIR, stids, new double[] {0.0, 0.0}).getSnapshot());
+      Assert.assertEquals(3, test.getIntervalCount());
+      Assert.assertEquals(test.getTotal().getValue(), 163.0, .1);
+      Assert.assertEquals(test.getMinimum().getValue(), 10.0, .1);
+      
+   }
+   
+   
+   @Test
+   /**
+    * Tests that quantiles are only available from a window made to keep them.
+    * 
+    * @throws IOException
+    */
+   public void testQuantiles() throws IOException {
+      
+      String[] stids = {"MIAM", "NRMN", "OKCW"};
+      
+      RollingStatistics test = new RollingStatistics("TAIR", 10, true);
+      test.add(files.parse(MdfTestDirectory.time(0), TAIR, stids, new double[] {10.0, 20.0, 30.0}));
+      test.add(files.parse(MdfTestDirectory.time(5), TAIR, stids, new double[] {40.0, 50.0, 60.0}));
+      
+      Assert.assertEquals(test.getQuantile(StatsType.MEDIAN).getValue(), 35.0, 5.0);
+      Assert.assertEquals(6, test.getQuantile(StatsType.MEDIAN).getNumberOfReportingStations());
+      
+      RollingStatistics plain = new RollingStatistics("TAIR", 10);
+      plain.add(files.parse(MdfTestDirectory.time(0), TAIR, stids, new double[] {10.0, 20.0, 30.0}));
+      
+      try
+      {
+         plain.getQuantile(StatsType.MEDIAN);
+         Assert.fail("Expected IllegalStateException");
+      }
+      catch (IllegalStateException e)
+      {
+         Assert.assertEquals(plain.getMaximum().getValue(), 30.0, .1);
+      }
+      
+   }
+
+}
@@ -0,0 +1,534 @@
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Keeps hourly, daily, and monthly aggregates of every parameter, built from parsed intervals,
+ * so that statistics over long ranges come from a handful of pre-aggregated buckets. Each
+ * bucket holds the minimum and maximum with the station and time they occurred, the total,
+ * and the count of valid values. A range is split into the largest whole buckets that fit
+ * it, and only the intervals at its ragged edges are read from their files. A bucket is only
+ * used for a range once every interval it spans has been added; until then the range falls
+ * back to the smaller buckets within it, and finally to the files.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class RollupCube
+{
+   
+   /**
+    * Sizes of bucket kept.
+    */
+   public enum Granularity
+   {
+      HOUR, DAY, MONTH;
+      
+      /**
+       * Returns the start of the bucket holding a time.
+       * 
+       * @param time Seconds since 1970-01-01 UTC.
+       * @return long start of the bucket, in seconds since 1970-01-01 UTC
+       */
+      public long start(long time)
+      {
+         
+         switch (this)
+         {
+            case HOUR:
+               return time - Math.floorMod(time, EpochTime.SECONDS_PER_HOUR);
+            case DAY:
+               return time - Math.floorMod(time, EpochTime.SECONDS_PER_DAY);
+            default:
+               return EpochTime.of(EpochTime.year(time), EpochTime.month(time), 1, 0, 0, 0);
+         }
+         
+      }
+      
+      /**
+       * Returns the start of the bucket after the one starting at a time.
+       * 
+       * @param start The start of a bucket, in seconds since 1970-01-01 UTC.
+       * @return long start of the next bucket, in seconds since 1970-01-01 UTC
+       */
+      public long next(long start)
+      {
+         
+         switch (this)
+         {
+            case HOUR:
+               return start + EpochTime.SECONDS_PER_HOUR;
+            case DAY:
+               return start + EpochTime.SECONDS_PER_DAY;
+            default:
+               return EpochTime.of(EpochTime.year(start), EpochTime.month(start) + 1, 1, 0, 0, 0);
+         }
+         
+      }
+   }
+   
+   /**
+    * String holding the web site name Mesonet.
+    */
+   private static final String MESONET = "Mesonet";
+   
+   /**
+    * Length of an interval in seconds.
+    */
+   private static final long INTERVAL_SECONDS = RangeIngestor.INTERVAL_SECONDS;
+   
+   /**
+    * The minimum, maximum, total, and count of the valid values of one parameter over some
+    * span of time.
+    */
+   private static final class Aggregate
+   {
+      
+      /**
+       * Smallest valid value.
+       */
+      private double min = Double.POSITIVE_INFINITY;
+      
+      /**
+       * Code of the station the smallest valid value was taken at.
+       */
+      private int minStation;
+      
+      /**
+       * Time the smallest valid value was taken, in seconds since 1970-01-01 UTC.
+       */
+      private long minTime;
+      
+      /**
+       * Largest valid value.
+       */
+      private double max = Double.NEGATIVE_INFINITY;
+      
+      /**
+       * Code of the station the largest valid value was taken at.
+       */
+      private int maxStation;
+      
+      /**
+       * Time the largest valid value was taken, in seconds since 1970-01-01 UTC.
+       */
+      private long maxTime;
+      
+      /**
+       * Total of the valid values.
+       */
+      private double total;
+      
+      /**
+       * Number of valid values.
+       */
+      private int count;
+      
+      /**
+       * Adds another aggregate. Ties for minimum and maximum keep the earliest time.
+       * 
+       * @param other The aggregate to add.
+       */
+      private void merge(Aggregate other)
+      {
+         
+         if (other.count == 0)
+         {
+            return;
+         }
+         
+         if (other.min < min || (other.min == min && other.minTime < minTime))
+         {
+            min = other.min;
+            minStation = other.minStation;
+            minTime = other.minTime;
+         }
+         
+         if (other.max > max || (other.max == max && other.maxTime < maxTime))
+         {
+            max = other.max;
+            maxStation = other.maxStation;
+            maxTime = other.maxTime;
+         }
+         
+         total += other.total;
+         count += other.count;
+         
+      }
+      
+   }
+   
+   /**
+    * The aggregates of every parameter over one hour, day, or month, and how many of its
+    * intervals they hold.
+    */
+   private static final class Bucket
+   {
+      
+      /**
+       * Aggregate of each parameter, indexed by slot.
+       */
+      private final Aggregate[] aggregates;
+      
+      /**
+       * Number of intervals added.
+       */
+      private int intervals;
+      
+      /**
+       * Constructor, initializes an empty aggregate for each parameter.
+       * 
+       * @param parameterCount The number of parameters aggregated.
+       */
+      private Bucket(int parameterCount)
+      {
+         
+         aggregates = new Aggregate[parameterCount];
+         for (int p = 0; p < parameterCount; ++p)
+         {
+            aggregates[p] = new Aggregate();
+         }
+         
+      }
+      
+   }
+   
+   /**
+    * Parameters aggregated.
+    */
+   private final ParameterRegistry parameters;
+   
+   /**
+    * Directory the edges of a range are read from.
+    */
+   private final String directory;
+   
+   /**
+    * Parses the edges of a range, and only parses one again once it has changed.
+    */
+   private final MapDataCache cache;
+   
+   /**
+    * Buckets of each granularity, keyed by their start.
+    */
+   private final EnumMap<Granularity, HashMap<Long, Bucket>> buckets = new EnumMap<>(Granularity.class);
+   
+   /**
+    * Times of the intervals added, so none is counted twice.
+    */
+   private final HashSet<Long> added = new HashSet<>();
+   
+   /**
+    * Constructor, initializes an empty cube.
+    * 
+    * @param parameters The parameters to aggregate.
+    * @param directory The directory the files of the intervals are in.
+    * @param cache The cache the edges of ranges are parsed through.
+    */
+   public RollupCube(ParameterRegistry parameters, String directory, MapDataCache cache)
+   {
+      
+      this.parameters = parameters;
+      this.directory = directory;
+      this.cache = cache;
+      
+      for (Granularity granularity : Granularity.values())
+      {
+         buckets.put(granularity, new HashMap<Long, Bucket>());
+      }
+      
+   }
+   
+   /**
+    * Aggregates the valid values of one parameter of an interval.
+    * 
+    * @param interval A parsed interval.
+    * @param paramId The name of the parameter.
+    * @return Aggregate of the interval, empty if the parameter was not parsed
+    */
+   private static Aggregate aggregate(MapDataSnapshot interval, String paramId)
+   {
+      
+      Aggregate result = new Aggregate();
+      ObservationStore observations = interval.getObservations();
+      int param = observations.indexOf(paramId);
+      long time = interval.getUTCEpochSecond();
+      
+      for (int i = 0; param != -1 && i < observations.size(); ++i)
+      {
+         
+         if (observations.isValid(i, param))
+         {
+            
+            double value = observations.getValue(i, param);
+            result.total += value;
+            ++result.count;
+            
+            if (value < result.min)
+            {
+               result.min = value;
+               result.minStation = observations.getStationCode(i);
+               result.minTime = time;
+            }
+            
+            if (value > result.max)
+            {
+               result.max = value;
+               result.maxStation = observations.getStationCode(i);
+               result.maxTime = time;
+            }
+            
+         }
+         
+      }
+      
+      return result;
+      
+   }
+   
+   /**
+    * Adds an interval to the hour, day, and month holding it.
+    * 
+    * @param interval A parsed interval.
+    * @return boolean false if the interval was already added
+    */
+   public synchronized boolean add(MapDataSnapshot interval)
+   {
+      
+      long time = interval.getUTCEpochSecond();
+      
+      if (!added.add(time))
+      {
+         return false;
+      }
+      
+      for (Granularity granularity : Granularity.values())
+      {
+         
+         Bucket bucket = buckets.get(granularity).get(granularity.start(time));
+         
+         if (bucket == null)
+         {
+            bucket = new Bucket(parameters.size());
+            buckets.get(granularity).put(granularity.start(time), bucket);
+         }
+         
+         ++bucket.intervals;
+         
+      }
+      
+      for (int p = 0; p < parameters.size(); ++p)
+      {
+         
+         Aggregate values = aggregate(interval, parameters.getParamId(p));
+         
+         for (Granularity granularity : Granularity.values())
+         {
+            buckets.get(granularity).get(granularity.start(time)).aggregates[p].merge(values);
+         }
+         
+      }
+      
+      return true;
+      
+   }
+   
+   /**
+    * Adds every interval of a list, such as that returned by RangeIngestor.
+    * 
+    * @param intervals Parsed intervals.
+    */
+   public void addAll(Iterable<MapData> intervals)
+   {
+      
+      for (MapData interval : intervals)
+      {
+         this.add(interval.getSnapshot());
+      }
+      
+   }
+   
+   /**
+    * Returns whether every interval of the bucket holding a time has been added.
+    * 
+    * @param granularity The size of bucket.
+    * @param time A time within the bucket, in seconds since 1970-01-01 UTC.
+    * @return boolean true if the bucket is complete
+    */
+   public synchronized boolean isComplete(Granularity granularity, long time)
+   {
+      
+      long start = granularity.start(time);
+      Bucket bucket = buckets.get(granularity).get(start);
+      
+      return bucket != null && bucket.intervals == (granularity.next(start) - start) / INTERVAL_SECONDS;
+      
+   }
+   
+   /**
+    * Returns a statistic of the bucket holding a time, such as the daily maximum, over the
+    * intervals added to it so far. isComplete tells whether that is all of them.
+    * 
+    * @param paramId The name of the parameter.
+    * @param granularity The size of bucket.
+    * @param time A time within the bucket, in seconds since 1970-01-01 UTC.
+    * @param type MINIMUM, MAXIMUM, AVERAGE, or TOTAL.
+    * @return Statistics of the bucket, or null if it holds no valid values
+    */
+   public synchronized Statistics getStatistics(String paramId, Granularity granularity, long time, StatsType type)
+   {
+      
+      int slot = this.slot(paramId);
+      long start = granularity.start(time);
+      Bucket bucket = buckets.get(granularity).get(start);
+      
+      return bucket == null ? null
+               : toStatistics(bucket.aggregates[slot], granularity.next(start) - INTERVAL_SECONDS, type);
+      
+   }
+   
+   /**
+    * Returns a statistic over every interval from start to end, both inclusive. Whole
+    * months, days, and hours within the range come from their buckets once every interval
+    * of the bucket has been added. The intervals left over at either end, and those of
+    * buckets that are not complete, are read from their files.
+    * 
+    * @param paramId The name of the parameter.
+    * @param start The first interval of the range, in seconds since 1970-01-01 UTC.
+    * @param end The last interval of the range, in seconds since 1970-01-01 UTC.
+    * @param type MINIMUM, MAXIMUM, AVERAGE, or TOTAL.
+    * @return Statistics over the range, or null if it holds no valid values
+    * @throws IOException In case an edge file is improperly formatted.
+    */
+   public Statistics getStatistics(String paramId, long start, long end, StatsType type) throws IOException
+   {
+      
+      int slot = this.slot(paramId);
+      Aggregate result = new Aggregate();
+      
+      //rounds start up to the first interval in the range
+      long time = start + Math.floorMod(-start, INTERVAL_SECONDS);
+      
+      while (time <= end)
+      {
+         
+         Granularity whole = null;
+         Bucket bucket = null;
+         
+         synchronized (this)
+         {
+            for (int g = Granularity.values().length - 1; g >= 0 && whole == null; --g)
+            {
+               Granularity granularity = Granularity.values()[g];
+               if (granularity.start(time) == time && granularity.next(time) - INTERVAL_SECONDS <= end
+                        && this.isComplete(granularity, time))
+               {
+                  whole = granularity;
+                  bucket = buckets.get(granularity).get(time);
+               }
+            }
+            
+            if (whole != null)
+            {
+               result.merge(bucket.aggregates[slot]);
+            }
+         }
+         
+         if (whole != null)
+         {
+            time = whole.next(time);
+         }
+         else
+         {
+            result.merge(this.readEdge(paramId, time));
+            time += INTERVAL_SECONDS;
+         }
+         
+      }
+      
+      return toStatistics(result, end, type);
+      
+   }
+   
+   /**
+    * Reads one interval at the edge of a range from its file.
+    * 
+    * @param paramId The name of the parameter.
+    * @param time The time of the interval, in seconds since 1970-01-01 UTC.
+    * @return Aggregate of the interval, empty if it has no file
+    * @throws IOException In case the file is improperly formatted.
+    */
+   private Aggregate readEdge(String paramId, long time) throws IOException
+   {
+      
+      try
+      {
+         return aggregate(cache.get(time, directory, parameters), paramId);
+      }
+      catch (FileNotFoundException e)
+      {
+         return new Aggregate();
+      }
+      
+   }
+   
+   /**
+    * Returns the slot of an aggregated parameter.
+    * 
+    * @param paramId The name of the parameter.
+    * @return int slot
+    */
+   private int slot(String paramId)
+   {
+      
+      int slot = parameters.indexOf(paramId);
+      
+      if (slot == ParameterRegistry.SKIP)
+      {
+         throw new IllegalArgumentException(paramId + " is not aggregated");
+      }
+      
+      return slot;
+      
+   }
+   
+   /**
+    * Returns a statistic of an aggregate. Minimums and maximums are dated when they
+    * occurred; averages and totals at the end of the span.
+    * 
+    * @param aggregate The aggregate.
+    * @param end The last interval of the span, in seconds since 1970-01-01 UTC.
+    * @param type MINIMUM, MAXIMUM, AVERAGE, or TOTAL.
+    * @return Statistics of the aggregate, or null if it holds no valid values
+    */
+   private static Statistics toStatistics(Aggregate aggregate, long end, StatsType type)
+   {
+      
+      if (aggregate.count == 0)
+      {
+         return null;
+      }
+      
+      switch (type)
+      {
+         case MINIMUM:
+            return new Statistics(aggregate.min, StationDictionary.shared().decode(aggregate.minStation),
+                     aggregate.minTime, aggregate.count, type);
+         case MAXIMUM:
+            return new Statistics(aggregate.max, StationDictionary.shared().decode(aggregate.maxStation),
+                     aggregate.maxTime, aggregate.count, type);
+         case AVERAGE:
+            return new Statistics(aggregate.total / aggregate.count, MESONET, end, aggregate.count, type);
+         case TOTAL:
+            return new Statistics(aggregate.total, MESONET, end, aggregate.count, type);
+         default:
+            throw new IllegalArgumentException("Rollups do not hold " + type);
+      }
+      
+   }
+   
+}
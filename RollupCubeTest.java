@@ -0,0 +1,156 @@
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the RollupCube class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class RollupCubeTest
+{
+   
+   /**
+    * Columns of the files written.
+    */
+   private static final String[] TAIR = {"TAIR"};
+   
+   /**
+    * Stations of the files written.
+    */
+   private static final String[] STATIONS = {"NRMN", "OKCW"};
+   
+   /**
+    * Directory the files of each test are written to.
+    */
+   private MdfTestDirectory files;
+   
+   @Before
+   /**
+    * Creates the directory the files of a test are written to.
+    * 
+    * @throws IOException
+    */
+   public void setUp() throws IOException {
+      files = new MdfTestDirectory("rollup");
+   }
+   
+   @After
+   /**
+    * Deletes the files of a test.
+    */
+   public void tearDown() {
+      files.delete();
+   }
+   
+   /**
+    * Writes a file with a TAIR value at two stations and parses it.
+    * 
+    * @param time When the data was taken, in seconds since 1970-01-01 UTC.
+    * @param nrmn TAIR at NRMN.
+    * @param okcw TAIR at OKCW.
+    * @return MapData parsed from the file
+    * @throws IOException
+    */
+   private MapData interval(long time, double nrmn, double okcw) throws IOException {
+      return files.parse(time, TAIR, STATIONS, new double[] {nrmn, okcw});
+   }
+   
+   @Test
+   /**
+    * Tests that a range is answered from an hourly bucket plus edge files, that whole buckets
+    * no longer need their files, and that ties keep the earliest time.
+    * 
+    * @throws IOException
+    */
+   public void testRange() throws IOException {
+      
+      RollupCube test = new RollupCube(new ParameterRegistry("TAIR"), files.getPath(), new MapDataCache(8));
+      
+      long first = EpochTime.of(2018, 8, 30, 16, 50, 0);
+      long last = EpochTime.of(2018, 8, 30, 18, 5, 0);
+      double total = 0;
+      MapDataSnapshot firstInterval = null;
+      
+      for (long time = first; time <= last; time += RangeIngestor.INTERVAL_SECONDS)
+      {
+         double minutes = (time - first) / 60;
+         double nrmn = minutes == 30 || minutes == 45 ? 40.0 : 20.0 + minutes / 10;
+         MapDataSnapshot snapshot = interval(time, nrmn, -minutes / 10).getSnapshot();
+         test.add(snapshot);
+         firstInterval = firstInterval == null ? snapshot : firstInterval;
+         total += nrmn - minutes / 10;
+      }
+      
+      Assert.assertFalse(test.add(firstInterval));
+      
+      //the whole hour must now come from its bucket
+      for (int minute = 0; minute < 60; minute += 5)
+      {
+         files.file(MdfTestDirectory.time(minute)).delete();
+      }
+      
+      Statistics max = test.getStatistics("TAIR", first, last, StatsType.MAXIMUM);
+      Assert.assertEquals(max.getValue(), 40.0, .1);
+      Assert.assertEquals(EpochTime.of(2018, 8, 30, 17, 20, 0), max.getUTCEpochSecond());
+      Assert.assertTrue(max.getStid().equals("NRMN"));
+      
+      Statistics min = test.getStatistics("TAIR", first, last, StatsType.MINIMUM);
+      Assert.assertEquals(min.getValue(), -7.5, .1);
+      Assert.assertEquals(last, min.getUTCEpochSecond());
+      
+      Assert.assertEquals(test.getStatistics("TAIR", first, last, StatsType.TOTAL).getValue(), total, .001);
+      Assert.assertEquals(32, test.getStatistics("TAIR", first, last, StatsType.AVERAGE).getNumberOfReportingStations());
+      
+      Statistics hourly = test.getStatistics("TAIR", RollupCube.Granularity.HOUR, EpochTime.of(2018, 8, 30, 17, 30, 0),
+               StatsType.MAXIMUM);
+      Assert.assertEquals(hourly.getValue(), 40.0, .1);
+      Assert.assertEquals(32, test.getStatistics("TAIR", RollupCube.Granularity.DAY, first, StatsType.TOTAL)
+               .getNumberOfReportingStations());
+      Assert.assertEquals(32, test.getStatistics("TAIR", RollupCube.Granularity.MONTH, first, StatsType.TOTAL)
+               .getNumberOfReportingStations());
+      
+   }
+   
+   @Test
+   /**
+    * Tests that an hour missing some of its intervals is not used as a whole bucket, and
+    * that the intervals it lacks are read from their files instead.
+    * 
+    * @throws IOException
+    */
+   public void testPartialBucket() throws IOException {
+      
+      RollupCube test = new RollupCube(new ParameterRegistry("TAIR"), files.getPath(), new MapDataCache(8));
+      
+      long first = EpochTime.of(2018, 8, 30, 17, 0, 0);
+      long last = EpochTime.of(2018, 8, 30, 17, 55, 0);
+      
+      for (long time = first; time <= last; time += RangeIngestor.INTERVAL_SECONDS)
+      {
+         //17:20 has the highest value but is only in its file
+         MapData mapData = interval(time, time == first + 1200 ? 50.0 : 20.0, 10.0);
+         if (time != first + 1200)
+         {
+            test.add(mapData.getSnapshot());
+         }
+      }
+      
+      Assert.assertFalse(test.isComplete(RollupCube.Granularity.HOUR, first));
+      Assert.assertEquals(test.getStatistics("TAIR", first, last, StatsType.MAXIMUM).getValue(), 50.0, .1);
+      Assert.assertEquals(24, test.getStatistics("TAIR", first, last, StatsType.TOTAL).getNumberOfReportingStations());
+      
+      test.add(interval(first + 1200, 50.0, 10.0).getSnapshot());
+      files.file(first + 1200).delete();
+      
+      Assert.assertTrue(test.isComplete(RollupCube.Granularity.HOUR, first));
+      Assert.assertEquals(test.getStatistics("TAIR", first, last, StatsType.MAXIMUM).getValue(), 50.0, .1);
+      
+   }
+
+}
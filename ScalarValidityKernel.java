@@ -0,0 +1,57 @@
+/**
+ * Evaluates validity rules one value at a time, building each word of the bitmap in a
+ * register before storing it.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ScalarValidityKernel implements ValidityKernel
+{
+   
+   @Override
+   /**
+    * Sets the bit of each valid value.
+    * 
+    * @param values The values to check.
+    * @param count The number of values to check.
+    * @param min The smallest valid value.
+    * @param max The largest valid value.
+    * @param sentinels Codes that are never valid.
+    * @param words Bitmap to set bits in, zeroed by the caller.
+    */
+   public void evaluate(double[] values, int count, double min, double max, double[] sentinels, long[] words)
+   {
+      
+      for (int base = 0; base < count; base += Long.SIZE)
+      {
+         
+         int end = Math.min(base + Long.SIZE, count);
+         long word = 0;
+         
+         for (int i = base; i < end; ++i)
+         {
+            
+            double value = values[i];
+            boolean valid = value >= min && value <= max;
+            
+            for (int s = 0; s < sentinels.length && valid; ++s)
+            {
+               valid = value != sentinels[s];
+            }
+            
+            if (valid)
+            {
+               word |= 1L << (i - base);
+            }
+            
+         }
+         
+         words[base >>> 6] = word;
+         
+      }
+      
+   }
+   
+}
@@ -0,0 +1,309 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Assigns each station ID a compact int code so that a station's ID is only stored once
+ * no matter how many observations refer to it. The shared dictionary is used by every
+ * interval in the process, so the same code means the same station everywhere and each
+ * station ID is held as a single String.
+ * 
+ * Codes are looked up without locking, including straight from the bytes of a file without
+ * creating a String. Only adding a station ID that has not been seen before takes a lock.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StationDictionary
+{
+   
+   /**
+    * Number of station IDs room is made for before the first resize.
+    */
+   private static final int INITIAL_CAPACITY = 256;
+   
+   /**
+    * Marks an empty slot of the hash table.
+    */
+   private static final int EMPTY = -1;
+   
+   /**
+    * The dictionary shared by every interval in the process.
+    */
+   private static final StationDictionary SHARED = new StationDictionary();
+   
+   /**
+    * Station IDs, indexed by their code.
+    */
+   private volatile String[] names;
+   
+   /**
+    * Open-addressed hash table of codes, indexed by the hash of their station ID. Its length
+    * is a power of two kept at least twice the number of codes.
+    */
+   private volatile int[] table;
+   
+   /**
+    * Number of station IDs held, written after the ID and its slot so that readers who see
+    * a code also see its ID.
+    */
+   private volatile int size;
+   
+   /**
+    * Constructor, initializes an empty dictionary.
+    */
+   public StationDictionary()
+   {
+      
+      names = new String[INITIAL_CAPACITY];
+      table = new int[INITIAL_CAPACITY * 2];
+      Arrays.fill(table, EMPTY);
+      
+   }
+   
+   /**
+    * Returns the dictionary shared by every interval in the process.
+    * 
+    * @return StationDictionary shared
+    */
+   public static StationDictionary shared()
+   {
+      return SHARED;
+   }
+   
+   /**
+    * Returns the code for a station ID, adding the ID if it has not been seen before.
+    * 
+    * @param stid The ID of the station.
+    * @return int code for stid
+    */
+   public int encode(String stid)
+   {
+      
+      int code = this.indexOf(stid);
+      
+      return code != EMPTY ? code : this.add(stid);
+      
+   }
+   
+   /**
+    * Returns the code for a station ID held as one byte per character, such as a field of an
+    * .mdf file, adding the ID if it has not been seen before. No String is created unless
+    * the ID is new.
+    * 
+    * @param bytes Buffer holding the ID.
+    * @param start Index of the first byte of the ID.
+    * @param end Index after the last byte of the ID.
+    * @return int code for the ID
+    */
+   public int encode(ByteBuffer bytes, int start, int end)
+   {
+      
+      int hash = 0;
+      for (int i = start; i < end; ++i)
+      {
+         hash = 31 * hash + (bytes.get(i) & 0xff);
+      }
+      
+      //reads size first so that every code in the table below has its name visible
+      int count = size;
+      String[] known = names;
+      int[] slots = table;
+      int mask = slots.length - 1;
+      
+      for (int slot = mix(hash) & mask; slots[slot] != EMPTY; slot = (slot + 1) & mask)
+      {
+         
+         int code = slots[slot];
+         
+         if (code < count && matches(known[code], bytes, start, end))
+         {
+            return code;
+         }
+         
+      }
+      
+      char[] chars = new char[end - start];
+      for (int i = 0; i < chars.length; ++i)
+      {
+         chars[i] = (char) (bytes.get(start + i) & 0xff);
+      }
+      
+      return this.add(new String(chars));
+      
+   }
+   
+   /**
+    * Determines whether a station ID equals bytes of one character each.
+    * 
+    * @param name The station ID.
+    * @param bytes Buffer holding the bytes.
+    * @param start Index of the first byte.
+    * @param end Index after the last byte.
+    * @return boolean true if they are equal
+    */
+   private static boolean matches(String name, ByteBuffer bytes, int start, int end)
+   {
+      
+      if (name == null || name.length() != end - start)
+      {
+         return false;
+      }
+      
+      for (int i = 0; i < name.length(); ++i)
+      {
+         if (name.charAt(i) != (bytes.get(start + i) & 0xff))
+         {
+            return false;
+         }
+      }
+      
+      return true;
+      
+   }
+   
+   /**
+    * Spreads the bits of a hash so that similar station IDs land in different slots.
+    * 
+    * @param hash The hash of a station ID.
+    * @return int spread hash
+    */
+   private static int mix(int hash)
+   {
+      
+      int h = hash * 0x9E3779B9;
+      
+      return h ^ (h >>> 16);
+      
+   }
+   
+   /**
+    * Returns the code of a station ID without adding it, or -1 if it has not been seen.
+    * 
+    * @param stid The ID of the station.
+    * @return int code for stid
+    */
+   public int indexOf(String stid)
+   {
+      
+      int count = size;
+      String[] known = names;
+      int[] slots = table;
+      int mask = slots.length - 1;
+      
+      for (int slot = mix(stid.hashCode()) & mask; slots[slot] != EMPTY; slot = (slot + 1) & mask)
+      {
+         
+         int code = slots[slot];
+         
+         if (code < count && stid.equals(known[code]))
+         {
+            return code;
+         }
+         
+      }
+      
+      return EMPTY;
+      
+   }
+   
+   /**
+    * Adds a station ID unless another thread added it first.
+    * 
+    * @param stid The ID of the station.
+    * @return int code for stid
+    */
+   private synchronized int add(String stid)
+   {
+      
+      int code = this.indexOf(stid);
+      
+      if (code != EMPTY)
+      {
+         return code;
+      }
+      
+      code = size;
+      
+      if (code == names.length)
+      {
+         names = Arrays.copyOf(names, code * 2);
+      }
+      names[code] = stid;
+      
+      if ((code + 1) * 2 > table.length)
+      {
+         
+         int[] grown = new int[table.length * 2];
+         Arrays.fill(grown, EMPTY);
+         for (int c = 0; c < code; ++c)
+         {
+            insert(grown, names[c], c);
+         }
+         insert(grown, stid, code);
+         table = grown;
+         
+      }
+      else
+      {
+         insert(table, stid, code);
+      }
+      
+      size = code + 1;
+      
+      return code;
+      
+   }
+   
+   /**
+    * Puts a code into the first free slot for its station ID.
+    * 
+    * @param slots The hash table.
+    * @param stid The ID of the station.
+    * @param code The code of the station.
+    */
+   private static void insert(int[] slots, String stid, int code)
+   {
+      
+      int mask = slots.length - 1;
+      int slot = mix(stid.hashCode()) & mask;
+      
+      while (slots[slot] != EMPTY)
+      {
+         slot = (slot + 1) & mask;
+      }
+      
+      slots[slot] = code;
+      
+   }
+   
+   /**
+    * Returns the station ID for a code.
+    * 
+    * @param code The code of the station.
+    * @return String station ID
+    */
+   public String decode(int code)
+   {
+      
+      if (code < 0 || code >= size)
+      {
+         throw new IndexOutOfBoundsException("No station with code " + code);
+      }
+      
+      return names[code];
+      
+   }
+   
+   /**
+    * Returns the number of station IDs held.
+    * 
+    * @return int number of stations
+    */
+   public int size()
+   {
+      return size;
+   }
+   
+}
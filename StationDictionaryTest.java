@@ -0,0 +1,147 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the StationDictionary class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StationDictionaryTest
+{
+   
+   @Test
+   /**
+    * Tests that codes are handed out in order and decode back to their station IDs.
+    */
+   public void testEncode() {
+      
+      StationDictionary test = new StationDictionary();
+      
+      Assert.assertEquals(0, test.encode("NRMN"));
+      Assert.assertEquals(1, test.encode("MIAM"));
+      Assert.assertEquals(0, test.encode("NRMN"));
+      Assert.assertEquals(-1, test.indexOf("ACME"));
+      Assert.assertEquals(2, test.size());
+      Assert.assertTrue(test.decode(1).equals("MIAM"));
+      
+      try
+      {
+         test.decode(2);
+         Assert.fail("Expected IndexOutOfBoundsException");
+      }
+      catch (IndexOutOfBoundsException e)
+      {
+         Assert.assertTrue(e.getMessage().contains("2"));
+      }
+      
+   }
+   
+   @Test
+   /**
+    * Tests that station IDs read from bytes get the same codes as from Strings, past the
+    * point where the table grows.
+    */
+   public void testEncodeBytes() {
+      
+      StationDictionary test = new StationDictionary();
+      ByteBuffer bytes = ByteBuffer.wrap("  ACME NRMN ".getBytes(StandardCharsets.US_ASCII));
+      
+      for (int i = 0; i < 1000; ++i)
+      {
+         Assert.assertEquals(i, test.encode("S" + i));
+      }
+      
+      int acme = test.encode(bytes, 2, 6);
+      Assert.assertEquals(1000, acme);
+      Assert.assertEquals(acme, test.encode("ACME"));
+      Assert.assertEquals(acme, test.encode(bytes, 2, 6));
+      Assert.assertEquals(test.encode("NRMN"), test.encode(bytes, 7, 11));
+      Assert.assertEquals(500, test.encode(ByteBuffer.wrap("S500".getBytes(StandardCharsets.US_ASCII)), 0, 4));
+      Assert.assertEquals(1002, test.size());
+      
+   }
+   
+   @Test
+   /**
+    * Tests that threads encoding the same stations at once agree on every code.
+    * 
+    * @throws Exception In case a thread fails.
+    */
+   public void testConcurrentEncode() throws Exception {
+      
+      StationDictionary test = new StationDictionary();
+      ExecutorService pool = Executors.newFixedThreadPool(4);
+      List<Future<int[]>> results = new ArrayList<>();
+      
+      try
+      {
+         
+         for (int t = 0; t < 4; ++t)
+         {
+            results.add(pool.submit(new Callable<int[]>()
+            {
+               public int[] call()
+               {
+                  int[] codes = new int[2000];
+                  for (int i = 0; i < codes.length; ++i)
+                  {
+                     codes[i] = test.encode("S" + i);
+                  }
+                  return codes;
+               }
+            }));
+         }
+         
+         int[] first = results.get(0).get();
+         for (Future<int[]> result : results)
+         {
+            Assert.assertArrayEquals(first, result.get());
+         }
+         
+         Assert.assertEquals(2000, test.size());
+         for (int i = 0; i < first.length; ++i)
+         {
+            Assert.assertTrue(test.decode(first[i]).equals("S" + i));
+         }
+         
+      }
+      finally
+      {
+         pool.shutdown();
+      }
+      
+   }
+   
+   @Test
+   /**
+    * Tests that parsed intervals and their statistics share the process-wide dictionary.
+    * 
+    * @throws Exception In case the data file cannot be read.
+    */
+   public void testShared() throws Exception {
+      
+      MapData mapData = new MapData(2017, 9, 25, 17, 45, "data");
+      mapData.parseFile();
+      
+      ObservationStore observations = mapData.getObservations();
+      Statistics max = mapData.getStatistics("TAIR", StatsType.MAXIMUM);
+      
+      Assert.assertTrue(observations.getStations() == StationDictionary.shared());
+      Assert.assertEquals(StationDictionary.shared().indexOf("BESS"), max.getStationId());
+      Assert.assertTrue(max.getStid().equals("BESS"));
+      Assert.assertEquals(observations.getStationCode(0), StationDictionary.shared().indexOf("ACME"));
+      
+   }
+   
+}
@@ -0,0 +1,308 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Assigns stations to user-defined groups, such as climate divisions or counties, and breaks
+ * the statistics of an interval down by group. A station may belong to any number of groups,
+ * and every group is aggregated in the same single pass over the interval's rows.
+ * 
+ * Groups are loaded from a file with one station per line: its ID followed by the names of
+ * its groups, separated by whitespace. Blank lines and anything after a # are ignored.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StationGroups
+{
+   
+   /**
+    * Groups of a station that belongs to none.
+    */
+   private static final int[] NO_GROUPS = new int[0];
+   
+   /**
+    * The statistics of every group for one interval.
+    */
+   public static final class Breakdown
+   {
+      
+      /**
+       * The groups broken down by.
+       */
+      private final StationGroups groups;
+      
+      /**
+       * The interval broken down.
+       */
+      private final MapDataSnapshot interval;
+      
+      /**
+       * Values of each group and parameter, at slot group * parameters + parameter.
+       */
+      private final StatisticsAccumulator accumulator;
+      
+      /**
+       * Constructor, initializes the breakdown.
+       * 
+       * @param groups The groups broken down by.
+       * @param interval The interval broken down.
+       * @param accumulator Values of each group and parameter.
+       */
+      private Breakdown(StationGroups groups, MapDataSnapshot interval, StatisticsAccumulator accumulator)
+      {
+         this.groups = groups;
+         this.interval = interval;
+         this.accumulator = accumulator;
+      }
+      
+      /**
+       * Returns a statistic of a parameter over the stations of a group. Averages and totals
+       * are reported at the group's name rather than a station.
+       * 
+       * @param group The name of the group.
+       * @param paramId The name of the parameter.
+       * @param type MINIMUM, MAXIMUM, AVERAGE, or TOTAL.
+       * @return Statistics of the group, or null if it has no valid values
+       */
+      public Statistics getStatistics(String group, String paramId, StatsType type)
+      {
+         
+         Integer index = groups.indexes.get(group);
+         int param = interval.getParameters().indexOf(paramId);
+         
+         if (index == null || param == ParameterRegistry.SKIP)
+         {
+            throw new IllegalArgumentException("Unknown group or parameter: " + group + ", " + paramId);
+         }
+         
+         int slot = index * interval.getParameters().size() + param;
+         int count = accumulator.getCount(slot);
+         long time = interval.getUTCEpochSecond();
+         ObservationStore observations = interval.getObservations();
+         
+         if (count == 0)
+         {
+            return null;
+         }
+         
+         switch (type)
+         {
+            case MINIMUM:
+               return new Statistics(accumulator.getMin(slot), observations.getStid(accumulator.getMinRow(slot)), time,
+                        count, type);
+            case MAXIMUM:
+               return new Statistics(accumulator.getMax(slot), observations.getStid(accumulator.getMaxRow(slot)), time,
+                        count, type);
+            case AVERAGE:
+               return new Statistics(accumulator.getAverage(slot), group, time, count, type);
+            case TOTAL:
+               return new Statistics(accumulator.getTotal(slot), group, time, count, type);
+            default:
+               throw new IllegalArgumentException("Groups do not hold " + type);
+         }
+         
+      }
+      
+      /**
+       * Returns the number of invalid values of a parameter among the stations of a group.
+       * 
+       * @param group The name of the group.
+       * @param paramId The name of the parameter.
+       * @return int invalid count
+       */
+      public int getInvalidCount(String group, String paramId)
+      {
+         
+         Integer index = groups.indexes.get(group);
+         int param = interval.getParameters().indexOf(paramId);
+         
+         if (index == null || param == ParameterRegistry.SKIP)
+         {
+            throw new IllegalArgumentException("Unknown group or parameter: " + group + ", " + paramId);
+         }
+         
+         return accumulator.getInvalidCount(index * interval.getParameters().size() + param);
+         
+      }
+      
+   }
+   
+   /**
+    * Names of the groups, in the order first seen.
+    */
+   private final List<String> names = new ArrayList<>();
+   
+   /**
+    * Index of each group, keyed by name.
+    */
+   private final HashMap<String, Integer> indexes = new HashMap<>();
+   
+   /**
+    * Indexes of the groups of each station, indexed by code in the shared StationDictionary.
+    * Stations in no group are null.
+    */
+   private int[][] stations = new int[0][];
+   
+   /**
+    * Constructor, initializes an empty set of groups.
+    */
+   public StationGroups()
+   {
+      /*
+       * stations are assigned with add or load.
+       */
+   }
+   
+   /**
+    * Returns the groups loaded from a station metadata file.
+    * 
+    * @param fileName The name of the file.
+    * @return StationGroups loaded
+    * @throws IOException In case the file cannot be read or a line has no group.
+    */
+   public static StationGroups load(String fileName) throws IOException
+   {
+      
+      StationGroups groups = new StationGroups();
+      
+      try (BufferedReader in = new BufferedReader(new FileReader(fileName)))
+      {
+         
+         String line;
+         int number = 0;
+         
+         while ((line = in.readLine()) != null)
+         {
+            
+            ++number;
+            int comment = line.indexOf('#');
+            String[] fields = (comment == -1 ? line : line.substring(0, comment)).trim().split("\\s+");
+            
+            if (fields[0].isEmpty())
+            {
+               continue;
+            }
+            
+            if (fields.length < 2)
+            {
+               throw new IOException(fileName + ":" + number + ": station " + fields[0] + " has no group");
+            }
+            
+            for (int i = 1; i < fields.length; ++i)
+            {
+               groups.add(fields[0], fields[i]);
+            }
+            
+         }
+         
+      }
+      
+      return groups;
+      
+   }
+   
+   /**
+    * Adds a station to a group, creating the group if it is new.
+    * 
+    * @param stid The ID of the station.
+    * @param group The name of the group.
+    */
+   public void add(String stid, String group)
+   {
+      
+      Integer index = indexes.get(group);
+      
+      if (index == null)
+      {
+         index = names.size();
+         names.add(group);
+         indexes.put(group, index);
+      }
+      
+      int code = StationDictionary.shared().encode(stid);
+      
+      if (code >= stations.length)
+      {
+         stations = Arrays.copyOf(stations, Math.max(code + 1, stations.length * 2));
+      }
+      
+      int[] current = stations[code] == null ? NO_GROUPS : stations[code];
+      
+      for (int g : current)
+      {
+         if (g == index)
+         {
+            return;
+         }
+      }
+      
+      int[] next = Arrays.copyOf(current, current.length + 1);
+      next[current.length] = index;
+      stations[code] = next;
+      
+   }
+   
+   /**
+    * Returns the names of the groups, in the order first seen.
+    * 
+    * @return List of group names
+    */
+   public List<String> getGroups()
+   {
+      return Collections.unmodifiableList(names);
+   }
+   
+   /**
+    * Breaks the statistics of an interval down by group in a single pass over its rows.
+    * Ties for minimum and maximum keep the earliest row, as for the whole network.
+    * 
+    * @param interval A parsed interval.
+    * @return Breakdown of every group
+    */
+   public Breakdown aggregate(MapDataSnapshot interval)
+   {
+      
+      ObservationStore observations = interval.getObservations();
+      int paramCount = observations.getParamCount();
+      StatisticsAccumulator accumulator = new StatisticsAccumulator(names.size() * paramCount);
+      
+      for (int i = 0; i < observations.size(); ++i)
+      {
+         
+         int code = observations.getStationCode(i);
+         
+         if (code == -1 || code >= stations.length || stations[code] == null)
+         {
+            continue;
+         }
+         
+         int[] groups = stations[code];
+         
+         for (int p = 0; p < paramCount; ++p)
+         {
+            
+            double value = observations.getValue(i, p);
+            boolean valid = observations.isValid(i, p);
+            
+            for (int g : groups)
+            {
+               accumulator.add(g * paramCount + p, i, value, valid);
+            }
+            
+         }
+         
+      }
+      
+      return new Breakdown(this, interval, accumulator);
+      
+   }
+   
+}
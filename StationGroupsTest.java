@@ -0,0 +1,86 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the StationGroups class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StationGroupsTest
+{
+   
+   @Test
+   /**
+    * Tests that groups are loaded from a file and that each group's statistics match those
+    * of its stations.
+    * 
+    * @throws IOException
+    */
+   public void testAggregate() throws IOException {
+      
+      File file = File.createTempFile("groups", ".txt");
+      file.deleteOnExit();
+      PrintWriter out = new PrintWriter(file);
+      out.println("# climate divisions and counties");
+      out.println("ACME  SOUTHWEST GRADY");
+      out.println("ALTU  SOUTHWEST   # Jackson county");
+      out.println();
+      out.println("ALV2  NORTHWEST");
+      out.println("BESS  WESTCENTRAL");
+      out.println("ADAX  SOUTHEAST");
+      out.close();
+      
+      StationGroups groups = StationGroups.load(file.getPath());
+      
+      Assert.assertEquals("[SOUTHWEST, GRADY, NORTHWEST, WESTCENTRAL, SOUTHEAST]", groups.getGroups().toString());
+      
+      MapData mapData = new MapData(2017, 9, 25, 17, 45, "data");
+      mapData.parseFile();
+      StationGroups.Breakdown test = groups.aggregate(mapData.getSnapshot());
+      
+      Statistics max = test.getStatistics("SOUTHWEST", MapData.TAIR_ID, StatsType.MAXIMUM);
+      Assert.assertEquals(max.getValue(), 33.7, .01);
+      Assert.assertTrue(max.getStid().equals("ALTU"));
+      Assert.assertEquals(2, max.getNumberOfReportingStations());
+      
+      Assert.assertEquals(test.getStatistics("SOUTHWEST", MapData.SRAD_ID, StatsType.TOTAL).getValue(), 1701.0, .1);
+      Assert.assertEquals(test.getStatistics("SOUTHWEST", MapData.SRAD_ID, StatsType.AVERAGE).getValue(), 850.5, .1);
+      Assert.assertTrue(test.getStatistics("GRADY", MapData.TA9M_ID, StatsType.MINIMUM).getStid().equals("ACME"));
+      Assert.assertEquals(test.getStatistics("NORTHWEST", MapData.SRAD_ID, StatsType.MINIMUM).getValue(), 639.0, .1);
+      Assert.assertEquals(0, test.getInvalidCount("WESTCENTRAL", MapData.TAIR_ID));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that a station listed without a group is rejected.
+    * 
+    * @throws IOException
+    */
+   public void testMissingGroup() throws IOException {
+      
+      File file = File.createTempFile("groups", ".txt");
+      file.deleteOnExit();
+      PrintWriter out = new PrintWriter(file);
+      out.println("ACME");
+      out.close();
+      
+      try
+      {
+         StationGroups.load(file.getPath());
+         Assert.fail("Expected IOException");
+      }
+      catch (IOException e)
+      {
+         Assert.assertTrue(e.getMessage().endsWith("station ACME has no group"));
+      }
+      
+   }
+
+}
@@ -0,0 +1,477 @@
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indexes the valid observations of every station by time, one series of primitive
+ * timestamps and values per station and parameter, so that a station's data over any
+ * window can be found with a binary search instead of parsing every file.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StationTimeSeriesIndex
+{
+   
+   /**
+    * The observations of one parameter at one station, in time order.
+    */
+   private static final class Series
+   {
+      
+      /**
+       * Number of observations room is made for before the first resize.
+       */
+      private static final int INITIAL_CAPACITY = 64;
+      
+      /**
+       * Time of each observation, in seconds since 1970-01-01 UTC.
+       */
+      private long[] times = new long[INITIAL_CAPACITY];
+      
+      /**
+       * Value of each observation.
+       */
+      private double[] values = new double[INITIAL_CAPACITY];
+      
+      /**
+       * Total of the values before each index, so prefix[i] is the sum of values[0..i-1].
+       */
+      private double[] prefix = new double[INITIAL_CAPACITY + 1];
+      
+      /**
+       * Number of observations held.
+       */
+      private int size;
+      
+      /**
+       * Adds an observation, keeping the series in time order. Adding in time order is
+       * constant time; an earlier time is inserted in place.
+       * 
+       * @param time Time of the observation.
+       * @param value Value of the observation.
+       */
+      private void add(long time, double value)
+      {
+         
+         if (size == times.length)
+         {
+            times = Arrays.copyOf(times, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+            prefix = Arrays.copyOf(prefix, size * 2 + 1);
+         }
+         
+         int index = size;
+         
+         if (size > 0 && times[size - 1] > time)
+         {
+            index = this.lowerBound(time);
+            System.arraycopy(times, index, times, index + 1, size - index);
+            System.arraycopy(values, index, values, index + 1, size - index);
+         }
+         
+         times[index] = time;
+         values[index] = value;
+         ++size;
+         
+         for (int i = index; i < size; ++i)
+         {
+            prefix[i + 1] = prefix[i] + values[i];
+         }
+         
+      }
+      
+      /**
+       * Returns the index of the first observation at or after a time.
+       * 
+       * @param time The time to search for.
+       * @return int index, or size if every observation is earlier
+       */
+      private int lowerBound(long time)
+      {
+         
+         int low = 0;
+         int high = size;
+         
+         while (low < high)
+         {
+            int middle = (low + high) >>> 1;
+            if (times[middle] < time)
+            {
+               low = middle + 1;
+            }
+            else
+            {
+               high = middle;
+            }
+         }
+         
+         return low;
+         
+      }
+      
+      /**
+       * Returns the index of the first observation after a time. Unlike lowerBound(time + 1)
+       * it cannot overflow, so Long.MAX_VALUE ends a range with every observation.
+       * 
+       * @param time The time to search for.
+       * @return int index, or size if no observation is later
+       */
+      private int upperBound(long time)
+      {
+         
+         int low = 0;
+         int high = size;
+         
+         while (low < high)
+         {
+            int middle = (low + high) >>> 1;
+            if (times[middle] <= time)
+            {
+               low = middle + 1;
+            }
+            else
+            {
+               high = middle;
+            }
+         }
+         
+         return low;
+         
+      }
+      
+   }
+   
+   /**
+    * Series of each station, indexed by code in the shared StationDictionary then parameter
+    * slot. Stations with no series are null.
+    */
+   private Series[][] stations = new Series[0][];
+   
+   /**
+    * Parameters indexed.
+    */
+   private final ParameterRegistry parameters;
+   
+   /**
+    * Lets many queries run at once while intervals are added one at a time.
+    */
+   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+   
+   /**
+    * Constructor, initializes an empty index.
+    * 
+    * @param parameters The parameters to index, such as TAIR and SRAD.
+    */
+   public StationTimeSeriesIndex(ParameterRegistry parameters)
+   {
+      this.parameters = parameters;
+   }
+   
+   /**
+    * Adds the valid observations of an interval. Parameters of the interval that are not
+    * indexed are ignored.
+    * 
+    * @param interval A parsed interval.
+    */
+   public void add(MapDataSnapshot interval)
+   {
+      
+      ObservationStore observations = interval.getObservations();
+      long time = interval.getUTCEpochSecond();
+      int[] columns = new int[parameters.size()];
+      
+      for (int p = 0; p < columns.length; ++p)
+      {
+         columns[p] = observations.indexOf(parameters.getParamId(p));
+      }
+      
+      lock.writeLock().lock();
+      
+      try
+      {
+         
+         for (int i = 0; i < observations.size(); ++i)
+         {
+            
+            int code = observations.getStationCode(i);
+            
+            if (code == -1)
+            {
+               continue;
+            }
+            
+            if (code >= stations.length)
+            {
+               stations = Arrays.copyOf(stations, Math.max(code + 1, stations.length * 2));
+            }
+            
+            Series[] series = stations[code];
+            
+            if (series == null)
+            {
+               series = new Series[columns.length];
+               for (int p = 0; p < columns.length; ++p)
+               {
+                  series[p] = new Series();
+               }
+               stations[code] = series;
+            }
+            
+            for (int p = 0; p < columns.length; ++p)
+            {
+               if (columns[p] != -1 && observations.isValid(i, columns[p]))
+               {
+                  series[p].add(time, observations.getValue(i, columns[p]));
+               }
+            }
+            
+         }
+         
+      }
+      finally
+      {
+         lock.writeLock().unlock();
+      }
+      
+   }
+   
+   /**
+    * Returns the series of a station and parameter, or null if there is none.
+    * 
+    * @param stid The ID of the station.
+    * @param paramId The name of the parameter.
+    * @return Series for stid and paramId
+    */
+   private Series series(String stid, String paramId)
+   {
+      
+      int slot = parameters.indexOf(paramId);
+      
+      if (slot == ParameterRegistry.SKIP)
+      {
+         throw new IllegalArgumentException(paramId + " is not indexed");
+      }
+      
+      int code = StationDictionary.shared().indexOf(stid);
+      Series[] series = code == -1 || code >= stations.length ? null : stations[code];
+      
+      return series == null ? null : series[slot];
+      
+   }
+   
+   /**
+    * Returns the IDs of every station indexed, in order.
+    * 
+    * @return Set of station IDs
+    */
+   public Set<String> getStations()
+   {
+      
+      lock.readLock().lock();
+      
+      try
+      {
+         
+         TreeSet<String> stids = new TreeSet<>();
+         
+         for (int code = 0; code < stations.length; ++code)
+         {
+            if (stations[code] != null)
+            {
+               stids.add(StationDictionary.shared().decode(code));
+            }
+         }
+         
+         return stids;
+         
+      }
+      finally
+      {
+         lock.readLock().unlock();
+      }
+      
+   }
+   
+   /**
+    * Returns the number of valid observations of a parameter at a station from start to
+    * end, both inclusive.
+    * 
+    * @param stid The ID of the station.
+    * @param paramId The name of the parameter.
+    * @param start Start of the window, in seconds since 1970-01-01 UTC.
+    * @param end End of the window, in seconds since 1970-01-01 UTC.
+    * @return int number of observations
+    */
+   public int count(String stid, String paramId, long start, long end)
+   {
+      
+      lock.readLock().lock();
+      
+      try
+      {
+         Series series = this.series(stid, paramId);
+         return series == null ? 0 : Math.max(0, series.upperBound(end) - series.lowerBound(start));
+      }
+      finally
+      {
+         lock.readLock().unlock();
+      }
+      
+   }
+   
+   /**
+    * Returns the times of the valid observations of a parameter at a station from start to
+    * end, both inclusive.
+    * 
+    * @param stid The ID of the station.
+    * @param paramId The name of the parameter.
+    * @param start Start of the window, in seconds since 1970-01-01 UTC.
+    * @param end End of the window, in seconds since 1970-01-01 UTC.
+    * @return long[] times in order
+    */
+   public long[] getTimes(String stid, String paramId, long start, long end)
+   {
+      
+      lock.readLock().lock();
+      
+      try
+      {
+         
+         Series series = this.series(stid, paramId);
+         
+         if (series == null || end < start)
+         {
+            return new long[0];
+         }
+         
+         return Arrays.copyOfRange(series.times, series.lowerBound(start), series.upperBound(end));
+         
+      }
+      finally
+      {
+         lock.readLock().unlock();
+      }
+      
+   }
+   
+   /**
+    * Returns the values of the valid observations of a parameter at a station from start to
+    * end, both inclusive, in time order.
+    * 
+    * @param stid The ID of the station.
+    * @param paramId The name of the parameter.
+    * @param start Start of the window, in seconds since 1970-01-01 UTC.
+    * @param end End of the window, in seconds since 1970-01-01 UTC.
+    * @return double[] values in time order
+    */
+   public double[] getValues(String stid, String paramId, long start, long end)
+   {
+      
+      lock.readLock().lock();
+      
+      try
+      {
+         
+         Series series = this.series(stid, paramId);
+         
+         if (series == null || end < start)
+         {
+            return new double[0];
+         }
+         
+         return Arrays.copyOfRange(series.values, series.lowerBound(start), series.upperBound(end));
+         
+      }
+      finally
+      {
+         lock.readLock().unlock();
+      }
+      
+   }
+   
+   /**
+    * Returns a statistic of a parameter at a station over a window from start to end, both
+    * inclusive. Averages and totals come from running sums; minimums, maximums, and
+    * quantiles scan only the observations in the window. The statistic is dated
+    * at the end of the window.
+    * 
+    * @param stid The ID of the station.
+    * @param paramId The name of the parameter.
+    * @param start Start of the window, in seconds since 1970-01-01 UTC.
+    * @param end End of the window, in seconds since 1970-01-01 UTC.
+    * @param type The type of statistic.
+    * @return Statistics for the window, or null if the station has no valid observations in it
+    */
+   public Statistics getStatistics(String stid, String paramId, long start, long end, StatsType type)
+   {
+      
+      lock.readLock().lock();
+      
+      try
+      {
+         
+         Series series = this.series(stid, paramId);
+         
+         if (series == null || end < start)
+         {
+            return null;
+         }
+         
+         int from = series.lowerBound(start);
+         int to = series.upperBound(end);
+         int count = to - from;
+         
+         if (count == 0)
+         {
+            return null;
+         }
+         
+         double value;
+         
+         switch (type)
+         {
+            case TOTAL:
+               value = series.prefix[to] - series.prefix[from];
+               break;
+            case AVERAGE:
+               value = (series.prefix[to] - series.prefix[from]) / count;
+               break;
+            case MINIMUM:
+               value = series.values[from];
+               for (int i = from + 1; i < to; ++i)
+               {
+                  value = Math.min(value, series.values[i]);
+               }
+               break;
+            case MAXIMUM:
+               value = series.values[from];
+               for (int i = from + 1; i < to; ++i)
+               {
+                  value = Math.max(value, series.values[i]);
+               }
+               break;
+            default:
+               QuantileSketch sketch = new QuantileSketch();
+               for (int i = from; i < to; ++i)
+               {
+                  sketch.add(series.values[i]);
+               }
+               value = sketch.getQuantile(type);
+               break;
+         }
+         
+         return new Statistics(value, stid, end, count, type);
+         
+      }
+      finally
+      {
+         lock.readLock().unlock();
+      }
+      
+   }
+   
+}
@@ -0,0 +1,85 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the StationTimeSeriesIndex class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StationTimeSeriesIndexTest
+{
+   
+   /**
+    * Builds an interval with a TAIR reading at two stations.
+    * 
+    * @param time Time of the interval, in seconds since 1970-01-01 UTC.
+    * @param nrmn TAIR at NRMN.
+    * @param okcw TAIR at OKCW.
+    * @return MapDataSnapshot of the interval
+    */
+   private static MapDataSnapshot interval(long time, double nrmn, double okcw)
+   {
+      
+      ObservationStore store = new ObservationStore("TAIR");
+      store.setValue(store.addRow("NRMN"), 0, nrmn);
+      store.setValue(store.addRow("OKCW"), 0, okcw);
+      
+      return MapData.fromObservations(time, store, "test").getSnapshot();
+      
+   }
+   
+   @Test
+   /**
+    * Tests range lookups and statistics over windows, including an interval added out of
+    * order and an invalid reading that is left out.
+    */
+   public void testWindows() {
+      
+      StationTimeSeriesIndex index = new StationTimeSeriesIndex(new ParameterRegistry("TAIR"));
+      
+      index.add(interval(0, 10.0, 1.0));
+      index.add(interval(600, 30.0, -999.0));
+      index.add(interval(300, 20.0, 2.0));
+      index.add(interval(900, 40.0, 4.0));
+      
+      Assert.assertEquals(4, index.count("NRMN", "TAIR", 0, 900));
+      Assert.assertEquals(2, index.count("NRMN", "TAIR", 1, 600));
+      Assert.assertEquals(3, index.count("OKCW", "TAIR", 0, 900));
+      Assert.assertEquals(0, index.count("ACME", "TAIR", 0, 900));
+      
+      Assert.assertArrayEquals(new long[] {300, 600}, index.getTimes("NRMN", "TAIR", 1, 600));
+      Assert.assertArrayEquals(new double[] {20.0, 30.0}, index.getValues("NRMN", "TAIR", 1, 600), 0);
+      
+      Assert.assertEquals(index.getStatistics("NRMN", "TAIR", 300, 900, StatsType.AVERAGE).getValue(), 30.0, .1);
+      Assert.assertEquals(index.getStatistics("NRMN", "TAIR", 300, 900, StatsType.TOTAL).getValue(), 90.0, .1);
+      Assert.assertEquals(index.getStatistics("NRMN", "TAIR", 300, 600, StatsType.MAXIMUM).getValue(), 30.0, .1);
+      Assert.assertEquals(index.getStatistics("OKCW", "TAIR", 0, 900, StatsType.MINIMUM).getValue(), 1.0, .1);
+      Assert.assertEquals(index.getStatistics("OKCW", "TAIR", 0, 900, StatsType.AVERAGE).getNumberOfReportingStations(), 3);
+      Assert.assertNull(index.getStatistics("OKCW", "TAIR", 600, 600, StatsType.AVERAGE));
+      
+      Assert.assertEquals("[NRMN, OKCW]", index.getStations().toString());
+      
+   }
+   
+   @Test
+   /**
+    * Tests that a window ending at Long.MAX_VALUE holds every observation from its start.
+    */
+   public void testOpenEndedWindow() {
+      
+      StationTimeSeriesIndex index = new StationTimeSeriesIndex(new ParameterRegistry("TAIR"));
+      
+      index.add(interval(0, 10.0, 1.0));
+      index.add(interval(300, 20.0, 2.0));
+      
+      Assert.assertEquals(2, index.count("NRMN", "TAIR", Long.MIN_VALUE, Long.MAX_VALUE));
+      Assert.assertArrayEquals(new long[] {300}, index.getTimes("NRMN", "TAIR", 1, Long.MAX_VALUE));
+      Assert.assertArrayEquals(new double[] {10.0, 20.0}, index.getValues("NRMN", "TAIR", 0, Long.MAX_VALUE), 0);
+      Assert.assertEquals(index.getStatistics("NRMN", "TAIR", 0, Long.MAX_VALUE, StatsType.MAXIMUM).getValue(), 20.0, .1);
+      
+   }
+
+}
@@ -18,9 +18,9 @@ public class Statistics extends Observation implements DateTimeComparable
    protected String DATE_TIME_FORMAT = "yyyy-MM-dd'T'HH:mm:ss z";
    
    /**
-    * Holds the date and time for the statistic.
+    * Holds the date and time for the statistic, in seconds since 1970-01-01 UTC.
     */
-   private GregorianCalendar utcDateTime;
+   private long utcDateTime;
    
    /**
     * Holds the number of stations that reported valid data for this statistic.
@@ -47,7 +47,7 @@ public class Statistics extends Observation implements DateTimeComparable
       super(value, stid);
       this.numberOfReportingStations = numberOfValidStations;
       this.statType = inStatType;
-      this.utcDateTime = this.createDateFromString(timeDateStr);
+      this.utcDateTime = EpochTime.parse(timeDateStr);
       this.statType = inStatType;
       
    }
@@ -67,7 +67,26 @@ public class Statistics extends Observation implements DateTimeComparable
       super(value, stid);
       this.numberOfReportingStations = numberOfValidStations;
       this.statType = inStatType;
-      this.utcDateTime = dateTime;
+      this.utcDateTime = EpochTime.fromCalendar(dateTime);
+      this.statType = inStatType;
+      
+   }
+   
+   /**
+    * Constructor that takes date and time as seconds since 1970-01-01 UTC.
+    * 
+    * @param value The value of the statistic.
+    * @param stid The station ID where the statistic was gathered.
+    * @param epochSecond The date and time the statistic was gathered, as an EpochTime.
+    * @param numberOfValidStations The number of stations reporting valid information.
+    * @param inStatType The type of statistic.
+    */
+   public Statistics(double value, String stid, long epochSecond, int numberOfValidStations, StatsType inStatType)
+   {
+      
+      super(value, stid);
+      this.numberOfReportingStations = numberOfValidStations;
+      this.utcDateTime = epochSecond;
       this.statType = inStatType;
       
    }
@@ -81,30 +100,7 @@ public class Statistics extends Observation implements DateTimeComparable
     */
    public GregorianCalendar createDateFromString(String dateTimeStr)
    {
-      
-      int year;
-      int month;
-      int day;
-      int hour;
-      int minute;
-      int second;
-      
-      String[] temp = dateTimeStr.split("'T'");
-      
-      String[] date = temp[0].split("-");
-      year = Integer.parseInt(date[0]);
-      month = Integer.parseInt(date[1]);
-      day = Integer.parseInt(date[2]);
-      
-      String[] temp2 = temp[1].split(" ");
-      String[] time = temp2[0].split(":");
-      hour = Integer.parseInt(time[0]);
-      minute = Integer.parseInt(time[1]);
-      second = Integer.parseInt(time[2]);
-      
-      GregorianCalendar date1 = new GregorianCalendar(year, month, day, hour, minute, second);
-      
-      return date1;
+      return EpochTime.toCalendar(EpochTime.parse(dateTimeStr));
    }
    
    /**
@@ -116,8 +112,13 @@ public class Statistics extends Observation implements DateTimeComparable
     */
    public String createStringFromDate(GregorianCalendar calendar)
    {
-      return String.format("%04d-%02d-%02d'T'%02d:%02d:%02d z", calendar.get(1), calendar.get(2),
-               calendar.get(5), calendar.get(11), calendar.get(12), calendar.get(13));
+      
+      char[] out = new char[EpochTime.FORMATTED_LENGTH];
+      EpochTime.format(calendar.get(1), calendar.get(2), calendar.get(5), calendar.get(11), calendar.get(12),
+               calendar.get(13), out, 0);
+      
+      return new String(out);
+      
    }
    
    /**
@@ -137,15 +138,25 @@ public class Statistics extends Observation implements DateTimeComparable
     */
    public String getUTCDateTimeString()
    {
-      return this.createStringFromDate(utcDateTime);
+      return EpochTime.format(utcDateTime);
    }
    
    /**
-    * Returns the calendar for the date and time for the statistic.
+    * Returns a new calendar for the date and time for the statistic.
     * 
-    * @return GregorianCalendar utcDateTime
+    * @return GregorianCalendar built from utcDateTime
     */
    public GregorianCalendar getUTCCalendar()
+   {
+      return EpochTime.toCalendar(utcDateTime);
+   }
+   
+   /**
+    * Returns the date and time for the statistic in seconds since 1970-01-01 UTC.
+    * 
+    * @return long utcDateTime
+    */
+   public long getUTCEpochSecond()
    {
       return utcDateTime;
    }
@@ -169,7 +180,7 @@ public class Statistics extends Observation implements DateTimeComparable
     */
    public boolean newerThan(GregorianCalendar inDateTimeUTC) {
 
-      return this.utcDateTime.compareTo(inDateTimeUTC) > 0;
+      return this.newerThan(EpochTime.fromCalendar(inDateTimeUTC));
       
    }
 
@@ -182,7 +193,7 @@ public class Statistics extends Observation implements DateTimeComparable
     */
    public boolean olderThan(GregorianCalendar inDateTimeUTC) {
 
-      return this.utcDateTime.compareTo(inDateTimeUTC) < 0;
+      return this.olderThan(EpochTime.fromCalendar(inDateTimeUTC));
       
    }
 
@@ -195,7 +206,46 @@ public class Statistics extends Observation implements DateTimeComparable
     */
    public boolean sameAs(GregorianCalendar inDateTimeUTC) {
 
-      return this.utcDateTime.compareTo(inDateTimeUTC) == 0;
+      return this.sameAs(EpochTime.fromCalendar(inDateTimeUTC));
+      
+   }
+   
+   @Override
+   /**
+    * Returns true if the date and time of this statistic is newer than the parameter
+    * date, false if not.
+    * 
+    * @return boolean true if newer, false if not
+    */
+   public boolean newerThan(long inEpochSecond) {
+
+      return this.utcDateTime > inEpochSecond;
+      
+   }
+
+   @Override
+   /**
+    * Returns true if the date and time of this statistic is older than the parameter
+    * date, false if not.
+    * 
+    * @return boolean true if older, false if not
+    */
+   public boolean olderThan(long inEpochSecond) {
+
+      return this.utcDateTime < inEpochSecond;
+      
+   }
+
+   @Override
+   /**
+    * Returns true if the date and time of this statistic is equal to that of the
+    * parameter date, false if not.
+    * 
+    * @return boolean true if equal, false if not
+    */
+   public boolean sameAs(long inEpochSecond) {
+
+      return this.utcDateTime == inEpochSecond;
       
    }
    
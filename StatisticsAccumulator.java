@@ -0,0 +1,366 @@
+import java.util.Arrays;
+
+/**
+ * Keeps the running minimum, maximum, total, and counts for a number of parameters, so that
+ * every parameter's statistics are gathered in the same single pass over the data. Nothing
+ * is allocated per value.
+ * 
+ * Totals are summed one block of BLOCK_SIZE rows at a time and the block totals are then
+ * added in order, so accumulators for consecutive ranges of blocks can be filled on separate
+ * threads and merged into exactly the totals a single pass would give.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StatisticsAccumulator
+{
+   
+   /**
+    * Number of rows summed together before being added to a total.
+    */
+   public static final int BLOCK_SIZE = 1024;
+   
+   /**
+    * Number of bits a row is shifted right by to give its block.
+    */
+   private static final int BLOCK_SHIFT = 10;
+   
+   /**
+    * Smallest valid value of each parameter.
+    */
+   private double[] min;
+   
+   /**
+    * Largest valid value of each parameter.
+    */
+   private double[] max;
+   
+   /**
+    * Row the smallest valid value of each parameter was found in, or -1.
+    */
+   private int[] minRow;
+   
+   /**
+    * Row the largest valid value of each parameter was found in, or -1.
+    */
+   private int[] maxRow;
+   
+   /**
+    * Total of the valid values of each parameter in each block, indexed by parameter then
+    * block less firstBlock.
+    */
+   private double[][] blockTotals;
+   
+   /**
+    * Block of the first row added, or -1 if none has been.
+    */
+   private int firstBlock;
+   
+   /**
+    * Number of blocks from firstBlock to the last one a row was added to.
+    */
+   private int blockCount;
+   
+   /**
+    * Number of valid values of each parameter.
+    */
+   private int[] count;
+   
+   /**
+    * Number of invalid values of each parameter.
+    */
+   private int[] invalid;
+   
+   /**
+    * Constructor, initializes the running values for each parameter.
+    * 
+    * @param paramCount The number of parameters accumulated.
+    */
+   public StatisticsAccumulator(int paramCount)
+   {
+      
+      min = new double[paramCount];
+      max = new double[paramCount];
+      minRow = new int[paramCount];
+      maxRow = new int[paramCount];
+      blockTotals = new double[paramCount][1];
+      count = new int[paramCount];
+      invalid = new int[paramCount];
+      
+      this.clear();
+      
+   }
+   
+   /**
+    * Resets the running values of every parameter.
+    */
+   public void clear()
+   {
+      
+      Arrays.fill(min, Integer.MAX_VALUE);
+      Arrays.fill(max, Integer.MIN_VALUE);
+      Arrays.fill(minRow, -1);
+      Arrays.fill(maxRow, -1);
+      for (double[] totals : blockTotals)
+      {
+         Arrays.fill(totals, 0);
+      }
+      firstBlock = -1;
+      blockCount = 0;
+      Arrays.fill(count, 0);
+      Arrays.fill(invalid, 0);
+      
+   }
+   
+   /**
+    * Adds a value of a parameter. Ties for minimum and maximum keep the earliest row.
+    * 
+    * @param param The index of the parameter.
+    * @param row The row the value was found in.
+    * @param value The value of the observation.
+    */
+   public void add(int param, int row, double value)
+   {
+      this.add(param, row, value, Observation.isValidValue(value));
+   }
+   
+   /**
+    * Adds a value of a parameter whose validity is already known. Ties for minimum and
+    * maximum keep the earliest row. Rows must be added in increasing order.
+    * 
+    * @param param The index of the parameter.
+    * @param row The row the value was found in.
+    * @param value The value of the observation.
+    * @param valid Whether the value is valid.
+    */
+   public void add(int param, int row, double value, boolean valid)
+   {
+      
+      if (valid)
+      {
+         
+         int block = (row >> BLOCK_SHIFT) - firstBlock;
+         
+         if (firstBlock == -1 || block >= blockCount)
+         {
+            block = this.startBlock(row);
+         }
+         
+         blockTotals[param][block] += value;
+         ++count[param];
+         
+         if (value < min[param])
+         {
+            min[param] = value;
+            minRow[param] = row;
+         }
+         
+         if (value > max[param])
+         {
+            max[param] = value;
+            maxRow[param] = row;
+         }
+         
+      }
+      else
+      {
+         ++invalid[param];
+      }
+      
+   }
+   
+   /**
+    * Makes room for the block of a row, the first time a valid value is added to it.
+    * 
+    * @param row The row being added.
+    * @return int index of the block in blockTotals
+    */
+   private int startBlock(int row)
+   {
+      
+      if (firstBlock == -1)
+      {
+         firstBlock = row >> BLOCK_SHIFT;
+      }
+      
+      int block = (row >> BLOCK_SHIFT) - firstBlock;
+      
+      if (block < 0)
+      {
+         throw new IllegalArgumentException("Row " + row + " is before the first block added");
+      }
+      
+      if (block >= blockTotals[0].length)
+      {
+         for (int p = 0; p < blockTotals.length; ++p)
+         {
+            blockTotals[p] = Arrays.copyOf(blockTotals[p], Math.max(block + 1, blockTotals[p].length * 2));
+         }
+      }
+      
+      blockCount = block + 1;
+      
+      return block;
+      
+   }
+   
+   /**
+    * Merges the values of an accumulator holding only later rows into this one, as if its
+    * rows had been added here. Its first row must start a block that is after every block
+    * of this one, which keeps the totals exactly as a single pass would give them.
+    * 
+    * @param later An accumulator of the same parameters holding only later rows.
+    */
+   public void merge(StatisticsAccumulator later)
+   {
+      
+      if (later.blockTotals.length != blockTotals.length)
+      {
+         throw new IllegalArgumentException("Cannot merge accumulators of different parameters");
+      }
+      
+      if (later.firstBlock != -1)
+      {
+         
+         if (firstBlock == -1)
+         {
+            firstBlock = later.firstBlock;
+         }
+         else if (later.firstBlock < firstBlock + blockCount)
+         {
+            throw new IllegalArgumentException("Merged rows must start in a later block");
+         }
+         
+         int last = this.startBlock((later.firstBlock + later.blockCount - 1) << BLOCK_SHIFT);
+         int offset = last - later.blockCount + 1;
+         
+         for (int p = 0; p < blockTotals.length; ++p)
+         {
+            System.arraycopy(later.blockTotals[p], 0, blockTotals[p], offset, later.blockCount);
+         }
+         
+      }
+      
+      for (int p = 0; p < blockTotals.length; ++p)
+      {
+         
+         //on ties the earlier row wins, as it would have in a single pass
+         if (later.min[p] < min[p])
+         {
+            min[p] = later.min[p];
+            minRow[p] = later.minRow[p];
+         }
+         
+         if (later.max[p] > max[p])
+         {
+            max[p] = later.max[p];
+            maxRow[p] = later.maxRow[p];
+         }
+         
+         count[p] += later.count[p];
+         invalid[p] += later.invalid[p];
+         
+      }
+      
+   }
+   
+   /**
+    * Returns the smallest valid value of a parameter.
+    * 
+    * @param param The index of the parameter.
+    * @return double minimum
+    */
+   public double getMin(int param)
+   {
+      return min[param];
+   }
+   
+   /**
+    * Returns the largest valid value of a parameter.
+    * 
+    * @param param The index of the parameter.
+    * @return double maximum
+    */
+   public double getMax(int param)
+   {
+      return max[param];
+   }
+   
+   /**
+    * Returns the row of the smallest valid value of a parameter, or -1 if there is none.
+    * 
+    * @param param The index of the parameter.
+    * @return int row of the minimum
+    */
+   public int getMinRow(int param)
+   {
+      return minRow[param];
+   }
+   
+   /**
+    * Returns the row of the largest valid value of a parameter, or -1 if there is none.
+    * 
+    * @param param The index of the parameter.
+    * @return int row of the maximum
+    */
+   public int getMaxRow(int param)
+   {
+      return maxRow[param];
+   }
+   
+   /**
+    * Returns the total of the valid values of a parameter.
+    * 
+    * @param param The index of the parameter.
+    * @return double total
+    */
+   public double getTotal(int param)
+   {
+      
+      double total = 0;
+      
+      for (int i = 0; i < blockCount; ++i)
+      {
+         total += blockTotals[param][i];
+      }
+      
+      return total;
+      
+   }
+   
+   /**
+    * Returns the average of the valid values of a parameter.
+    * 
+    * @param param The index of the parameter.
+    * @return double average
+    */
+   public double getAverage(int param)
+   {
+      return this.getTotal(param) / count[param];
+   }
+   
+   /**
+    * Returns the number of valid values of a parameter.
+    * 
+    * @param param The index of the parameter.
+    * @return int count
+    */
+   public int getCount(int param)
+   {
+      return count[param];
+   }
+   
+   /**
+    * Returns the number of invalid values of a parameter.
+    * 
+    * @param param The index of the parameter.
+    * @return int invalid count
+    */
+   public int getInvalidCount(int param)
+   {
+      return invalid[param];
+   }
+   
+}
@@ -0,0 +1,65 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the StatisticsAccumulator class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StatisticsAccumulatorTest
+{
+   
+   @Test
+   /**
+    * Tests that each parameter keeps its own minimum, maximum, total, and counts.
+    */
+   public void testAdd() {
+      
+      StatisticsAccumulator test = new StatisticsAccumulator(2);
+      
+      test.add(0, 0, 31.4);
+      test.add(1, 0, 639.0);
+      test.add(0, 1, 35.3);
+      test.add(1, 1, -996);
+      test.add(0, 2, 33.8);
+      test.add(1, 2, 899.0);
+      
+      Assert.assertEquals(test.getMin(0), 31.4, .1);
+      Assert.assertEquals(0, test.getMinRow(0));
+      Assert.assertEquals(test.getMax(0), 35.3, .1);
+      Assert.assertEquals(1, test.getMaxRow(0));
+      Assert.assertEquals(test.getAverage(0), 33.5, .1);
+      Assert.assertEquals(3, test.getCount(0));
+      
+      Assert.assertEquals(test.getTotal(1), 1538.0, .1);
+      Assert.assertEquals(2, test.getCount(1));
+      Assert.assertEquals(1, test.getInvalidCount(1));
+      Assert.assertEquals(2, test.getMaxRow(1));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that ties for minimum and maximum keep the earliest row.
+    */
+   public void testTies() {
+      
+      StatisticsAccumulator test = new StatisticsAccumulator(1);
+      
+      test.add(0, 0, 20.0);
+      test.add(0, 1, 20.0);
+      
+      Assert.assertEquals(0, test.getMinRow(0));
+      Assert.assertEquals(0, test.getMaxRow(0));
+      
+      test.clear();
+      
+      Assert.assertEquals(0, test.getCount(0));
+      Assert.assertEquals(-1, test.getMinRow(0));
+      
+   }
+
+}
@@ -0,0 +1,338 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Streams statistics to CSV or JSON Lines, one row per statistic. Each row is built in a
+ * StringBuilder and copied into a char array, both reused for every row, and written
+ * through a buffered writer, so exporting many intervals creates little garbage. Values
+ * that are not finite are written as an empty field in CSV and as null in JSON. Only the
+ * average, minimum, maximum, and total are exported unless the quantiles are asked for,
+ * since each interval would otherwise build a quantile sketch per parameter.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StatisticsExporter implements Closeable, Flushable
+{
+   
+   /**
+    * Formats statistics can be exported in.
+    */
+   public enum Format
+   {
+      CSV, JSON_LINES
+   }
+   
+   /**
+    * Header row written first in CSV.
+    */
+   public static final String CSV_HEADER = "time,param,type,value,stid,stations";
+   
+   /**
+    * Types of statistic exported unless others are given: AVERAGE, MINIMUM, MAXIMUM, and TOTAL.
+    */
+   public static final Set<StatsType> BASELINE_TYPES = Collections.unmodifiableSet(EnumSet.of(StatsType.AVERAGE,
+            StatsType.MINIMUM, StatsType.MAXIMUM, StatsType.TOTAL));
+   
+   /**
+    * Writer rows are written through.
+    */
+   private final Writer out;
+   
+   /**
+    * Format rows are written in.
+    */
+   private final Format format;
+   
+   /**
+    * Types of statistic written for each parameter of an interval, in the order declared.
+    */
+   private final StatsType[] types;
+   
+   /**
+    * Row being built, reused for every row.
+    */
+   private final StringBuilder line = new StringBuilder(128);
+   
+   /**
+    * Characters of the row being written, reused for every row.
+    */
+   private char[] chars = new char[128];
+   
+   /**
+    * Space dates and times are formatted into.
+    */
+   private final char[] scratch = new char[EpochTime.FORMATTED_LENGTH];
+   
+   /**
+    * Number of rows written.
+    */
+   private long rows;
+   
+   /**
+    * Constructor, writes the BASELINE_TYPES of each parameter to out, buffering them unless
+    * out is already buffered.
+    * 
+    * @param out The writer to write to.
+    * @param format The format to write in.
+    */
+   public StatisticsExporter(Writer out, Format format)
+   {
+      this(out, format, BASELINE_TYPES);
+   }
+   
+   /**
+    * Constructor, writes the given types of statistic of each parameter to out, buffering
+    * them unless out is already buffered.
+    * 
+    * @param out The writer to write to.
+    * @param format The format to write in.
+    * @param types The types of statistic to write for each parameter of an interval.
+    */
+   public StatisticsExporter(Writer out, Format format, Set<StatsType> types)
+   {
+      
+      this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, 1 << 16);
+      this.format = format;
+      this.types = EnumSet.copyOf(types).toArray(new StatsType[0]);
+      
+   }
+   
+   /**
+    * Writes the chosen statistics of every parameter of an interval.
+    * 
+    * @param interval A parsed interval.
+    * @throws IOException In case the rows cannot be written.
+    */
+   public void write(MapData interval) throws IOException
+   {
+      this.write(interval.getSnapshot());
+   }
+   
+   /**
+    * Writes the chosen statistics of every parameter of an interval.
+    * 
+    * @param interval A parsed interval.
+    * @throws IOException In case the rows cannot be written.
+    */
+   public void write(MapDataSnapshot interval) throws IOException
+   {
+      
+      ParameterRegistry parameters = interval.getParameters();
+      
+      for (int p = 0; p < parameters.size(); ++p)
+      {
+         for (StatsType type : types)
+         {
+            this.write(parameters.getParamId(p), interval.getStatistics(parameters.getParamId(p), type));
+         }
+      }
+      
+   }
+   
+   /**
+    * Writes the chosen statistics of every parameter of many intervals.
+    * 
+    * @param intervals Parsed intervals, such as those returned by RangeIngestor.
+    * @throws IOException In case the rows cannot be written.
+    */
+   public void writeAll(Iterable<MapData> intervals) throws IOException
+   {
+      
+      for (MapData interval : intervals)
+      {
+         this.write(interval);
+      }
+      
+   }
+   
+   /**
+    * Writes one statistic.
+    * 
+    * @param paramId The name of the parameter the statistic is of.
+    * @param statistic The statistic.
+    * @throws IOException In case the row cannot be written.
+    */
+   public void write(String paramId, Statistics statistic) throws IOException
+   {
+      
+      line.setLength(0);
+      
+      if (format == Format.CSV)
+      {
+         
+         if (rows == 0)
+         {
+            line.append(CSV_HEADER).append('\n');
+         }
+         
+         EpochTime.append(statistic.getUTCEpochSecond(), line, scratch);
+         line.append(',');
+         this.appendCsv(paramId);
+         line.append(',').append(statistic.getStatType().name()).append(',');
+         this.appendValue(statistic.getValue(), "");
+         line.append(',');
+         this.appendCsv(statistic.getStid());
+         line.append(',').append(statistic.getNumberOfReportingStations());
+         
+      }
+      else
+      {
+         
+         line.append("{\"time\":\"");
+         EpochTime.append(statistic.getUTCEpochSecond(), line, scratch);
+         line.append("\",\"param\":");
+         this.appendJson(paramId);
+         line.append(",\"type\":\"").append(statistic.getStatType().name()).append("\",\"value\":");
+         
+         this.appendValue(statistic.getValue(), "null");
+         line.append(",\"stid\":");
+         this.appendJson(statistic.getStid());
+         line.append(",\"stations\":").append(statistic.getNumberOfReportingStations()).append('}');
+         
+      }
+      
+      line.append('\n');
+      
+      //copies the row into a reused array, since appending the builder would make a String of it
+      if (chars.length < line.length())
+      {
+         chars = new char[Math.max(line.length(), chars.length * 2)];
+      }
+      line.getChars(0, line.length(), chars, 0);
+      out.write(chars, 0, line.length());
+      ++rows;
+      
+   }
+   
+   /**
+    * Appends a value, or a marker in its place if it is NaN or infinite, which neither
+    * format can hold as a number.
+    * 
+    * @param value The value.
+    * @param missing What is written in place of a value that is not finite.
+    */
+   private void appendValue(double value, String missing)
+   {
+      
+      if (Double.isNaN(value) || Double.isInfinite(value))
+      {
+         line.append(missing);
+      }
+      else
+      {
+         line.append(value);
+      }
+      
+   }
+   
+   /**
+    * Appends a CSV field, quoting it if it holds a comma, quote, or line break.
+    * 
+    * @param field The field.
+    */
+   private void appendCsv(String field)
+   {
+      
+      boolean quote = false;
+      for (int i = 0; i < field.length() && !quote; ++i)
+      {
+         char c = field.charAt(i);
+         quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+      }
+      
+      if (!quote)
+      {
+         line.append(field);
+         return;
+      }
+      
+      line.append('"');
+      for (int i = 0; i < field.length(); ++i)
+      {
+         char c = field.charAt(i);
+         if (c == '"')
+         {
+            line.append('"');
+         }
+         line.append(c);
+      }
+      line.append('"');
+      
+   }
+   
+   /**
+    * Appends a JSON string, escaping quotes, backslashes, and control characters.
+    * 
+    * @param field The string.
+    */
+   private void appendJson(String field)
+   {
+      
+      line.append('"');
+      
+      for (int i = 0; i < field.length(); ++i)
+      {
+         
+         char c = field.charAt(i);
+         
+         if (c == '"' || c == '\\')
+         {
+            line.append('\\').append(c);
+         }
+         else if (c < 0x20)
+         {
+            line.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+         }
+         else
+         {
+            line.append(c);
+         }
+         
+      }
+      
+      line.append('"');
+      
+   }
+   
+   /**
+    * Returns the number of rows written, not counting the CSV header.
+    * 
+    * @return long rows written
+    */
+   public long getRowCount()
+   {
+      return rows;
+   }
+   
+   /**
+    * Writes any buffered rows.
+    * 
+    * @throws IOException In case the rows cannot be written.
+    */
+   @Override
+   public void flush() throws IOException
+   {
+      out.flush();
+   }
+   
+   /**
+    * Writes any buffered rows and closes the writer.
+    * 
+    * @throws IOException In case the rows cannot be written.
+    */
+   @Override
+   public void close() throws IOException
+   {
+      out.close();
+   }
+   
+}
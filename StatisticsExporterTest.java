@@ -0,0 +1,127 @@
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.EnumSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the StatisticsExporter class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class StatisticsExporterTest
+{
+   
+   @Test
+   /**
+    * Tests that an interval is written as CSV with one row per parameter and baseline
+    * statistic, and that its quantiles are neither written nor built.
+    * 
+    * @throws IOException
+    */
+   public void testCsv() throws IOException {
+      
+      MapData mapData = new MapData(2017, 9, 25, 17, 45, "data");
+      mapData.parseFile();
+      
+      StringWriter out = new StringWriter();
+      StatisticsExporter test = new StatisticsExporter(out, StatisticsExporter.Format.CSV);
+      CountingMetrics metrics = new CountingMetrics();
+      Metrics.set(metrics);
+      
+      try
+      {
+         test.write(mapData);
+         test.close();
+         Assert.assertEquals(3, metrics.getStatisticsCalculated());
+      }
+      finally
+      {
+         Metrics.set(null);
+      }
+      
+      String[] lines = out.toString().split("\n");
+      
+      Assert.assertEquals(3 * StatisticsExporter.BASELINE_TYPES.size(), test.getRowCount());
+      Assert.assertEquals(StatisticsExporter.CSV_HEADER, lines[0]);
+      Assert.assertTrue(out.toString().contains("2017-09-25'T'17:45:00 z,TAIR,MAXIMUM,35.3,BESS,10\n"));
+      Assert.assertFalse(out.toString().contains("MEDIAN"));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that only the types of statistic asked for are written, in the order declared.
+    * 
+    * @throws IOException
+    */
+   public void testTypes() throws IOException {
+      
+      MapData mapData = new MapData(2017, 9, 25, 17, 45, "data");
+      mapData.parseFile();
+      
+      StringWriter out = new StringWriter();
+      StatisticsExporter test = new StatisticsExporter(out, StatisticsExporter.Format.CSV,
+               EnumSet.of(StatsType.PERCENTILE_95, StatsType.MAXIMUM));
+      test.write(mapData);
+      test.close();
+      
+      String[] lines = out.toString().split("\n");
+      
+      Assert.assertEquals(6, test.getRowCount());
+      Assert.assertTrue(lines[1].contains(",MAXIMUM,"));
+      Assert.assertTrue(lines[2].contains(",PERCENTILE_95,"));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that a statistic is written as a JSON line with its strings escaped.
+    * 
+    * @throws IOException
+    */
+   public void testJsonLines() throws IOException {
+      
+      StringWriter out = new StringWriter();
+      StatisticsExporter test = new StatisticsExporter(out, StatisticsExporter.Format.JSON_LINES);
+      test.write("TAIR", new Statistics(20.5, "A\"B", "2018-08-30'T'17:45:00 z", 7, StatsType.MINIMUM));
+      test.flush();
+      
+      Assert.assertEquals("{\"time\":\"2018-08-30'T'17:45:00 z\",\"param\":\"TAIR\",\"type\":\"MINIMUM\","
+               + "\"value\":20.5,\"stid\":\"A\\\"B\",\"stations\":7}\n", out.toString());
+      
+   }
+
+   @Test
+   /**
+    * Tests that a value that is not a number is written as an empty CSV field and as null
+    * in JSON, and that a row longer than the reused buffer is written whole.
+    * 
+    * @throws IOException
+    */
+   public void testNaN() throws IOException {
+      
+      StringWriter csv = new StringWriter();
+      StatisticsExporter test = new StatisticsExporter(csv, StatisticsExporter.Format.CSV);
+      test.write("TAIR", new Statistics(Double.NaN, "NRMN", "2018-08-30'T'17:45:00 z", 0, StatsType.MEDIAN));
+      test.flush();
+      
+      Assert.assertEquals(StatisticsExporter.CSV_HEADER + "\n2018-08-30'T'17:45:00 z,TAIR,MEDIAN,,NRMN,0\n",
+               csv.toString());
+      
+      StringWriter json = new StringWriter();
+      test = new StatisticsExporter(json, StatisticsExporter.Format.JSON_LINES);
+      String stid = String.join("", Collections.nCopies(100, "NRMN"));
+      test.write("TAIR", new Statistics(Double.NaN, stid, "2018-08-30'T'17:45:00 z", 0, StatsType.MEDIAN));
+      test.flush();
+      
+      Assert.assertEquals("{\"time\":\"2018-08-30'T'17:45:00 z\",\"param\":\"TAIR\",\"type\":\"MEDIAN\","
+               + "\"value\":null,\"stid\":\"" + stid + "\",\"stations\":0}\n", json.toString());
+      
+   }
+   
+}
@@ -131,5 +131,21 @@ public class StatisticsTest
       
       Assert.assertTrue(test1.toString().equals(str));
    }
+   
+   @Test
+   /**
+    * Compares statistics by their date and time in seconds since 1970-01-01 UTC.
+    */
+   public void testEpochComparisons() {
+      
+      Statistics test1 = new Statistics(33.0, "MIAM", "2018-08-30'T'17:45:00 z", 9, StatsType.AVERAGE);
+      Statistics test2 = new Statistics(33.0, "MIAM", EpochTime.of(2018, 8, 30, 17, 45, 0), 9, StatsType.AVERAGE);
+      
+      Assert.assertTrue(test1.sameAs(test2.getUTCEpochSecond()));
+      Assert.assertTrue(test1.newerThan(test2.getUTCEpochSecond() - 1));
+      Assert.assertTrue(test1.olderThan(test2.getUTCEpochSecond() + 1));
+      Assert.assertTrue(test2.getUTCDateTimeString().equals("2018-08-30'T'17:45:00 z"));
+      
+   }
 
 }
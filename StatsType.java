@@ -8,9 +8,42 @@
  */
 
 /**
- * Limits stats types to AVERAGE, MINUMUM, MAXIMUM, and TOTAL.
+ * Limits stats types to AVERAGE, MINUMUM, MAXIMUM, TOTAL, and the quantiles MEDIAN,
+ * PERCENTILE_95, and PERCENTILE_99.
  */
 public enum StatsType
 {
-   AVERAGE, MINIMUM, MAXIMUM, TOTAL
+   AVERAGE, MINIMUM, MAXIMUM, TOTAL, MEDIAN, PERCENTILE_95, PERCENTILE_99;
+   
+   /**
+    * Returns whether the type is a quantile of the values.
+    * 
+    * @return boolean true for MEDIAN, PERCENTILE_95, and PERCENTILE_99
+    */
+   public boolean isQuantile()
+   {
+      return this == MEDIAN || this == PERCENTILE_95 || this == PERCENTILE_99;
+   }
+   
+   /**
+    * Returns the quantile the type stands for.
+    * 
+    * @return double quantile between 0 and 1, or NaN if the type is not a quantile
+    */
+   public double getQuantile()
+   {
+      
+      switch (this)
+      {
+         case MEDIAN:
+            return 0.5;
+         case PERCENTILE_95:
+            return 0.95;
+         case PERCENTILE_99:
+            return 0.99;
+         default:
+            return Double.NaN;
+      }
+      
+   }
 }
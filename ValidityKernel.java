@@ -0,0 +1,25 @@
+/**
+ * Evaluates one validity rule over an array of values into a bitmap.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public interface ValidityKernel
+{
+   
+   /**
+    * Sets the bit of each value from min to max, both inclusive, that is not one of the
+    * sentinels. NaN is never valid.
+    * 
+    * @param values The values to check.
+    * @param count The number of values to check, from the start of values.
+    * @param min The smallest valid value.
+    * @param max The largest valid value.
+    * @param sentinels Codes that are never valid.
+    * @param words Bitmap to set bits in, 64 values per word, zeroed by the caller.
+    */
+   public void evaluate(double[] values, int count, double min, double max, double[] sentinels, long[] words);
+   
+}
@@ -0,0 +1,276 @@
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides which observations are valid, parameter by parameter. Each parameter has a range
+ * of valid values and a list of sentinel codes that mark missing or bad data, and a
+ * parameter without its own rule uses the DEFAULT one. Rules are evaluated over whole
+ * columns of values at once into validity bitmaps, with the incubating Vector API when it
+ * is available.
+ * 
+ * Rules are changed only while they are being built. MapData keeps its own copy of the
+ * rules it is given, so parses on other threads never see them change.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ValidityRules
+{
+   
+   /**
+    * Name of the rule used by parameters without their own.
+    */
+   public static final String DEFAULT = "*";
+   
+   /**
+    * Codes Mesonet uses for missing or bad data.
+    */
+   public static final double[] MESONET_SENTINELS = {-995, -996, -998, -999};
+   
+   /**
+    * Smallest valid value of the legacy rule, below which values are codes.
+    */
+   private static final double LEGACY_MIN = -900;
+   
+   /**
+    * Name of the vector kernel, loaded only if it and the Vector API are present.
+    */
+   private static final String VECTOR_KERNEL = "VectorValidityKernel";
+   
+   /**
+    * Kernel every rule is evaluated with.
+    */
+   private static final ValidityKernel KERNEL = loadKernel();
+   
+   /**
+    * The range and sentinel codes of one parameter.
+    */
+   private static final class Rule
+   {
+      
+      /**
+       * Smallest valid value.
+       */
+      private double min;
+      
+      /**
+       * Largest valid value.
+       */
+      private double max;
+      
+      /**
+       * Codes that are never valid.
+       */
+      private double[] sentinels;
+      
+      /**
+       * Constructor, initializes the rule.
+       * 
+       * @param min The smallest valid value.
+       * @param max The largest valid value.
+       * @param sentinels Codes that are never valid.
+       */
+      private Rule(double min, double max, double[] sentinels)
+      {
+         this.min = min;
+         this.max = max;
+         this.sentinels = sentinels;
+      }
+      
+   }
+   
+   /**
+    * Rule of each parameter, including DEFAULT.
+    */
+   private final Map<String, Rule> rules = new HashMap<>();
+   
+   /**
+    * Constructor, initializes rules that match Observation.isValidValue for every parameter:
+    * values of -900 and above are valid.
+    */
+   public ValidityRules()
+   {
+      rules.put(DEFAULT, new Rule(LEGACY_MIN, Double.POSITIVE_INFINITY, new double[0]));
+   }
+   
+   /**
+    * Constructor, initializes a copy of other rules that later changes to them do not
+    * affect. A copy that is never changed may be evaluated by many threads at once.
+    * 
+    * @param other The rules to copy.
+    */
+   public ValidityRules(ValidityRules other)
+   {
+      
+      for (Map.Entry<String, Rule> entry : other.rules.entrySet())
+      {
+         Rule rule = entry.getValue();
+         rules.put(entry.getKey(), new Rule(rule.min, rule.max, rule.sentinels));
+      }
+      
+   }
+   
+   /**
+    * Returns the rules used by QA: the Mesonet sentinel codes are invalid for every
+    * parameter, solar radiation cannot be negative, and air temperatures must be within
+    * the bounds ever recorded in Oklahoma with some margin.
+    * 
+    * @return ValidityRules for QA
+    */
+   public static ValidityRules mesonet()
+   {
+      
+      ValidityRules mesonet = new ValidityRules();
+      mesonet.setSentinels(DEFAULT, MESONET_SENTINELS);
+      mesonet.setRange(MapData.SRAD_ID, 0, 1500);
+      mesonet.setRange(MapData.TAIR_ID, -40, 50);
+      mesonet.setRange(MapData.TA9M_ID, -40, 50);
+      
+      return mesonet;
+      
+   }
+   
+   /**
+    * Loads the vector kernel if it was compiled and the Vector API module is present.
+    * 
+    * @return ValidityKernel vector or scalar
+    */
+   private static ValidityKernel loadKernel()
+   {
+      
+      try
+      {
+         return (ValidityKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+      }
+      catch (ReflectiveOperationException | LinkageError | ClassCastException e)
+      {
+         return new ScalarValidityKernel();
+      }
+      
+   }
+   
+   /**
+    * Returns the rule of a parameter, creating it from the DEFAULT rule if it has none.
+    * 
+    * @param paramId The name of the parameter, or DEFAULT.
+    * @return Rule of paramId
+    */
+   private Rule ruleFor(String paramId)
+   {
+      
+      Rule rule = rules.get(paramId);
+      
+      if (rule == null)
+      {
+         Rule defaults = rules.get(DEFAULT);
+         rule = new Rule(defaults.min, defaults.max, defaults.sentinels);
+         rules.put(paramId, rule);
+      }
+      
+      return rule;
+      
+   }
+   
+   /**
+    * Sets the range of valid values of a parameter, replacing its previous range.
+    * 
+    * @param paramId The name of the parameter, or DEFAULT.
+    * @param min The smallest valid value.
+    * @param max The largest valid value.
+    */
+   public void setRange(String paramId, double min, double max)
+   {
+      
+      if (!(min <= max))
+      {
+         throw new IllegalArgumentException("Empty range for " + paramId + ": " + min + " to " + max);
+      }
+      
+      Rule rule = this.ruleFor(paramId);
+      rule.min = min;
+      rule.max = max;
+      
+   }
+   
+   /**
+    * Sets the sentinel codes of a parameter, replacing its previous codes.
+    * 
+    * @param paramId The name of the parameter, or DEFAULT.
+    * @param sentinels Codes that are never valid.
+    */
+   public void setSentinels(String paramId, double... sentinels)
+   {
+      this.ruleFor(paramId).sentinels = sentinels.clone();
+   }
+   
+   /**
+    * Returns the rule a parameter is checked with, without creating one.
+    * 
+    * @param paramId The name of the parameter.
+    * @return Rule of paramId, or the DEFAULT rule
+    */
+   private Rule lookup(String paramId)
+   {
+      
+      Rule rule = rules.get(paramId);
+      
+      return rule == null ? rules.get(DEFAULT) : rule;
+      
+   }
+   
+   /**
+    * Determines whether one value of a parameter is valid.
+    * 
+    * @param paramId The name of the parameter.
+    * @param value The value.
+    * @return boolean true if valid
+    */
+   public boolean isValid(String paramId, double value)
+   {
+      
+      Rule rule = this.lookup(paramId);
+      boolean valid = value >= rule.min && value <= rule.max;
+      
+      for (int s = 0; s < rule.sentinels.length && valid; ++s)
+      {
+         valid = value != rule.sentinels[s];
+      }
+      
+      return valid;
+      
+   }
+   
+   /**
+    * Determines which values of a parameter are valid.
+    * 
+    * @param paramId The name of the parameter.
+    * @param values The values to check.
+    * @param count The number of values to check, from the start of values.
+    * @return BitSet with a set bit for each valid value
+    */
+   public BitSet evaluate(String paramId, double[] values, int count)
+   {
+      
+      Rule rule = this.lookup(paramId);
+      long[] words = new long[(count + Long.SIZE - 1) / Long.SIZE];
+      
+      KERNEL.evaluate(values, count, rule.min, rule.max, rule.sentinels, words);
+      
+      return BitSet.valueOf(words);
+      
+   }
+   
+   /**
+    * Returns the name of the kernel rules are evaluated with.
+    * 
+    * @return String VectorValidityKernel or ScalarValidityKernel
+    */
+   public static String getKernelName()
+   {
+      return KERNEL.getClass().getName();
+   }
+   
+}
@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the ValidityRules class.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class ValidityRulesTest
+{
+   
+   @Test
+   /**
+    * Tests that bulk evaluation matches checking each value on its own, for default,
+    * range, and sentinel rules.
+    */
+   public void testEvaluate() {
+      
+      ValidityRules test = ValidityRules.mesonet();
+      test.setSentinels("RELH", -995);
+      
+      Random random = new Random(20);
+      double[] values = new double[1000];
+      for (int i = 0; i < values.length; ++i)
+      {
+         values[i] = i % 7 == 0 ? ValidityRules.MESONET_SENTINELS[i % 4] : random.nextDouble() * 2000 - 500;
+      }
+      values[3] = Double.NaN;
+      
+      for (String paramId : new String[] {"SRAD", "TAIR", "RELH", "PRES"})
+      {
+         BitSet valid = test.evaluate(paramId, values, 999);
+         for (int i = 0; i < values.length; ++i)
+         {
+            Assert.assertEquals(i < 999 && test.isValid(paramId, values[i]), valid.get(i));
+         }
+      }
+      
+      Assert.assertFalse(test.isValid("SRAD", -1));
+      Assert.assertFalse(test.isValid("PRES", -998));
+      Assert.assertTrue(test.isValid("RELH", -900));
+      Assert.assertTrue(new ValidityRules().isValid("TAIR", 99.0));
+      Assert.assertFalse(new ValidityRules().isValid("TAIR", -996));
+      
+   }
+   
+   @Test
+   /**
+    * Tests that parsing with rules leaves values outside the ranges out of the statistics.
+    * 
+    * @throws IOException
+    */
+   public void testParseWithRules() throws IOException {
+      
+      MapData mapData = new MapData(2017, 9, 25, 17, 45, "data");
+      ValidityRules rules = new ValidityRules();
+      rules.setRange(MapData.SRAD_ID, 0, 850);
+      mapData.setValidityRules(rules);
+      //the MapData keeps its own copy, so later changes are not seen
+      rules.setRange(MapData.SRAD_ID, 0, 100);
+      mapData.parseFile();
+      
+      Assert.assertEquals(mapData.getSradMax().getValue(), 850.0, .1);
+      Assert.assertEquals(3, mapData.getSnapshot().getInvalidCount(MapData.SRAD_ID));
+      Assert.assertFalse(mapData.getObservations().getObservation(9, 0).isValid());
+      
+   }
+
+}
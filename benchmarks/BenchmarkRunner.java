@@ -0,0 +1,34 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark with the gc profiler, so that allocation rate is reported next to
+ * throughput. Pass a regular expression to run only the matching benchmarks.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class BenchmarkRunner
+{
+
+   public static void main(String[] args) throws RunnerException {
+      
+      String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+      
+      Options options = new OptionsBuilder()
+               .include(include)
+               .addProfiler(GCProfiler.class)
+               .build();
+      
+      new Runner(options).run();
+      
+   }
+
+}
@@ -0,0 +1,118 @@
+import benchmarks.Workload;
+import java.io.File;
+import java.io.IOException;
+import java.util.GregorianCalendar;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Implements the operations the benchmarks measure with the project's classes. It is in the
+ * default package, next to the classes it calls, and is loaded by Workload.load().
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class BenchmarkWorkload implements Workload
+{
+   
+   /**
+    * Parses the file written by MdfGenerator for 2018-08-30 at the given minute.
+    * 
+    * @param directory The file location for the data.
+    * @param minute Minute of 2018-08-30 17:00 the data was taken.
+    * @return Object the parsed MapData
+    * @throws IOException In case the file could not be read.
+    */
+   @Override
+   public Object parseFile(File directory, int minute) throws IOException
+   {
+      
+      MapData mapData = new MapData(2018, 8, 30, 17, minute, directory.getPath());
+      mapData.parseFile();
+      
+      return mapData;
+      
+   }
+   
+   /**
+    * Runs the statistics kernel over the parsed observations of every parameter.
+    * 
+    * @param mapData A MapData returned by parseFile.
+    * @param blackhole Consumes the results.
+    */
+   @Override
+   public void calculateStatistics(Object mapData, Blackhole blackhole)
+   {
+      
+      ObservationStore observations = ((MapData) mapData).getObservations();
+      StatisticsAccumulator accumulator = new StatisticsAccumulator(observations.getParamCount());
+      
+      for (int i = 0; i < observations.size(); ++i)
+      {
+         for (int p = 0; p < observations.getParamCount(); ++p)
+         {
+            accumulator.add(p, i, observations.getValue(i, p));
+         }
+      }
+      
+      for (int p = 0; p < observations.getParamCount(); ++p)
+      {
+         blackhole.consume(accumulator.getMin(p));
+         blackhole.consume(accumulator.getMax(p));
+         blackhole.consume(accumulator.getAverage(p));
+      }
+      
+   }
+   
+   /**
+    * Formats the report of a parsed interval.
+    * 
+    * @param mapData A MapData returned by parseFile.
+    * @return String report
+    */
+   @Override
+   public String toStringReport(Object mapData)
+   {
+      return mapData.toString();
+   }
+   
+   /**
+    * Builds a statistic from a date and time string.
+    * 
+    * @param dateTime Date and time in the format Statistics uses.
+    * @return Object the Statistics built
+    */
+   @Override
+   public Object newStatistic(String dateTime)
+   {
+      return new Statistics(33.0, "NRMN", dateTime, 120, StatsType.AVERAGE);
+   }
+   
+   /**
+    * Parses a date and time string with a statistic.
+    * 
+    * @param statistic A Statistics returned by newStatistic.
+    * @param dateTime Date and time in the format Statistics uses.
+    * @return GregorianCalendar parsed
+    */
+   @Override
+   public GregorianCalendar createDateFromString(Object statistic, String dateTime)
+   {
+      return ((Statistics) statistic).createDateFromString(dateTime);
+   }
+   
+   /**
+    * Formats a calendar with a statistic.
+    * 
+    * @param statistic A Statistics returned by newStatistic.
+    * @param calendar The calendar to format.
+    * @return String formatted
+    */
+   @Override
+   public String createStringFromDate(Object statistic, GregorianCalendar calendar)
+   {
+      return ((Statistics) statistic).createStringFromDate(calendar);
+   }
+   
+}
@@ -0,0 +1,148 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing a file, building its statistics, and formatting its report for networks
+ * from 120 to 100,000 stations. Each column holds 9 missing data codes by default, one
+ * fewer than makes MapData drop its statistics; pass -p missing=10 or more to measure the
+ * report of a column without them.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapDataBenchmark
+{
+   
+   /**
+    * Number of station rows in the generated file.
+    */
+   @Param({"120", "1000", "10000", "100000"})
+   public int stations;
+   
+   /**
+    * Number of missing data codes in each column of the generated file.
+    */
+   @Param({"9"})
+   public int missing;
+   
+   /**
+    * The project's classes, called through an interface since they are in the default package.
+    */
+   private Workload workload;
+   
+   /**
+    * Directory the generated file is written to.
+    */
+   private File directory;
+   
+   /**
+    * Interval parsed once, for the benchmarks that do not measure parsing.
+    */
+   private Object parsed;
+   
+   /**
+    * Writes the file and parses it once.
+    * 
+    * @throws IOException In case the file could not be written.
+    */
+   @Setup(Level.Trial)
+   public void setUp() throws IOException
+   {
+      
+      workload = Workload.load();
+      
+      directory = Files.createTempDirectory("mdf-bench").toFile();
+      MdfGenerator.write(directory, 45, stations, missing, 42);
+      
+      parsed = workload.parseFile(directory, 45);
+      
+   }
+   
+   /**
+    * Deletes the generated file.
+    */
+   @TearDown(Level.Trial)
+   public void tearDown()
+   {
+      
+      for (File file : directory.listFiles())
+      {
+         file.delete();
+      }
+      directory.delete();
+      
+   }
+   
+   /**
+    * Parses the file.
+    * 
+    * @return Object the parsed MapData
+    * @throws IOException In case the file could not be read.
+    */
+   @Benchmark
+   public Object parseFile() throws IOException
+   {
+      return workload.parseFile(directory, 45);
+   }
+   
+   /**
+    * Runs the statistics kernel over the parsed observations of every parameter.
+    * 
+    * @param blackhole Consumes the results.
+    */
+   @Benchmark
+   public void calculateStatistics(Blackhole blackhole)
+   {
+      workload.calculateStatistics(parsed, blackhole);
+   }
+   
+   /**
+    * Parses the file and builds every statistic the report uses.
+    * 
+    * @return String report
+    * @throws IOException In case the file could not be read.
+    */
+   @Benchmark
+   public String parseAndReport() throws IOException
+   {
+      return workload.toStringReport(this.parseFile());
+   }
+   
+   /**
+    * Formats the report of the parsed interval.
+    * 
+    * @return String report
+    */
+   @Benchmark
+   public String toStringReport()
+   {
+      return workload.toStringReport(parsed);
+   }
+   
+}
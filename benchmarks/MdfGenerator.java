@@ -0,0 +1,138 @@
+package benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Writes synthetic .mdf files with any number of stations for the benchmarks.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class MdfGenerator
+{
+   
+   /**
+    * Column names of a Mesonet data file.
+    */
+   private static final String[] COLUMNS = {"STID", "STNM", "TIME", "RELH", "TAIR", "WSPD", "WVEC", "WDIR",
+      "WDSD", "WSSD", "WMAX", "RAIN", "PRES", "SRAD", "TA9M", "WS2M", "TS10", "TB10", "TS05", "TS25", "TS60",
+      "TR05", "TR25", "TR60"};
+   
+   /**
+    * Codes Mesonet uses for missing or bad data.
+    */
+   private static final int[] MISSING = {-995, -996, -998, -999};
+   
+   /**
+    * Writes a file in directory for 2018-08-30 at the given minute with the given number
+    * of stations. Each column holds exactly the given number of missing data codes, at
+    * random rows. MapData reports no statistics for a column with ten or more, so a count
+    * below ten measures the statistics and one above measures the report without them.
+    * 
+    * @param directory The directory to write the file to.
+    * @param minute Minute of 2018-08-30 17:00 the data was taken.
+    * @param stations The number of station rows.
+    * @param missing The number of missing data codes in each column.
+    * @param seed Seed for the random values.
+    * @return File written
+    * @throws IOException In case the file could not be written.
+    */
+   public static File write(File directory, int minute, int stations, int missing, long seed) throws IOException
+   {
+      
+      Random random = new Random(seed);
+      
+      //picks the rows of each column that hold a missing data code
+      BitSet[] missingRows = new BitSet[COLUMNS.length];
+      for (int c = 3; c < COLUMNS.length; ++c)
+      {
+         missingRows[c] = new BitSet(stations);
+         while (missingRows[c].cardinality() < Math.min(missing, stations))
+         {
+            missingRows[c].set(random.nextInt(stations));
+         }
+      }
+      
+      File file = new File(directory, String.format("2018083017%02d.mdf", minute));
+      BufferedWriter out = new BufferedWriter(new FileWriter(file));
+      
+      try
+      {
+         
+         out.write("  101 ! (c) 2018 Oklahoma Climatological Survey - all rights reserved\n");
+         out.write(String.format("  2018 08 30 17 %02d 00\n", minute));
+         
+         StringBuilder line = new StringBuilder();
+         for (String column : COLUMNS)
+         {
+            line.append(String.format("%6s", column));
+         }
+         out.write(line.append('\n').toString());
+         
+         for (int i = 0; i < stations; ++i)
+         {
+            
+            line.setLength(0);
+            line.append(String.format("%6s%6d%6d", stationId(i), i + 1, minute));
+            
+            for (int c = 3; c < COLUMNS.length; ++c)
+            {
+               if (missingRows[c].get(i))
+               {
+                  line.append(String.format("%7d", MISSING[random.nextInt(MISSING.length)]));
+               }
+               else if (COLUMNS[c].equals("SRAD"))
+               {
+                  line.append(String.format("%7d", random.nextInt(1000)));
+               }
+               else
+               {
+                  line.append(String.format("%7.1f", 15 + random.nextDouble() * 25));
+               }
+            }
+            
+            out.write(line.append('\n').toString());
+            
+         }
+         
+         //the last line of a file is not a station row
+         out.write("\n");
+         
+      }
+      finally
+      {
+         out.close();
+      }
+      
+      return file;
+      
+   }
+   
+   /**
+    * Returns a four letter station ID for a station number.
+    * 
+    * @param number The number of the station.
+    * @return String station ID
+    */
+   public static String stationId(int number)
+   {
+      
+      char[] id = new char[4];
+      for (int i = 3; i >= 0; --i)
+      {
+         id[i] = (char) ('A' + number % 26);
+         number /= 26;
+      }
+      
+      return new String(id);
+      
+   }
+   
+}
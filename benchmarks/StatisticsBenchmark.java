@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.util.GregorianCalendar;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures converting the date and time of a statistic to and from a string.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticsBenchmark
+{
+   
+   /**
+    * Date and time string in the format Statistics uses.
+    */
+   private String dateTime = "2018-08-30'T'17:45:00 z";
+   
+   /**
+    * The project's classes, called through an interface since they are in the default package.
+    */
+   private Workload workload = Workload.load();
+   
+   /**
+    * Statistic whose methods are measured.
+    */
+   private Object statistic = workload.newStatistic(dateTime);
+   
+   /**
+    * Calendar formatted by createStringFromDate.
+    */
+   private GregorianCalendar calendar = new GregorianCalendar(2018, 8, 30, 17, 45, 0);
+   
+   /**
+    * Parses the date and time string.
+    * 
+    * @return GregorianCalendar parsed
+    */
+   @Benchmark
+   public GregorianCalendar createDateFromString()
+   {
+      return workload.createDateFromString(statistic, dateTime);
+   }
+   
+   /**
+    * Formats the calendar.
+    * 
+    * @return String formatted
+    */
+   @Benchmark
+   public String createStringFromDate()
+   {
+      return workload.createStringFromDate(statistic, calendar);
+   }
+   
+   /**
+    * Builds a statistic from a date and time string, as rehydrating stored statistics does.
+    * 
+    * @return Object the Statistics built
+    */
+   @Benchmark
+   public Object constructFromString()
+   {
+      return workload.newStatistic(dateTime);
+   }
+   
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.GregorianCalendar;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The operations the benchmarks measure. JMH will not generate benchmarks in the default
+ * package, and a named package cannot import the default package the project is written
+ * in, so the benchmarks call the project through this interface. BenchmarkWorkload
+ * implements it in the default package and is loaded once, outside the measured code.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public interface Workload
+{
+   
+   /**
+    * Loads the implementation in the default package.
+    * 
+    * @return Workload for the project's classes
+    */
+   static Workload load()
+   {
+      
+      try
+      {
+         return (Workload) Class.forName("BenchmarkWorkload").getDeclaredConstructor().newInstance();
+      }
+      catch (ReflectiveOperationException e)
+      {
+         throw new IllegalStateException("BenchmarkWorkload is not on the classpath", e);
+      }
+      
+   }
+   
+   /**
+    * Parses the file written by MdfGenerator for 2018-08-30 at the given minute.
+    * 
+    * @param directory The file location for the data.
+    * @param minute Minute of 2018-08-30 17:00 the data was taken.
+    * @return Object the parsed MapData
+    * @throws IOException In case the file could not be read.
+    */
+   Object parseFile(File directory, int minute) throws IOException;
+   
+   /**
+    * Runs the statistics kernel over the parsed observations of every parameter.
+    * 
+    * @param mapData A MapData returned by parseFile.
+    * @param blackhole Consumes the results.
+    */
+   void calculateStatistics(Object mapData, Blackhole blackhole);
+   
+   /**
+    * Formats the report of a parsed interval.
+    * 
+    * @param mapData A MapData returned by parseFile.
+    * @return String report
+    */
+   String toStringReport(Object mapData);
+   
+   /**
+    * Builds a statistic from a date and time string.
+    * 
+    * @param dateTime Date and time in the format Statistics uses.
+    * @return Object the Statistics built
+    */
+   Object newStatistic(String dateTime);
+   
+   /**
+    * Parses a date and time string with a statistic.
+    * 
+    * @param statistic A Statistics returned by newStatistic.
+    * @param dateTime Date and time in the format Statistics uses.
+    * @return GregorianCalendar parsed
+    */
+   GregorianCalendar createDateFromString(Object statistic, String dateTime);
+   
+   /**
+    * Formats a calendar with a statistic.
+    * 
+    * @param statistic A Statistics returned by newStatistic.
+    * @param calendar The calendar to format.
+    * @return String formatted
+    */
+   String createStringFromDate(Object statistic, GregorianCalendar calendar);
+   
+}
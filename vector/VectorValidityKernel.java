@@ -0,0 +1,78 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Evaluates validity rules a vector of values at a time with the incubating Vector API.
+ * It is compiled and run with --add-modules jdk.incubator.vector, and ValidityRules
+ * only loads it when that module is present, using ScalarValidityKernel otherwise.
+ * 
+ * @author Elijah Boulton
+ * @version 2018-10-16
+ * Project 3
+ */
+
+public class VectorValidityKernel implements ValidityKernel
+{
+   
+   /**
+    * Widest vector of doubles the processor supports, whose length always divides 64.
+    */
+   private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+   
+   @Override
+   /**
+    * Sets the bit of each valid value.
+    * 
+    * @param values The values to check.
+    * @param count The number of values to check.
+    * @param min The smallest valid value.
+    * @param max The largest valid value.
+    * @param sentinels Codes that are never valid.
+    * @param words Bitmap to set bits in, zeroed by the caller.
+    */
+   public void evaluate(double[] values, int count, double min, double max, double[] sentinels, long[] words)
+   {
+      
+      int lanes = SPECIES.length();
+      int bound = SPECIES.loopBound(count);
+      int i = 0;
+      
+      for (; i < bound; i += lanes)
+      {
+         
+         DoubleVector vector = DoubleVector.fromArray(SPECIES, values, i);
+         VectorMask<Double> valid = vector.compare(VectorOperators.GE, min).and(vector.compare(VectorOperators.LE, max));
+         
+         for (double sentinel : sentinels)
+         {
+            valid = valid.andNot(vector.compare(VectorOperators.EQ, sentinel));
+         }
+         
+         //i is a multiple of lanes, which divides 64, so the lanes never straddle two words
+         words[i >>> 6] |= valid.toLong() << (i & 63);
+         
+      }
+      
+      for (; i < count; ++i)
+      {
+         
+         double value = values[i];
+         boolean valid = value >= min && value <= max;
+         
+         for (int s = 0; s < sentinels.length && valid; ++s)
+         {
+            valid = value != sentinels[s];
+         }
+         
+         if (valid)
+         {
+            words[i >>> 6] |= 1L << (i & 63);
+         }
+         
+      }
+      
+   }
+   
+}